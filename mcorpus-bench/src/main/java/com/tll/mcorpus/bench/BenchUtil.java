@@ -0,0 +1,170 @@
+package com.tll.mcorpus.bench;
+
+import static com.tll.repo.FetchResult.fetchrslt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.tll.jwt.IJwtBackendHandler;
+import com.tll.jwt.IJwtHttpResponseAction;
+import com.tll.jwt.IJwtUser;
+import com.tll.mcorpus.db.enums.Addressname;
+import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.db.enums.MemberStatus;
+import com.tll.mcorpus.db.tables.pojos.Maddress;
+import com.tll.mcorpus.db.tables.pojos.Mauth;
+import com.tll.mcorpus.db.tables.pojos.Member;
+import com.tll.mcorpus.db.udt.pojos.Mref;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+import com.tll.mcorpus.dmodel.MemberSearch;
+import com.tll.mcorpus.repo.MCorpusRepo;
+import com.tll.repo.FetchResult;
+import com.tll.web.RequestSnapshot;
+
+import org.postgresql.ds.PGSimpleDataSource;
+
+/**
+ * Shared benchmark fixtures: stub backends and canned request data.
+ *
+ * @author jpk
+ */
+public class BenchUtil {
+
+  /**
+   * Backend stub reporting all JWTs as valid.
+   */
+  public static class ValidJwtBackendHandler implements IJwtBackendHandler {
+
+    @Override
+    public FetchResult<JwtBackendStatus> getBackendJwtStatus(UUID jwtId, UUID jwtUserId) {
+      return fetchrslt(JwtBackendStatus.VALID);
+    }
+
+    @Override
+    public FetchResult<Integer> getNumActiveJwtLogins(UUID jwtUserId) {
+      return fetchrslt(1);
+    }
+
+    @Override
+    public FetchResult<IJwtUser> jwtBackendLogin(String username, String pswd, UUID pendingJwtId,
+        String clientOriginToken, Instant requestInstant, Instant jwtExpiration) {
+      return fetchrslt(null, "not supported");
+    }
+
+    @Override
+    public FetchResult<Boolean> jwtBackendLogout(UUID jwtUserId, UUID jwtId, String clientOriginToken,
+        Instant requestInstant) {
+      return fetchrslt(Boolean.TRUE);
+    }
+
+    @Override
+    public FetchResult<Boolean> jwtInvalidateAllForUser(UUID jwtUserId, String clientOriginToken,
+        Instant requestInstant) {
+      return fetchrslt(Boolean.TRUE);
+    }
+  }
+
+  /**
+   * In-memory mcorpus repo stub serving canned members without touching a db.
+   */
+  public static class StubMCorpusRepo extends MCorpusRepo {
+
+    final List<MemberAndMauth> members;
+
+    /**
+     * Constructor.
+     *
+     * @param numMembers the number of members to serve for member searches
+     */
+    public StubMCorpusRepo(int numMembers) {
+      super(new PGSimpleDataSource());
+      final OffsetDateTime now = OffsetDateTime.now();
+      final List<MemberAndMauth> list = new ArrayList<>(numMembers);
+      for(int i = 0; i < numMembers; i++) {
+        final UUID mid = UUID.randomUUID();
+        list.add(new MemberAndMauth(
+          new Member(mid, now, now, String.format("01-%07d", i), Location._01, "First" + i, "Middle", "Last" + i, "Display" + i, MemberStatus.ACTIVE),
+          new Mauth(mid, now, LocalDate.of(1970, 1, 1), "123-45-6789", "p" + i + "@domain.com", "w" + i + "@domain.com",
+            "415-555-1212", "415-555-1213", "415-555-1214", null, "username" + i, null)
+        ));
+      }
+      this.members = Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public FetchResult<List<MemberAndMauth>> memberSearch(MemberSearch msearch) {
+      return fetchrslt(members);
+    }
+
+    @Override
+    public FetchResult<Map<UUID, Mref>> fetchMRefsByMids(Collection<UUID> mids) {
+      final Map<UUID, Mref> map = new HashMap<>(mids.size());
+      for(final UUID mid : mids) map.put(mid, new Mref(mid, "01-0000001", Location._01));
+      return fetchrslt(map);
+    }
+
+    @Override
+    public FetchResult<Map<UUID, List<Maddress>>> fetchMemberAddressesByMids(Collection<UUID> mids) {
+      final OffsetDateTime now = OffsetDateTime.now();
+      final Map<UUID, List<Maddress>> map = new HashMap<>(mids.size());
+      for(final UUID mid : mids) {
+        map.put(mid, Collections.singletonList(
+          new Maddress(mid, Addressname.home, now, null, "1 Main St.", null, "Oakland", "CA", "94601", "USA")));
+      }
+      return fetchrslt(map);
+    }
+  }
+
+  /**
+   * @return newly created {@link IJwtHttpResponseAction} whose methods do nothing.
+   */
+  public static IJwtHttpResponseAction noopJwtResponseAction() {
+    return new IJwtHttpResponseAction() {
+
+      @Override
+      public void setJwtClientside(String jwt, Duration jwtTimeToLive) {
+      }
+
+      @Override
+      public void expireJwtClientside() {
+      }
+    };
+  }
+
+  /**
+   * @param requestInstant the request instant
+   * @param jwtCookie the optional jwt cookie value
+   * @return newly created {@link RequestSnapshot} representative of a typical
+   *         proxied graphql request.
+   */
+  public static RequestSnapshot requestSnapshot(final Instant requestInstant, final String jwtCookie) {
+    return new RequestSnapshot(
+      requestInstant,
+      "10.0.0.1",
+      "graphql",
+      "POST",
+      "mcorpus.d2d",
+      "https://mcorpus.d2d",
+      "https://mcorpus.d2d/graphql/index",
+      null,
+      "203.0.113.7, 10.0.0.1",
+      "mcorpus.d2d",
+      "https",
+      jwtCookie,
+      "rst-cookie-value",
+      "rst-cookie-value",
+      UUID.randomUUID().toString()
+    );
+  }
+
+  private BenchUtil() {}
+}
@@ -0,0 +1,106 @@
+package com.tll.mcorpus.bench;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.tll.gql.CachingPreparsedDocumentProvider;
+import com.tll.jwt.JWT;
+import com.tll.jwt.JWTHttpRequestStatus;
+import com.tll.jwt.JWTHttpRequestStatus.JWTStatus;
+import com.tll.mcorpus.repo.MCorpusUserRepo;
+import com.tll.mcorpus.web.MCorpusGraphQL;
+import com.tll.mcorpus.web.MCorpusJwtRequestProvider;
+import com.tll.web.JWTUserGraphQLWebContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+
+/**
+ * End to end in-memory graphql query execution benchmarks against a stubbed
+ * mcorpus repo.
+ * <p>
+ * Measures data fetching, data loader batching and authorization directive
+ * overhead less any db i/o. Query documents are cached as in the server.
+ *
+ * @author jpk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphQLBench {
+
+  static final String membersQuery =
+    "query mbrs { members(filter: { limit: 20 }) { mid empId nameFirst nameLast addresses { addressName city } } }";
+
+  static final String membersFlatQuery =
+    "query mbrs { members(filter: { limit: 20 }) { mid empId nameFirst nameLast } }";
+
+  @Param({ "20" })
+  int numMembers;
+
+  MCorpusGraphQL mcgql;
+  GraphQL graphQL;
+  JWT jwt;
+  JWTHttpRequestStatus jwtStatus;
+  MCorpusJwtRequestProvider jwtRequest;
+
+  @Setup
+  public void setup() {
+    mcgql = new MCorpusGraphQL(
+      new MCorpusUserRepo(new PGSimpleDataSource()),
+      new BenchUtil.StubMCorpusRepo(numMembers));
+    graphQL = GraphQL.newGraphQL(mcgql.getGraphQLSchema())
+      .preparsedDocumentProvider(new CachingPreparsedDocumentProvider(500))
+      .build();
+    jwt = new JWT(new BenchUtil.ValidJwtBackendHandler(), Duration.ofDays(2), JWT.generateJwtSharedSecret(), "mcorpus.bench");
+    final Instant now = Instant.now();
+    jwtStatus = JWTHttpRequestStatus.create(JWTStatus.VALID, UUID.randomUUID(), UUID.randomUUID(), "MCORPUS", now, now);
+    jwtRequest = MCorpusJwtRequestProvider.fromRequestSnapshot(BenchUtil.requestSnapshot(now, null));
+  }
+
+  ExecutionResult execute(final String query) {
+    final ExecutionResult result = graphQL.execute(ExecutionInput.newExecutionInput()
+      .query(query)
+      .dataLoaderRegistry(mcgql.newDataLoaderRegistry())
+      .context(new JWTUserGraphQLWebContext(
+        query, null, jwtRequest, jwtStatus, jwt, BenchUtil.noopJwtResponseAction(), "mclogin"))
+      .build());
+    if(!result.getErrors().isEmpty()) throw new IllegalStateException(result.getErrors().toString());
+    return result;
+  }
+
+  /**
+   * Member search with nested addresses (batch loaded).
+   */
+  @Benchmark
+  public ExecutionResult membersWithAddresses() {
+    return execute(membersQuery);
+  }
+
+  /**
+   * Member search with flat member fields only.
+   */
+  @Benchmark
+  public ExecutionResult members() {
+    return execute(membersFlatQuery);
+  }
+}
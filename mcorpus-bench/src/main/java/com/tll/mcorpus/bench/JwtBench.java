@@ -0,0 +1,98 @@
+package com.tll.mcorpus.bench;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.tll.jwt.IJwtHttpRequestProvider;
+import com.tll.jwt.JWT;
+import com.tll.jwt.JWTHttpRequestStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link JWT} generation and incoming JWT verification benchmarks.
+ * <p>
+ * Contrasts the full decrypt and verify path against the verified JWT cache
+ * for a client re-using the same JWT across requests.
+ *
+ * @author jpk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBench {
+
+  static IJwtHttpRequestProvider requestProvider(final String jwt) {
+    final Instant requestInstant = Instant.now();
+    return new IJwtHttpRequestProvider() {
+
+      @Override
+      public boolean verifyClientOrigin(String clientOrigin) {
+        return true;
+      }
+
+      @Override
+      public Instant getRequestInstant() {
+        return requestInstant;
+      }
+
+      @Override
+      public String getJwt() {
+        return jwt;
+      }
+
+      @Override
+      public String getClientOrigin() {
+        return "127.0.0.1|localhost";
+      }
+    };
+  }
+
+  JWT jwtNoCache;
+  JWT jwtCached;
+  IJwtHttpRequestProvider generateRequest;
+  IJwtHttpRequestProvider verifyRequest;
+  UUID jwtId;
+  UUID userId;
+
+  @Setup
+  public void setup() throws Exception {
+    final byte[] sharedSecret = JWT.generateJwtSharedSecret();
+    final Duration ttl = Duration.ofDays(2);
+    jwtNoCache = new JWT(new BenchUtil.ValidJwtBackendHandler(), ttl, sharedSecret, "mcorpus.bench");
+    jwtCached = new JWT(new BenchUtil.ValidJwtBackendHandler(), ttl, sharedSecret, "mcorpus.bench", 1000);
+    jwtId = UUID.randomUUID();
+    userId = UUID.randomUUID();
+    generateRequest = requestProvider(null);
+    verifyRequest = requestProvider(jwtNoCache.jwtGenerate(jwtId, userId, "ADMIN", generateRequest));
+  }
+
+  @Benchmark
+  public String jwtGenerate() throws Exception {
+    return jwtNoCache.jwtGenerate(jwtId, userId, "ADMIN", generateRequest);
+  }
+
+  @Benchmark
+  public JWTHttpRequestStatus jwtHttpRequestStatus() {
+    return jwtNoCache.jwtHttpRequestStatus(verifyRequest);
+  }
+
+  @Benchmark
+  public JWTHttpRequestStatus jwtHttpRequestStatusCached() {
+    return jwtCached.jwtHttpRequestStatus(verifyRequest);
+  }
+}
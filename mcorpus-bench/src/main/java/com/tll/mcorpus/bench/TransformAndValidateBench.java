@@ -0,0 +1,98 @@
+package com.tll.mcorpus.bench;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.tll.mcorpus.dmodel.MemberSearch;
+import com.tll.mcorpus.gmodel.Member;
+import com.tll.mcorpus.gmodel.MemberAddress;
+import com.tll.mcorpus.gmodel.MemberFilter;
+import com.tll.mcorpus.transform.MemberFilterXfrm;
+import com.tll.mcorpus.validate.MemberAddressValidator;
+import com.tll.mcorpus.validate.MemberValidator;
+import com.tll.validate.VldtnResult;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Member filter transform and member (address) validation benchmarks.
+ *
+ * @author jpk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransformAndValidateBench {
+
+  MemberFilterXfrm xfrmMemberFilter;
+  MemberValidator vldtnMember;
+  MemberAddressValidator vldtnMemberAddress;
+
+  Map<String, Object> filterMap;
+  MemberFilter memberFilter;
+  Member member;
+  MemberAddress memberAddress;
+
+  @Setup
+  public void setup() {
+    xfrmMemberFilter = new MemberFilterXfrm();
+    vldtnMember = new MemberValidator();
+    vldtnMemberAddress = new MemberAddressValidator();
+
+    filterMap = new HashMap<>();
+    filterMap.put("offset", 0);
+    filterMap.put("limit", 20);
+    final Map<String, Object> nameLast = new HashMap<>();
+    nameLast.put("value", "sm*");
+    nameLast.put("ignoreCase", Boolean.TRUE);
+    filterMap.put("nameLast", nameLast);
+    final Map<String, Object> location = new HashMap<>();
+    location.put("locations", Arrays.asList("L01", "L02"));
+    filterMap.put("location", location);
+    filterMap.put("orderBy", "nameLast asc, created desc");
+    memberFilter = xfrmMemberFilter.fromGraphQLMap(filterMap);
+
+    final Date now = new Date();
+    member = new Member(null, null, null, "01-0000001", "01", "First", "Middle", "Last", "Display",
+      "ACTIVE", now, "123-45-6789", "p@domain.com", "w@domain.com", "415-555-1212", "415-555-1213", "415-555-1214",
+      "username1", "password23");
+    memberAddress = new MemberAddress(UUID.randomUUID(), "home", null, null, "1 Main St.", null, "Oakland", "CA",
+      "94601", "USA");
+  }
+
+  @Benchmark
+  public MemberFilter memberFilterFromGraphQLMap() {
+    return xfrmMemberFilter.fromGraphQLMap(filterMap);
+  }
+
+  @Benchmark
+  public MemberSearch memberFilterToBackend() {
+    return xfrmMemberFilter.toBackend(memberFilter);
+  }
+
+  @Benchmark
+  public VldtnResult memberValidateForAdd() {
+    return vldtnMember.validateForAdd(member);
+  }
+
+  @Benchmark
+  public VldtnResult memberAddressValidateForAdd() {
+    return vldtnMemberAddress.validateForAdd(memberAddress);
+  }
+}
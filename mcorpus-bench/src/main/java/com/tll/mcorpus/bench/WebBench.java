@@ -0,0 +1,81 @@
+package com.tll.mcorpus.bench;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.tll.transform.TransformUtil;
+import com.tll.web.GraphQLWebContext;
+import com.tll.web.RequestSnapshot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request web layer benchmarks: request snapshots, graphql query
+ * classification and uuid token conversion.
+ *
+ * @author jpk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WebBench {
+
+  static final String query =
+    "query mbrs {\n  members(filter: {\n    nameLast: { value: \"sm*\", ignoreCase: true }\n    limit: 20\n  }) {\n    mid\n    empId\n    nameFirst\n    nameLast\n    addresses { addressName city }\n  }\n}";
+
+  Instant requestInstant;
+  UUID uuid;
+  String uuidToken;
+  int distinct;
+
+  @Setup
+  public void setup() {
+    requestInstant = Instant.now();
+    uuid = UUID.randomUUID();
+    uuidToken = TransformUtil.uuidToToken(uuid);
+  }
+
+  @Benchmark
+  public RequestSnapshot requestSnapshot() {
+    return BenchUtil.requestSnapshot(requestInstant, null);
+  }
+
+  /**
+   * The same query over and over (the common case).
+   */
+  @Benchmark
+  public GraphQLWebContext graphQLWebContextRepeatQuery() {
+    return new GraphQLWebContext(query, null);
+  }
+
+  /**
+   * A never before seen query every time.
+   */
+  @Benchmark
+  public GraphQLWebContext graphQLWebContextDistinctQuery() {
+    return new GraphQLWebContext(query + " # " + (distinct++), null);
+  }
+
+  @Benchmark
+  public String uuidToToken() {
+    return TransformUtil.uuidToToken(uuid);
+  }
+
+  @Benchmark
+  public UUID uuidFromToken() {
+    return TransformUtil.uuidFromToken(uuidToken);
+  }
+}
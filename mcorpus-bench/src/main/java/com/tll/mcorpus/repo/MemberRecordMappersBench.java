@@ -0,0 +1,80 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.mcorpus.repo.MemberRecordMappers.MEMBER_AND_MAUTH;
+import static com.tll.mcorpus.repo.MemberRecordMappers.MEMBER_AND_MAUTH_FIELDS;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.db.enums.MemberStatus;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Member search page (500 rows) mapping benchmark comparing the index based
+ * {@link MemberRecordMappers} to the field name keyed map based mapping
+ * (<code>intoMaps</code> then {@link MCorpusRepo#mapToMemberAndMauth(java.util.Map)}).
+ * <p>
+ * Run with <code>-prof gc</code> for the per page allocation rates.
+ * <p>
+ * Housed in the repo package for access to the package-private mappers.
+ *
+ * @author jpk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberRecordMappersBench {
+
+  Result<Record> page;
+
+  @Setup
+  public void setup() {
+    final DSLContext dsl = DSL.using(SQLDialect.POSTGRES);
+    page = dsl.newResult(MEMBER_AND_MAUTH_FIELDS);
+    final OffsetDateTime now = OffsetDateTime.now();
+    for(int i = 0; i < 500; i++) {
+      final Record r = dsl.newRecord(MEMBER_AND_MAUTH_FIELDS);
+      r.fromArray(
+        UUID.randomUUID(), now, now, String.format("01-%07d", i), Location._01,
+        "First" + i, "Middle", "Last" + i, "Display" + i, MemberStatus.ACTIVE,
+        LocalDate.now(), "123-45-6789", "p@domain.com", "w@domain.com",
+        "415-555-1212", "415-555-1213", "415-555-1214", "username" + i
+      );
+      page.add(r);
+    }
+  }
+
+  @Benchmark
+  public List<MemberAndMauth> mapBased() {
+    return page.intoMaps().stream().map(MCorpusRepo::mapToMemberAndMauth).collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<MemberAndMauth> indexBased() {
+    return page.map(MEMBER_AND_MAUTH);
+  }
+}
@@ -0,0 +1,32 @@
+package com.tll.mcorpus.web;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CsrfGuardHandler} request sync token generation benchmark.
+ * <p>
+ * Housed in the handler's package for access to the package-private
+ * {@link CsrfGuardHandler#genRst()} method.
+ *
+ * @author jpk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsrfGuardHandlerBench {
+
+  @Benchmark
+  public String genRst() {
+    return CsrfGuardHandler.genRst();
+  }
+}
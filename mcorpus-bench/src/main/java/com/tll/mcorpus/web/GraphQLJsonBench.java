@@ -0,0 +1,118 @@
+package com.tll.mcorpus.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * GraphQL http request reading and execution result (500 member page) writing
+ * benchmarks comparing {@link GraphQLJson} to generic map (data) binding.
+ * <p>
+ * Run with <code>-prof gc</code> for the per request allocation rates.
+ * <p>
+ * Housed in the handler's package for access to the package-private
+ * {@link GraphQLJson}.
+ *
+ * @author jpk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphQLJsonBench {
+
+  static final TypeReference<Map<String, Object>> strObjMapTypeRef = new TypeReference<Map<String, Object>>() { };
+
+  ObjectMapper mapper;
+  ObjectWriter writer;
+  byte[] request;
+  ExecutionResult result;
+
+  @Setup
+  public void setup() {
+    mapper = new ObjectMapper();
+    writer = mapper.writer();
+    request = ("{\"operationName\":\"Members\",\"query\":\"query Members($filter: MemberFilter!) "
+      + "{ members(filter: $filter) { mid empId location nameFirst nameLast displayName status dob username } }\","
+      + "\"variables\":{\"filter\":{\"offset\":0,\"limit\":500,\"nameLast\":{\"value\":\"sm*\",\"ignoreCase\":true},"
+      + "\"orderBy\":\"nameLast asc\"}}}").getBytes(StandardCharsets.UTF_8);
+
+    final List<Map<String, Object>> members = new ArrayList<>(500);
+    for(int i = 0; i < 500; i++) {
+      final Map<String, Object> m = new LinkedHashMap<>();
+      m.put("mid", UUID.randomUUID().toString());
+      m.put("empId", String.format("01-%07d", i));
+      m.put("location", "01");
+      m.put("nameFirst", "First" + i);
+      m.put("nameLast", "Last" + i);
+      m.put("displayName", "Display " + i);
+      m.put("status", "ACTIVE");
+      m.put("dob", "1970-01-01T00:00:00.000Z");
+      m.put("username", "username" + i);
+      members.add(m);
+    }
+    result = new ExecutionResultImpl(Collections.singletonMap("members", members), null);
+  }
+
+  @Benchmark
+  public Map<String, Object> readRequestAsMap() throws Exception {
+    return mapper.readValue(new ByteArrayInputStream(request), strObjMapTypeRef);
+  }
+
+  @Benchmark
+  public Object readRequestStreaming() throws Exception {
+    return GraphQLJson.readRequest(mapper.getFactory(), new ByteArrayInputStream(request));
+  }
+
+  @Benchmark
+  public int writeResultSpecMap() throws Exception {
+    final ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+    try {
+      writer.writeValue((OutputStream) new ByteBufOutputStream(buf), result.toSpecification());
+      return buf.readableBytes();
+    } finally {
+      buf.release();
+    }
+  }
+
+  @Benchmark
+  public int writeResultStreaming() throws Exception {
+    final ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+    try {
+      GraphQLJson.writeResult(mapper.getFactory(), result, new ByteBufOutputStream(buf));
+      return buf.readableBytes();
+    } finally {
+      buf.release();
+    }
+  }
+}
@@ -5,6 +5,7 @@ package com.tll.mcorpus.db;
 
 
 import com.tll.mcorpus.db.tables.McuserAudit;
+import com.tll.mcorpus.db.tables.McuserSession;
 
 import org.jooq.Index;
 import org.jooq.OrderField;
@@ -22,6 +23,7 @@ public class Indexes {
     // -------------------------------------------------------------------------
 
     public static final Index MCUSER_AUDIT__JWT_ID = Indexes0.MCUSER_AUDIT__JWT_ID;
+    public static final Index MCUSER_SESSION__UID = Indexes0.MCUSER_SESSION__UID;
 
     // -------------------------------------------------------------------------
     // [#1459] distribute members to avoid static initialisers > 64kb
@@ -29,5 +31,6 @@ public class Indexes {
 
     private static class Indexes0 {
         public static Index MCUSER_AUDIT__JWT_ID = Internal.createIndex("mcuser_audit__jwt_id", McuserAudit.MCUSER_AUDIT, new OrderField[] { McuserAudit.MCUSER_AUDIT.JWT_ID }, false);
+        public static Index MCUSER_SESSION__UID = Internal.createIndex("mcuser_session__uid", McuserSession.MCUSER_SESSION, new OrderField[] { McuserSession.MCUSER_SESSION.UID }, false);
     }
 }
@@ -9,6 +9,7 @@ import com.tll.mcorpus.db.tables.Mauth;
 import com.tll.mcorpus.db.tables.Mbenefits;
 import com.tll.mcorpus.db.tables.Mcuser;
 import com.tll.mcorpus.db.tables.McuserAudit;
+import com.tll.mcorpus.db.tables.McuserSession;
 import com.tll.mcorpus.db.tables.Member;
 import com.tll.mcorpus.db.tables.MemberAudit;
 import com.tll.mcorpus.db.tables.records.MaddressRecord;
@@ -16,6 +17,7 @@ import com.tll.mcorpus.db.tables.records.MauthRecord;
 import com.tll.mcorpus.db.tables.records.MbenefitsRecord;
 import com.tll.mcorpus.db.tables.records.McuserAuditRecord;
 import com.tll.mcorpus.db.tables.records.McuserRecord;
+import com.tll.mcorpus.db.tables.records.McuserSessionRecord;
 import com.tll.mcorpus.db.tables.records.MemberAuditRecord;
 import com.tll.mcorpus.db.tables.records.MemberRecord;
 
@@ -48,6 +50,7 @@ public class Keys {
     public static final UniqueKey<McuserRecord> MCUSER_PKEY = UniqueKeys0.MCUSER_PKEY;
     public static final UniqueKey<McuserRecord> MCUSER_USERNAME_KEY = UniqueKeys0.MCUSER_USERNAME_KEY;
     public static final UniqueKey<McuserAuditRecord> MCUSER_AUDIT_PKEY = UniqueKeys0.MCUSER_AUDIT_PKEY;
+    public static final UniqueKey<McuserSessionRecord> MCUSER_SESSION_PKEY = UniqueKeys0.MCUSER_SESSION_PKEY;
     public static final UniqueKey<MemberRecord> MEMBER_PKEY = UniqueKeys0.MEMBER_PKEY;
     public static final UniqueKey<MemberRecord> MEMBER_EMP_ID_LOCATION_KEY = UniqueKeys0.MEMBER_EMP_ID_LOCATION_KEY;
     public static final UniqueKey<MemberAuditRecord> MEMBER_AUDIT_PKEY = UniqueKeys0.MEMBER_AUDIT_PKEY;
@@ -60,6 +63,7 @@ public class Keys {
     public static final ForeignKey<MauthRecord, MemberRecord> MAUTH__MAUTH_MID_FKEY = ForeignKeys0.MAUTH__MAUTH_MID_FKEY;
     public static final ForeignKey<MbenefitsRecord, MemberRecord> MBENEFITS__MBENEFITS_MID_FKEY = ForeignKeys0.MBENEFITS__MBENEFITS_MID_FKEY;
     public static final ForeignKey<McuserAuditRecord, McuserRecord> MCUSER_AUDIT__MCUSER_AUDIT_UID_FKEY = ForeignKeys0.MCUSER_AUDIT__MCUSER_AUDIT_UID_FKEY;
+    public static final ForeignKey<McuserSessionRecord, McuserRecord> MCUSER_SESSION__MCUSER_SESSION_UID_FKEY = ForeignKeys0.MCUSER_SESSION__MCUSER_SESSION_UID_FKEY;
     public static final ForeignKey<MemberAuditRecord, MemberRecord> MEMBER_AUDIT__MEMBER_AUDIT_MID_FKEY = ForeignKeys0.MEMBER_AUDIT__MEMBER_AUDIT_MID_FKEY;
 
     // -------------------------------------------------------------------------
@@ -74,6 +78,7 @@ public class Keys {
         public static final UniqueKey<McuserRecord> MCUSER_PKEY = Internal.createUniqueKey(Mcuser.MCUSER, "mcuser_pkey", new TableField[] { Mcuser.MCUSER.UID }, true);
         public static final UniqueKey<McuserRecord> MCUSER_USERNAME_KEY = Internal.createUniqueKey(Mcuser.MCUSER, "mcuser_username_key", new TableField[] { Mcuser.MCUSER.USERNAME }, true);
         public static final UniqueKey<McuserAuditRecord> MCUSER_AUDIT_PKEY = Internal.createUniqueKey(McuserAudit.MCUSER_AUDIT, "mcuser_audit_pkey", new TableField[] { McuserAudit.MCUSER_AUDIT.UID, McuserAudit.MCUSER_AUDIT.CREATED, McuserAudit.MCUSER_AUDIT.TYPE, McuserAudit.MCUSER_AUDIT.JWT_ID }, true);
+        public static final UniqueKey<McuserSessionRecord> MCUSER_SESSION_PKEY = Internal.createUniqueKey(McuserSession.MCUSER_SESSION, "mcuser_session_pkey", new TableField[] { McuserSession.MCUSER_SESSION.JWT_ID }, true);
         public static final UniqueKey<MemberRecord> MEMBER_PKEY = Internal.createUniqueKey(Member.MEMBER, "member_pkey", new TableField[] { Member.MEMBER.MID }, true);
         public static final UniqueKey<MemberRecord> MEMBER_EMP_ID_LOCATION_KEY = Internal.createUniqueKey(Member.MEMBER, "member_emp_id_location_key", new TableField[] { Member.MEMBER.EMP_ID, Member.MEMBER.LOCATION }, true);
         public static final UniqueKey<MemberAuditRecord> MEMBER_AUDIT_PKEY = Internal.createUniqueKey(MemberAudit.MEMBER_AUDIT, "member_audit_pkey", new TableField[] { MemberAudit.MEMBER_AUDIT.MID, MemberAudit.MEMBER_AUDIT.CREATED, MemberAudit.MEMBER_AUDIT.TYPE }, true);
@@ -84,6 +89,7 @@ public class Keys {
         public static final ForeignKey<MauthRecord, MemberRecord> MAUTH__MAUTH_MID_FKEY = Internal.createForeignKey(Keys.MEMBER_PKEY, Mauth.MAUTH, "mauth_mid_fkey", new TableField[] { Mauth.MAUTH.MID }, true);
         public static final ForeignKey<MbenefitsRecord, MemberRecord> MBENEFITS__MBENEFITS_MID_FKEY = Internal.createForeignKey(Keys.MEMBER_PKEY, Mbenefits.MBENEFITS, "mbenefits_mid_fkey", new TableField[] { Mbenefits.MBENEFITS.MID }, true);
         public static final ForeignKey<McuserAuditRecord, McuserRecord> MCUSER_AUDIT__MCUSER_AUDIT_UID_FKEY = Internal.createForeignKey(Keys.MCUSER_PKEY, McuserAudit.MCUSER_AUDIT, "mcuser_audit_uid_fkey", new TableField[] { McuserAudit.MCUSER_AUDIT.UID }, true);
+        public static final ForeignKey<McuserSessionRecord, McuserRecord> MCUSER_SESSION__MCUSER_SESSION_UID_FKEY = Internal.createForeignKey(Keys.MCUSER_PKEY, McuserSession.MCUSER_SESSION, "mcuser_session_uid_fkey", new TableField[] { McuserSession.MCUSER_SESSION.UID }, true);
         public static final ForeignKey<MemberAuditRecord, MemberRecord> MEMBER_AUDIT__MEMBER_AUDIT_MID_FKEY = Internal.createForeignKey(Keys.MEMBER_PKEY, MemberAudit.MEMBER_AUDIT, "member_audit_mid_fkey", new TableField[] { MemberAudit.MEMBER_AUDIT.MID }, true);
     }
 }
@@ -9,6 +9,7 @@ import com.tll.mcorpus.db.tables.Mauth;
 import com.tll.mcorpus.db.tables.Mbenefits;
 import com.tll.mcorpus.db.tables.Mcuser;
 import com.tll.mcorpus.db.tables.McuserAudit;
+import com.tll.mcorpus.db.tables.McuserSession;
 import com.tll.mcorpus.db.tables.Member;
 import com.tll.mcorpus.db.tables.MemberAudit;
 import com.tll.mcorpus.db.tables.PgpArmorHeaders;
@@ -50,6 +51,13 @@ public class Tables {
      */
     public static final McuserAudit MCUSER_AUDIT = McuserAudit.MCUSER_AUDIT;
 
+    /**
+     * The current state of each issued JWT ID (one row per mcuser login) maintained 
+     * by the mcuser login, logout and blacklist functions.  mcuser_audit is history 
+     * only.
+     */
+    public static final McuserSession MCUSER_SESSION = McuserSession.MCUSER_SESSION;
+
     /**
      * The table <code>public.member</code>.
      */
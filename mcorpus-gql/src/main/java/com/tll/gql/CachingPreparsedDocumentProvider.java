@@ -0,0 +1,46 @@
+package com.tll.gql;
+
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+
+/**
+ * Caffeine backed {@link PreparsedDocumentProvider} that holds the parsed and
+ * validated graphql documents in-memory keyed by the query string.
+ * <p>
+ * Clients send the same small set of queries over and over so this spares
+ * us the parse and validate cost for all but the first occurrence.
+ *
+ * @author jpk
+ */
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+  private final Logger log = LoggerFactory.getLogger(CachingPreparsedDocumentProvider.class);
+
+  private final Cache<String, PreparsedDocumentEntry> documentCache;
+
+  /**
+   * Constructor.
+   *
+   * @param maxCacheSize the max number of parsed documents to hold in cache at
+   *                     any one time
+   */
+  public CachingPreparsedDocumentProvider(int maxCacheSize) {
+    this.documentCache = Caffeine.newBuilder().maximumSize(maxCacheSize).build();
+    log.info("Caching graphql preparsed document provider created with Max-Cache-Size: {}.", maxCacheSize);
+  }
+
+  @Override
+  public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+    return documentCache.get(executionInput.getQuery(), key -> parseAndValidateFunction.apply(executionInput));
+  }
+}
@@ -1,13 +1,17 @@
 package com.tll.gql;
 
+import static com.tll.core.Util.isNotNull;
 import static com.tll.core.Util.isNull;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.tll.repo.FetchResult;
 import com.tll.validate.VldtnResult;
 
+import org.dataloader.DataLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -284,6 +288,50 @@ public class GraphQLRequestProcessor {
     }
   }
 
+  /**
+   * Do a deferred (batched) fetch op by way of a named {@link DataLoader}
+   * registered for the current GraphQL request.
+   *
+   * @param env the GraphQL data fetching env object
+   * @param keyExtractor function that extracts the data loader key
+   *                     from the GraphQL <code>env</code>
+   * @param dataLoaderName the name of the data loader to use
+   * @param emsgNotFound the error message to report when no value is loaded for the key
+   * @param toFrontXfrm the backend to frontend transform function
+   * @return future of the transformed backend result type
+   */
+  public <K, G, D> CompletableFuture<DataFetcherResult<G>> load(
+    final DataFetchingEnvironment env,
+    final Supplier<K> keyExtractor,
+    final String dataLoaderName,
+    final String emsgNotFound,
+    final Function<D, G> toFrontXfrm
+  ) {
+    try {
+      final K key = keyExtractor.get();
+      final DataLoader<K, D> loader = env.getDataLoader(dataLoaderName);
+      return loader.load(key).handle((d, ex) -> {
+        if(isNotNull(ex)) {
+          final Throwable t = ex instanceof CompletionException && isNotNull(ex.getCause()) ? ex.getCause() : ex;
+          log.error("Load ({}) error: {}", dataLoaderName, t.getMessage());
+          return dfr(env, t.getMessage());
+        }
+        if(isNull(d)) {
+          return dfr(env, emsgNotFound);
+        }
+        try {
+          return dfr(toFrontXfrm.apply(d));
+        } catch(Exception e) {
+          log.error("Load ({}) transform error: {}", dataLoaderName, e.getMessage());
+          return dfr(env, e);
+        }
+      });
+    } catch(Exception e) {
+      log.error("Load (extract, load, transform) processing error: {}", e.getMessage());
+      return CompletableFuture.completedFuture(dfr(env, e));
+    }
+  }
+
   /**
    * Process a simple GraphQL op.
    *
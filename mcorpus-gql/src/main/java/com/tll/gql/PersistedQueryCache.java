@@ -0,0 +1,109 @@
+package com.tll.gql;
+
+import static com.tll.core.Util.isNotNull;
+import static com.tll.core.Util.isNull;
+import static com.tll.core.Util.isNullOrEmpty;
+import static com.tll.core.Util.not;
+import static com.tll.repo.FetchResult.fetchrslt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hashing;
+import com.tll.repo.FetchResult;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Automatic Persisted Query (APQ) support.
+ * <p>
+ * Clients may send only the sha256 hash of a query in place of the full query
+ * text by way of the <code>persistedQuery</code> request extension:
+ * <pre>
+ * { "extensions": { "persistedQuery": { "version": 1, "sha256Hash": "..." } } }
+ * </pre>
+ * When the hash is not known, {@link #PERSISTED_QUERY_NOT_FOUND} is reported
+ * and the client is expected to re-send the hash along with the full query
+ * text which is then verified and registered for subsequent requests.
+ *
+ * @author jpk
+ */
+public class PersistedQueryCache {
+
+  /**
+   * The error message (and protocol signal) reported when a query hash is not
+   * known and the full query text was not provided.
+   */
+  public static final String PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+
+  /**
+   * The error code extension value accompanying {@link #PERSISTED_QUERY_NOT_FOUND}.
+   */
+  public static final String PERSISTED_QUERY_NOT_FOUND_CODE = "PERSISTED_QUERY_NOT_FOUND";
+
+  /**
+   * @param query the query text
+   * @return the lower-case hex sha256 hash of the given query text.
+   */
+  public static String sha256Hex(final String query) {
+    return Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+  }
+
+  private final Logger log = LoggerFactory.getLogger(PersistedQueryCache.class);
+
+  private final Cache<String, String> queryCache;
+
+  /**
+   * Constructor.
+   *
+   * @param maxCacheSize the max number of persisted queries to hold in cache at
+   *                     any one time
+   */
+  public PersistedQueryCache(int maxCacheSize) {
+    this.queryCache = Caffeine.newBuilder().maximumSize(maxCacheSize).build();
+    log.info("Persisted query cache created with Max-Cache-Size: {}.", maxCacheSize);
+  }
+
+  /**
+   * Resolve the query text to execute for an incoming graphql request.
+   *
+   * @param query the possibly null query text sent by the client
+   * @param extensions the possibly null request extensions sent by the client
+   * @return Never-null fetch result holding the query text to execute.
+   *         <p>
+   *         When no <code>persistedQuery</code> extension is present, the given
+   *         query text is returned as is.
+   *         <p>
+   *         An error message is set when the hash is unknown, does not match
+   *         the given query text or the protocol version is not supported.
+   */
+  public FetchResult<String> resolve(final String query, final Map<String, Object> extensions) {
+    final Object pq = isNull(extensions) ? null : extensions.get("persistedQuery");
+    if(not(pq instanceof Map)) return fetchrslt(query, null);
+
+    final Map<?, ?> pqmap = (Map<?, ?>) pq;
+    final Object version = pqmap.get("version");
+    if(not(version instanceof Number) || ((Number) version).intValue() != 1)
+      return fetchrslt(null, "Unsupported persisted query version.");
+    final Object hash = pqmap.get("sha256Hash");
+    if(not(hash instanceof String) || isNullOrEmpty((String) hash))
+      return fetchrslt(null, "No persisted query hash provided.");
+    final String sha256Hash = ((String) hash).toLowerCase();
+
+    if(isNullOrEmpty(query)) {
+      // hash only
+      final String cached = queryCache.getIfPresent(sha256Hash);
+      return isNotNull(cached) ? fetchrslt(cached, null) : fetchrslt(null, PERSISTED_QUERY_NOT_FOUND);
+    }
+
+    // hash and query: verify then register
+    if(not(sha256Hash.equals(sha256Hex(query))))
+      return fetchrslt(null, "Provided sha256 hash does not match query.");
+    queryCache.put(sha256Hash, query);
+    log.debug("Persisted query registered: {}.", sha256Hash);
+    return fetchrslt(query, null);
+  }
+}
@@ -1,13 +1,21 @@
 package com.tll.jwt;
 
 import static com.tll.core.Util.isNotNull;
+import static com.tll.core.Util.isNull;
+import static com.tll.repo.FetchResult.fetchrslt;
 
 import java.time.Instant;
+import java.util.Collections;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.tll.repo.FetchResult;
 
 import org.slf4j.Logger;
@@ -15,7 +23,19 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Caching JWT backed status provider using a time-based cache policy.
- * 
+ * <p>
+ * JWT statuses are held by jwt id and a secondary index of jwt user id to the
+ * cached jwt ids is maintained so that invalidating all JWTs for a user
+ * precisely evicts that user's cached statuses.
+ * <p>
+ * Only definitive backend statuses are cached (never errors) and the cached
+ * values are the shared {@link JwtBackendStatus} enum constants so each entry
+ * costs little more than its jwt id key.
+ * <p>
+ * A status fetched from the backend is not held in cache when any eviction
+ * happened while it was being fetched as it may pre-date the revocation that
+ * prompted the eviction.
+ *
  * @author jpk
  */
 public class CachingJwtBackendHandler implements IJwtBackendHandler {
@@ -24,11 +44,23 @@ public class CachingJwtBackendHandler implements IJwtBackendHandler {
 
   private final IJwtBackendHandler targetHandler;
 
-  private final LoadingCache<UUID, FetchResult<JwtBackendStatus>> jwtStatusCache;
+  private final Cache<UUID, JwtBackendStatus> jwtStatusCache;
+
+  /**
+   * jwt user id -&gt; cached jwt ids issued to that user.
+   */
+  private final ConcurrentMap<UUID, Set<UUID>> jwtIdsByUser;
+
+  /**
+   * The number of evictions (of any kind) so far.
+   * <p>
+   * Guards against caching a status fetched before an eviction.
+   */
+  private final AtomicLong evictions;
 
   /**
    * Constructor.
-   * 
+   *
    * @param jwtBackendHandler the sourcing {@link IJwtBackendHandler} this caching
    *                          instance encapsulates
    * @param minutesTolive     the number of minutes a JWT status object shall be
@@ -39,17 +71,99 @@ public class CachingJwtBackendHandler implements IJwtBackendHandler {
   public CachingJwtBackendHandler(final IJwtBackendHandler jwtBackendHandler, int minutesTolive, int maxCacheSize) {
     this.targetHandler = jwtBackendHandler;
     this.jwtStatusCache = Caffeine.newBuilder().expireAfterWrite(minutesTolive, TimeUnit.MINUTES)
-        .maximumSize(maxCacheSize).build(key -> {
-          log.info("Fetching backend JWT status for {}.", key);
-          return this.targetHandler.getBackendJwtStatus(key);
-        });
+        .maximumSize(maxCacheSize).recordStats().build();
+    this.jwtIdsByUser = new ConcurrentHashMap<>();
+    this.evictions = new AtomicLong();
     log.info("Caching JWT backend status provider created with Time-to-Live: {} minutes, Max-Cache-Size: {}.",
         minutesTolive, maxCacheSize);
   }
 
+  /**
+   * @return snapshot of the JWT status cache hit, miss and eviction statistics.
+   */
+  public CacheStats stats() { return jwtStatusCache.stats(); }
+
+  /**
+   * @return the approximate number of JWT statuses currently held in cache.
+   */
+  public long estimatedSize() { return jwtStatusCache.estimatedSize(); }
+
+  /**
+   * Evict the cached status of a single JWT.
+   * <p>
+   * Intended for revocations that originate elsewhere (e.g. another server node).
+   *
+   * @param jwtId id of the JWT to evict
+   */
+  public void evict(final UUID jwtId) {
+    evictions.incrementAndGet();
+    jwtStatusCache.invalidate(jwtId);
+  }
+
+  /**
+   * Evict all cached JWT statuses.
+   * <p>
+   * Intended for when revocations originating elsewhere may have been missed.
+   */
+  public void evictAll() {
+    evictions.incrementAndGet();
+    jwtStatusCache.invalidateAll();
+    jwtIdsByUser.clear();
+  }
+
   @Override
-  public FetchResult<JwtBackendStatus> getBackendJwtStatus(UUID jwtId) {
-    return jwtStatusCache.get(jwtId);
+  public FetchResult<JwtBackendStatus> getBackendJwtStatus(UUID jwtId, UUID jwtUserId) {
+    final JwtBackendStatus cached = jwtStatusCache.getIfPresent(jwtId);
+    if(isNotNull(cached)) return fetchrslt(cached);
+
+    log.info("Fetching backend JWT status for {}.", jwtId);
+    final long evictionsBefore = evictions.get();
+    final FetchResult<JwtBackendStatus> fr = targetHandler.getBackendJwtStatus(jwtId, jwtUserId);
+    if(isNotNull(fr) && fr.isSuccess() && fr.get() != JwtBackendStatus.ERROR) {
+      cache(jwtUserId, jwtId, fr.get(), evictionsBefore);
+    }
+    return fr;
+  }
+
+  /**
+   * Cache a fetched jwt status and add its jwt id to the given user's index
+   * entry pruning any jwt ids no longer held in the status cache (expired or
+   * evicted).
+   * <p>
+   * The status is un-cached when any eviction happened since the status was
+   * fetched.  This is checked <em>after</em> caching the status (and evictions
+   * are counted before evicting) so an eviction racing with this method either
+   * evicts the cached status or is seen here.
+   *
+   * @param jwtUserId the jwt user id (may be null)
+   * @param evictionsBefore the eviction count taken before the status was fetched
+   */
+  private void cache(final UUID jwtUserId, final UUID jwtId, final JwtBackendStatus status, final long evictionsBefore) {
+    jwtStatusCache.put(jwtId, status);
+    if(isNotNull(jwtUserId)) {
+      jwtIdsByUser.compute(jwtUserId, (uid, jwtIds) -> {
+        final Set<UUID> set = isNull(jwtIds) ? Collections.newSetFromMap(new ConcurrentHashMap<>()) : jwtIds;
+        set.removeIf(jid -> !jwtStatusCache.asMap().containsKey(jid));
+        set.add(jwtId);
+        return set;
+      });
+    }
+    if(evictions.get() != evictionsBefore) {
+      jwtStatusCache.asMap().remove(jwtId, status);
+      log.info("Not caching JWT status for {}: evicted during fetch.", jwtId);
+    }
+  }
+
+  /**
+   * Evict all cached JWT statuses for the given user.
+   */
+  private void invalidateUser(final UUID jwtUserId) {
+    evictions.incrementAndGet();
+    final Set<UUID> jwtIds = jwtIdsByUser.remove(jwtUserId);
+    if(isNotNull(jwtIds)) {
+      jwtStatusCache.invalidateAll(jwtIds);
+      log.info("Evicted {} cached JWT status(es) for user {}.", jwtIds.size(), jwtUserId);
+    }
   }
 
   @Override
@@ -67,7 +181,11 @@ public class CachingJwtBackendHandler implements IJwtBackendHandler {
   @Override
   public FetchResult<Boolean> jwtBackendLogout(UUID jwtUserId, UUID jwtId, String clientOriginToken,
       Instant requestInstant) {
-    return targetHandler.jwtBackendLogout(jwtUserId, jwtId, clientOriginToken, requestInstant);
+    final FetchResult<Boolean> fr = targetHandler.jwtBackendLogout(jwtUserId, jwtId, clientOriginToken, requestInstant);
+    if(isNotNull(fr) && fr.isSuccess()) {
+      evict(jwtId);
+    }
+    return fr;
   }
 
   @Override
@@ -75,7 +193,7 @@ public class CachingJwtBackendHandler implements IJwtBackendHandler {
       Instant requestInstant) {
     final FetchResult<Boolean> fr = targetHandler.jwtInvalidateAllForUser(jwtUserId, clientOriginToken, requestInstant);
     if(isNotNull(fr) && fr.isSuccess()) {
-      jwtStatusCache.invalidate(jwtUserId);
+      invalidateUser(jwtUserId);
     }
     return fr;
   }
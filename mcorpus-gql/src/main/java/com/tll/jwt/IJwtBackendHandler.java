@@ -49,9 +49,11 @@ public interface IJwtBackendHandler {
    * given its jwt id.
    * 
    * @param jwtId id of the target JWT
+   * @param jwtUserId id of the user to whom the target JWT was issued 
+   *                  (the JWT subject claim)
    * @return Fetch result holding the backend JWT status
    */
-  FetchResult<JwtBackendStatus> getBackendJwtStatus(UUID jwtId);
+  FetchResult<JwtBackendStatus> getBackendJwtStatus(UUID jwtId, UUID jwtUserId);
 
   /**
    * Get the number of active JWTs in play for a known jwt user.
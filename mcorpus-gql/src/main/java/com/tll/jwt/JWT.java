@@ -1,20 +1,27 @@
 package com.tll.jwt;
 
+import static com.tll.core.Util.isNotNull;
 import static com.tll.core.Util.isNull;
 import static com.tll.core.Util.isNullOrEmpty;
 import static com.tll.core.Util.not;
 
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import javax.xml.bind.DatatypeConverter;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.nimbusds.jose.EncryptionMethod;
 import com.nimbusds.jose.JWEAlgorithm;
 import com.nimbusds.jose.JWEHeader;
@@ -83,6 +90,38 @@ public class JWT {
     return DatatypeConverter.parseHexBinary(hexToken);
   }
 
+  /**
+   * The claims of a decrypted and signature verified JWT.
+   * <p>
+   * Immutable and therefore safe to share across requests bearing the same JWT.
+   */
+  static final class VerifiedJwt {
+    /**
+     * Non-null when verification failed in which case all other fields are null.
+     */
+    final JWTStatus failStatus;
+    final UUID jwtId;
+    final UUID userId;
+    final Instant issued;
+    final Instant expires;
+    final String jwtAudience;
+    final String roles;
+
+    VerifiedJwt(JWTStatus failStatus) {
+      this(failStatus, null, null, null, null, null, null);
+    }
+
+    VerifiedJwt(JWTStatus failStatus, UUID jwtId, UUID userId, Instant issued, Instant expires, String jwtAudience, String roles) {
+      this.failStatus = failStatus;
+      this.jwtId = jwtId;
+      this.userId = userId;
+      this.issued = issued;
+      this.expires = expires;
+      this.jwtAudience = jwtAudience;
+      this.roles = roles;
+    }
+  }
+
   private final Logger log = LoggerFactory.getLogger(JWT.class);
 
   private final IJwtBackendHandler backendHandler;
@@ -90,8 +129,21 @@ public class JWT {
   private final SecretKey jkey;
   private final String serverIssuer;
 
+  // NOTE: the nimbus crypto objects are thread-safe so we create them only once
+  private final MACSigner signer;
+  private final MACVerifier verifier;
+  private final DirectEncrypter encrypter;
+  private final DirectDecrypter decrypter;
+
+  /**
+   * token sha256 digest -&gt; verified jwt claims
+   */
+  private final Cache<HashCode, VerifiedJwt> verifiedJwtCache;
+
   /**
    * Constructor.
+   * <p>
+   * Verified JWTs are <em>not</em> cached.
    *
    * @param backendHandler the jwt backend handler.  Required.
    * @param jwtTimeToLive the amount of time a JWT shall live clientside
@@ -100,12 +152,41 @@ public class JWT {
    * @param serverIssuer the expected JWT issuer used to verify received JWTs.  Required.
    */
   public JWT(IJwtBackendHandler backendHandler, Duration jwtTimeToLive, byte[] jwtSharedSecret, String serverIssuer) {
+    this(backendHandler, jwtTimeToLive, jwtSharedSecret, serverIssuer, 0);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param backendHandler the jwt backend handler.  Required.
+   * @param jwtTimeToLive the amount of time a JWT shall live clientside
+   * @param jwtSharedSecret the cryptographically strong secret to be used for
+   *                        signing and verifying JWTs.  Required.
+   * @param serverIssuer the expected JWT issuer used to verify received JWTs.  Required.
+   * @param verifiedJwtCacheMaxSize the max number of decrypted and verified JWTs
+   *                                to hold in-memory.  Zero or less means do not cache.
+   */
+  public JWT(IJwtBackendHandler backendHandler, Duration jwtTimeToLive, byte[] jwtSharedSecret, String serverIssuer, int verifiedJwtCacheMaxSize) {
     super();
     this.backendHandler = Objects.requireNonNull(backendHandler);
     this.jwtTimeToLive = jwtTimeToLive;
     this.jkey = new SecretKeySpec(Objects.requireNonNull(jwtSharedSecret), 0, jwtSharedSecret.length, "AES");
     this.serverIssuer = Objects.requireNonNull(serverIssuer);
-    log.info("JWT configured with Time-to-live: {} hours, Issuer: {}.", jwtTimeToLive.toHours(), serverIssuer);
+    try {
+      this.signer = new MACSigner(jkey.getEncoded());
+      this.verifier = new MACVerifier(jkey.getEncoded());
+      this.encrypter = new DirectEncrypter(jkey.getEncoded());
+      this.decrypter = new DirectDecrypter(jkey.getEncoded());
+    } catch(Exception e) {
+      throw new IllegalArgumentException(String.format("Bad JWT shared secret: %s.", e.getMessage()));
+    }
+    this.verifiedJwtCache = verifiedJwtCacheMaxSize <= 0 ? null :
+      Caffeine.newBuilder()
+        .expireAfterWrite(jwtTimeToLive.toMillis(), TimeUnit.MILLISECONDS)
+        .maximumSize(verifiedJwtCacheMaxSize)
+        .build();
+    log.info("JWT configured with Time-to-live: {} hours, Issuer: {}, Verified-JWT-Cache-Max-Size: {}.",
+      jwtTimeToLive.toHours(), serverIssuer, verifiedJwtCacheMaxSize);
   }
 
   /**
@@ -149,14 +230,14 @@ public class JWT {
 
     try {
       // sign
-      signedJWT.sign(new MACSigner(jkey.getEncoded()));
+      signedJWT.sign(signer);
       // encrypt
       JWEObject jweObject = new JWEObject(
           new JWEHeader.Builder(JWEAlgorithm.DIR, EncryptionMethod.A256GCM)
               .contentType("JWT") // required to signal nested JWT
               .build(),
           new Payload(signedJWT));
-      jweObject.encrypt(new DirectEncrypter(jkey.getEncoded()));
+      jweObject.encrypt(encrypter);
       return jweObject.serialize();
     } catch (Exception e) {
       throw new Exception(String.format("JWT signing/encryption error: %s.",  e.getMessage()));
@@ -176,6 +257,10 @@ public class JWT {
    * <li>the JWT ISSUER and AUDIENCE claims are verified
    * <li>the JWT has not expired based on the extracted expires claim
    * </ul>
+   * <p>
+   * When configured, the decrypt, signature and claims verification results
+   * are cached by JWT so only the audience, expiry and backend checks run for
+   * repeat requests bearing the same JWT.
    *
    * @param httpreq the http request data provider needed for JWT processing
    * @return Never-null {@link JWTHttpRequestStatus}.
@@ -186,81 +271,29 @@ public class JWT {
     if(isNull(httpreq) || isNullOrEmpty(httpreq.getJwt()))
       return JWTHttpRequestStatus.create(JWTStatus.NOT_PRESENT_IN_REQUEST);
 
-    // decrypt JWT
-    final JWEObject jweObject;
-    try {
-      jweObject = JWEObject.parse(httpreq.getJwt());
-      jweObject.decrypt(new DirectDecrypter(jkey.getEncoded()));
-    } catch (Exception e) {
-      log.error("JWT decrypt error: {}.", e.getMessage());
-      return JWTHttpRequestStatus.create(JWTStatus.BAD_TOKEN);
-    }
-
-    // parse to object
-    final SignedJWT sjwt;
-    try {
-      sjwt = jweObject.getPayload().toSignedJWT();
-      if(sjwt == null) throw new Exception();
-    } catch (Exception e) {
-      log.error("JWT un-signing error: {}.", e.getMessage());
-      return JWTHttpRequestStatus.create(JWTStatus.BAD_TOKEN);
-    }
-
-    // verify signature
-    try {
-      if(not(sjwt.verify(new MACVerifier(jkey.getEncoded()))))
-        throw new Exception();
-    } catch (Exception e) {
-      log.error("JWT verify signature error: {}.", e.getMessage());
-      return JWTHttpRequestStatus.create(JWTStatus.BAD_SIGNATURE);
-    }
-
-    // extract and verify the held JWT claims
-    // NOTE: we bake the user roles into the jwt token
-    //       with the assumption the jwt security and cryptography
-    //       will keep this secret and unaltered.
-    final UUID jwtId;
-    final UUID userId;
-    final Instant issued;
-    final Instant expires;
-    final String issuer;
-    final String jwtAudience;
-    final String roles; // bound to the user
-    try {
-      final JWTClaimsSet claims = sjwt.getJWTClaimsSet();
-
-      jwtId = UUID.fromString(claims.getJWTID());
-      userId = UUID.fromString(claims.getSubject());
-      issued = isNull(claims.getIssueTime()) ? null : claims.getIssueTime().toInstant();
-      expires = isNull(claims.getExpirationTime()) ? null : claims.getExpirationTime().toInstant();
-      issuer = claims.getIssuer();
-      jwtAudience = isNullOrEmpty(claims.getAudience()) ? "" : claims.getAudience().get(0);
-      roles = (String) claims.getClaim("roles");
-
-      if(
-        isNull(jwtId)
-        || isNull(userId)
-        || isNull(issued)
-        || isNull(expires)
-        || isNullOrEmpty(issuer)
-        || isNullOrEmpty(jwtAudience)
-        // NOTE: roles claim is optional
-      ) {
-        throw new Exception(String.format("JWT one or more missing required claims."));
+    // decrypt, verify and extract claims (or re-use the cached result of having done so)
+    final VerifiedJwt vjwt;
+    if(isNull(verifiedJwtCache)) {
+      vjwt = verify(httpreq.getJwt());
+    } else {
+      final HashCode digest = Hashing.sha256().hashString(httpreq.getJwt(), StandardCharsets.UTF_8);
+      final VerifiedJwt cached = verifiedJwtCache.getIfPresent(digest);
+      if(isNotNull(cached)) {
+        vjwt = cached;
+      } else {
+        vjwt = verify(httpreq.getJwt());
+        // only cache successfully verified JWTs
+        if(isNull(vjwt.failStatus)) verifiedJwtCache.put(digest, vjwt);
       }
-
-      log.debug("JWT id: {}, issuer: {}, audience: {}.", jwtId, issuer, jwtAudience);
-    }
-    catch (Exception e) {
-      log.error("JWT bad claims: {}.'", e.getMessage());
-      return JWTHttpRequestStatus.create(JWTStatus.BAD_CLAIMS);
     }
+    if(isNotNull(vjwt.failStatus)) return JWTHttpRequestStatus.create(vjwt.failStatus);
 
-    // verify issuer (this server's public host name)
-    if(not(issuer.equals(serverIssuer))) {
-      log.error("JWT {} bad issuer: {} (expected: {}).", jwtId, issuer, serverIssuer);
-      return JWTHttpRequestStatus.create(JWTStatus.BAD_CLAIMS);
-    }
+    final UUID jwtId = vjwt.jwtId;
+    final UUID userId = vjwt.userId;
+    final Instant issued = vjwt.issued;
+    final Instant expires = vjwt.expires;
+    final String jwtAudience = vjwt.jwtAudience;
+    final String roles = vjwt.roles;
 
     // verify audience (client origin)
     if(not(httpreq.verifyClientOrigin(jwtAudience))) {
@@ -281,7 +314,7 @@ public class JWT {
     // [Default] Backend verification behavior:
     // 1) the jwt id is *known* and *not blacklisted*
     // 2) the associated user has a valid status
-    final FetchResult<JwtBackendStatus> fr = backendHandler.getBackendJwtStatus(jwtId);
+    final FetchResult<JwtBackendStatus> fr = backendHandler.getBackendJwtStatus(jwtId, userId);
     if(isNull(fr) || isNull(fr.get())) {
       log.error("JWT {} fetch backend status error: {}.",
         jwtId,
@@ -331,4 +364,94 @@ public class JWT {
 
     return JWTHttpRequestStatus.create(jwtRequestStatus, jwtId, userId, roles, issued, expires);
   }
+
+  /**
+   * Decrypt the given JWT, verify its signature then extract and verify its claims.
+   * <p>
+   * The checks done here depend solely on the JWT itself and are therefore
+   * cacheable by JWT.
+   *
+   * @param jwt the encrypted and signed JWT string
+   * @return Never-null {@link VerifiedJwt} whose fail status is set when
+   *         verification failed.
+   */
+  private VerifiedJwt verify(final String jwt) {
+    // decrypt JWT
+    final JWEObject jweObject;
+    try {
+      jweObject = JWEObject.parse(jwt);
+      jweObject.decrypt(decrypter);
+    } catch (Exception e) {
+      log.error("JWT decrypt error: {}.", e.getMessage());
+      return new VerifiedJwt(JWTStatus.BAD_TOKEN);
+    }
+
+    // parse to object
+    final SignedJWT sjwt;
+    try {
+      sjwt = jweObject.getPayload().toSignedJWT();
+      if(sjwt == null) throw new Exception();
+    } catch (Exception e) {
+      log.error("JWT un-signing error: {}.", e.getMessage());
+      return new VerifiedJwt(JWTStatus.BAD_TOKEN);
+    }
+
+    // verify signature
+    try {
+      if(not(sjwt.verify(verifier)))
+        throw new Exception();
+    } catch (Exception e) {
+      log.error("JWT verify signature error: {}.", e.getMessage());
+      return new VerifiedJwt(JWTStatus.BAD_SIGNATURE);
+    }
+
+    // extract and verify the held JWT claims
+    // NOTE: we bake the user roles into the jwt token
+    //       with the assumption the jwt security and cryptography
+    //       will keep this secret and unaltered.
+    final UUID jwtId;
+    final UUID userId;
+    final Instant issued;
+    final Instant expires;
+    final String issuer;
+    final String jwtAudience;
+    final String roles; // bound to the user
+    try {
+      final JWTClaimsSet claims = sjwt.getJWTClaimsSet();
+
+      jwtId = UUID.fromString(claims.getJWTID());
+      userId = UUID.fromString(claims.getSubject());
+      issued = isNull(claims.getIssueTime()) ? null : claims.getIssueTime().toInstant();
+      expires = isNull(claims.getExpirationTime()) ? null : claims.getExpirationTime().toInstant();
+      issuer = claims.getIssuer();
+      jwtAudience = isNullOrEmpty(claims.getAudience()) ? "" : claims.getAudience().get(0);
+      roles = (String) claims.getClaim("roles");
+
+      if(
+        isNull(jwtId)
+        || isNull(userId)
+        || isNull(issued)
+        || isNull(expires)
+        || isNullOrEmpty(issuer)
+        || isNullOrEmpty(jwtAudience)
+        // NOTE: roles claim is optional
+      ) {
+        throw new Exception(String.format("JWT one or more missing required claims."));
+      }
+
+      log.debug("JWT id: {}, issuer: {}, audience: {}.", jwtId, issuer, jwtAudience);
+    }
+    catch (Exception e) {
+      log.error("JWT bad claims: {}.'", e.getMessage());
+      return new VerifiedJwt(JWTStatus.BAD_CLAIMS);
+    }
+
+    // verify issuer (this server's public host name)
+    if(not(issuer.equals(serverIssuer))) {
+      log.error("JWT {} bad issuer: {} (expected: {}).", jwtId, issuer, serverIssuer);
+      return new VerifiedJwt(JWTStatus.BAD_CLAIMS);
+    }
+
+    return new VerifiedJwt(null, jwtId, userId, issued, expires, jwtAudience, roles);
+  }
 }
@@ -17,6 +17,42 @@ public class MCorpusServerConfig {
    */
   public String dbUrl;
 
+  /**
+   * The optional JDBC read replica db connection URL which includes the db
+   * username and password.
+   * <p>
+   * When set, fetch-only (read) repo calls are routed to the read replica
+   * (subject to {@link #dbReplicaMaxLagInSeconds} and
+   * {@link #dbReplicaPinInSeconds}) and all mutations stay on the primary.
+   */
+  public String dbReplicaUrl;
+
+  /**
+   * The max number of seconds the read replica may lag the primary before
+   * reads are routed back to the primary.
+   * <p>
+   * The default is 5 seconds.
+   */
+  public int dbReplicaMaxLagInSeconds = 5;
+
+  /**
+   * The number of seconds reads are pinned to the primary for an mcuser
+   * after that mcuser mutates data so mcusers always read their own writes.
+   * <p>
+   * The default is 10 seconds.
+   */
+  public int dbReplicaPinInSeconds = 10;
+
+  /**
+   * The sql statement duration in milliseconds at or above which the
+   * statement is logged to the <code>SlowSqlLog</code> logger.
+   * <p>
+   * A value of zero or less means no slow sql logging.
+   * <p>
+   * The default is 500 ms.
+   */
+  public int dbSlowSqlThresholdInMillis = 500;
+
   /**
    * The Request Sync Token (anti-CSRF) time to live in seconds.
    * <p>
@@ -43,6 +79,10 @@ public class MCorpusServerConfig {
    * A value of zero or less means do NOT cache and always fetch jwt
    * status from backend.
    * <p>
+   * JWT revocations are pushed to all server nodes by way of the db
+   * <code>jwt_revoked</code> notification channel so this may safely be set
+   * to a long duration.
+   * <p>
    * The default is 10 minutes.
    */
   public int jwtStatusCacheTimeoutInMinutes = 10;
@@ -50,9 +90,255 @@ public class MCorpusServerConfig {
   /**
    * The max number of JWT status instances to cache at any one time.
    * <p>
-   * The default is 50.
+   * Each cached entry is little more than its jwt id so this may be set
+   * to comfortably hold every active session.
+   * <p>
+   * The default is 100,000.
+   */
+  public int jwtStatusCacheMaxSize = 100000;
+
+  /**
+   * The max number of decrypted and signature verified JWTs to hold in-memory
+   * keyed by JWT digest.
+   * <p>
+   * A value of zero or less means do NOT cache and always decrypt and verify
+   * incoming JWTs.
+   * <p>
+   * The default is 10,000.
+   */
+  public int jwtVerifiedCacheMaxSize = 10000;
+
+  /**
+   * The number of minutes fetched members (by member id) are held in-memory
+   * before re-fetching them from the backend data store.
+   * <p>
+   * Members are evicted upon mutation on the server node handling the
+   * mutation so this bounds how stale a member may be on all other nodes.
+   * <p>
+   * A value of zero or less means do NOT cache members.
+   * <p>
+   * The default is 5 minutes.
+   */
+  public int memberCacheTimeoutInMinutes = 5;
+
+  /**
+   * The max number of members to cache at any one time.
+   * <p>
+   * The default is 10,000.
+   */
+  public int memberCacheMaxSize = 10000;
+
+  /**
+   * The number of seconds member search results (keyed by the normalized
+   * member filter including the ordering and paging) are held in-memory.
+   * <p>
+   * Cached search results are dropped upon any member mutation on the server
+   * node handling the mutation so this bounds how stale a member search result
+   * may be on all other nodes.
+   * <p>
+   * Only applies when members are cached (see
+   * {@link #memberCacheTimeoutInMinutes}).
+   * <p>
+   * A value of zero or less means do NOT cache member search results.
+   * <p>
+   * The default is 10 seconds.
+   */
+  public int memberSearchCacheTimeoutInSeconds = 10;
+
+  /**
+   * The max total number of members held by all cached member search results.
+   * <p>
+   * The default is 50,000.
+   */
+  public long memberSearchCacheMaxMembers = 50000;
+
+  /**
+   * The number of seconds between polls for created or modified members to
+   * keep the in-memory member ref (mref) index current.
+   * <p>
+   * A value of zero or less means do NOT index mrefs in-memory
+   * (all mref lookups hit the backend data store).
+   * <p>
+   * The default is 5 seconds.
+   */
+  public int mrefIndexRefreshInSeconds = 5;
+
+  /**
+   * The number of minutes between full reloads of the in-memory mref index.
+   * <p>
+   * Members deleted on other server nodes are only dropped from the index
+   * upon a full reload so this bounds how long they may still be found.
+   * <p>
+   * The default is 60 minutes.
+   */
+  public int mrefIndexReloadInMinutes = 60;
+
+  /**
+   * The number of seconds between polls for created or modified members to
+   * keep the in-memory member name prefix index (backing the memberSuggest
+   * type-ahead query) current.
+   * <p>
+   * A value of zero or less means do NOT index member names in-memory
+   * (member suggestions are queried from the backend data store).
+   * <p>
+   * The default is 5 seconds.
+   */
+  public int memberSuggestRefreshInSeconds = 5;
+
+  /**
+   * The number of minutes between full reloads of the in-memory member name
+   * prefix index.
+   * <p>
+   * The default is 60 minutes.
+   */
+  public int memberSuggestReloadInMinutes = 60;
+
+  /**
+   * The number of threads dedicated to running the blocking (db-bound) GraphQL
+   * data fetchers off of the Ratpack compute threads.
+   * <p>
+   * When positive, backend touching data fetchers return futures that complete
+   * on this bounded pool thus allowing independent root fields to resolve
+   * concurrently.
+   * <p>
+   * A value of zero or less means run all data fetchers in-line on the thread
+   * driving the GraphQL execution.
+   * <p>
+   * The default is 10 (the default max db connection pool size).
+   */
+  public int graphqlFetchPoolSize = 10;
+
+  /**
+   * The max number of parsed and validated GraphQL query documents to hold
+   * in-memory keyed by query string.
+   * <p>
+   * This also sizes the web layer's cache of pre-parsed query type, operation
+   * name and first method name (see <code>GraphQLWebContext</code>).
+   * <p>
+   * A value of zero or less means do NOT cache and always parse and validate
+   * incoming queries.
+   * <p>
+   * The default is 500.
+   */
+  public int graphqlDocumentCacheMaxSize = 500;
+
+  /**
+   * The max number of Automatic Persisted Queries (sha256 hash to query text)
+   * to hold in-memory.
+   * <p>
+   * A value of zero or less means persisted queries are NOT supported.
+   * <p>
+   * The default is 500.
+   */
+  public int graphqlPersistedQueryCacheMaxSize = 500;
+
+  /**
+   * The max allowed nesting depth of an incoming GraphQL operation.
+   * <p>
+   * A value of zero or less means no max depth is enforced.
+   * <p>
+   * The default is 15 (which admits the standard introspection query).
+   */
+  public int graphqlMaxQueryDepth = 15;
+
+  /**
+   * The max allowed computed complexity of an incoming GraphQL operation as
+   * declared by the <code>@cost</code> directives of the mcorpus schema.
+   * <p>
+   * A value of zero or less means no max complexity is enforced.
+   * <p>
+   * The default is 1000 (e.g. a members search of 250 members and their
+   * addresses).
+   */
+  public int graphqlMaxQueryComplexity = 1000;
+
+  /**
+   * The total GraphQL operation complexity each mcuser may spend per minute.
+   * <p>
+   * Operations exceeding the remaining budget of the requesting mcuser are
+   * rejected before execution.
+   * <p>
+   * A value of zero or less means no per-mcuser budget is enforced.
+   * <p>
+   * The default is 10000.
+   */
+  public int graphqlMcuserCostBudgetPerMinute = 10000;
+
+  /**
+   * The sustained number of graphql requests per second allowed for a single
+   * (jwt authenticated) mcuser.
+   * <p>
+   * A value of zero or less means mcuser requests are not rate limited.
+   * <p>
+   * The default is 20.
+   */
+  public int rateLimitMcuserPerSecond = 20;
+
+  /**
+   * The number of graphql requests a single mcuser may burst above the
+   * sustained rate.
+   * <p>
+   * The default is 40.
+   */
+  public int rateLimitMcuserBurst = 40;
+
+  /**
+   * The sustained number of graphql requests per second allowed for a single
+   * client address (see {@link #rateLimitTrustedProxies}) not bearing a valid
+   * jwt (e.g. mcuser login attempts).
+   * <p>
+   * A value of zero or less means unauthenticated requests are not rate
+   * limited.
+   * <p>
+   * The default is 2.
+   */
+  public int rateLimitOriginPerSecond = 2;
+
+  /**
+   * The number of graphql requests a single unauthenticated client address
+   * may burst above the sustained rate.
+   * <p>
+   * The default is 10.
+   */
+  public int rateLimitOriginBurst = 10;
+
+  /**
+   * The max number of rate limit keys (mcusers and client origins) to track
+   * at any one time.  The least recently used are evicted beyond this.
+   * <p>
+   * The default is 10000.
+   */
+  public int rateLimitMaxKeys = 10000;
+
+  /**
+   * Comma delimited addresses of the reverse proxies (e.g. load balancers)
+   * whose X-Forwarded-For header is trusted for rate limiting unauthenticated
+   * requests.
+   * <p>
+   * Unauthenticated requests are rate limited by remote address unless the
+   * remote address is one of these in which case the right-most
+   * X-Forwarded-For address not of these is used.  X-Forwarded-For is client
+   * controlled so it is otherwise ignored.
+   * <p>
+   * The default is none (always rate limit by remote address).
+   */
+  public String rateLimitTrustedProxies;
+
+  /**
+   * The number of members to read from the db per round trip (and to write
+   * per http response chunk) when streaming the member export.
+   * <p>
+   * The default is 500.
+   */
+  public int memberExportFetchSize = 500;
+
+  /**
+   * The max allowed http request body size in bytes of an admin bulk member
+   * import (upload).
+   * <p>
+   * The default is 10MB.
    */
-  public int jwtStatusCacheMaxSize = 50;
+  public long memberImportMaxContentLength = 10 * 1024 * 1024;
 
   /**
    * Flag for whether to send http cookies in the clear (http) or only over https.
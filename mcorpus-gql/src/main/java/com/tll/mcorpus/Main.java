@@ -14,6 +14,9 @@ import com.tll.mcorpus.web.GraphQLHandler;
 import com.tll.mcorpus.web.JWTRequireAdminHandler;
 import com.tll.mcorpus.web.JWTStatusHandler;
 import com.tll.mcorpus.web.MCorpusWebModule;
+import com.tll.mcorpus.web.MemberExportHandler;
+import com.tll.mcorpus.web.MemberImportHandler;
+import com.tll.mcorpus.web.RateLimitHandler;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +70,7 @@ public class Main {
         }
         glog().info("metrics is {}", config.metricsOn ? "ON" : "OFF");
         bindings.module(HikariModule.class, hikariConfig -> {
+          hikariConfig.setPoolName("mcorpus");
           hikariConfig.setDataSourceClassName(config.dbDataSourceClassName);
           hikariConfig.addDataSourceProperty("URL", config.dbUrl);
         });
@@ -97,6 +101,7 @@ public class Main {
 
           // the mcorpus GraphQL api (post only)
           .post(JWTStatusHandler.class)
+          .post(RateLimitHandler.class)
           .post(GraphQLHandler.class)
 
           // the GraphiQL developer interface (get only)
@@ -107,9 +112,16 @@ public class Main {
           .files(f -> f.dir("public/graphql"))
         )
 
+        // streaming member export (NDJSON)
+        .prefix("export", chainsub -> chainsub
+          .all(JWTStatusHandler.class)
+          .get("members", MemberExportHandler.class)
+        )
+
         .prefix("admin", chainsub -> chainsub
           .all(JWTStatusHandler.class)
           .all(JWTRequireAdminHandler.class)
+          .post("import/members", MemberImportHandler.class) // bulk member import (NDJSON)
           .all(ctx -> {
             if(not(ctx.getServerConfig().get(MCorpusServerConfig.class).metricsOn)) {
               ctx.render("metrics is off.");
@@ -16,12 +16,31 @@ public class MemberSearch {
   public final SortField<?>[] orderBys;
   public final int offset;
   public final int limit;
+  /**
+   * Do the conditions or order bys reference any mauth columns?
+   */
+  public final boolean mauth;
+  /**
+   * The optional value-equal identity of this search
+   * (e.g. the normalized search filter including the ordering and paging)
+   * by which the search results may be cached and which must not change once
+   * this search is created.
+   * <p>
+   * Null when this search is not to be cached.
+   */
+  public final Object key;
 
   public MemberSearch(final Condition[] conditions, final SortField<?>[] orderBys, int offset, int limit) {
+    this(conditions, orderBys, offset, limit, true, null);
+  }
+
+  public MemberSearch(final Condition[] conditions, final SortField<?>[] orderBys, int offset, int limit, boolean mauth, Object key) {
     this.conditions = conditions;
     this.orderBys = orderBys;
     this.offset = offset;
     this.limit = limit;
+    this.mauth = mauth;
+    this.key = key;
   }
 
   public boolean hasSearchConditions() { return not(isNullOrEmpty(conditions)); }
@@ -0,0 +1,29 @@
+package com.tll.mcorpus.dmodel;
+
+import com.tll.mcorpus.db.udt.pojos.Mref;
+
+/**
+ * A member name type-ahead suggestion: the member ref along with the member
+ * display name.
+ */
+public class MemberSuggestion {
+
+  public final Mref mref;
+  public final String displayName;
+
+  /**
+   * Constructor.
+   *
+   * @param mref the member ref
+   * @param displayName the member display name
+   */
+  public MemberSuggestion(Mref mref, String displayName) {
+    this.mref = mref;
+    this.displayName = displayName;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("MemberSuggestion[mid: %s, displayName: %s]", mref.getMid(), displayName);
+  }
+}
@@ -0,0 +1,29 @@
+package com.tll.mcorpus.dmodel;
+
+import java.util.Map;
+
+import com.tll.mcorpus.db.udt.pojos.Mref;
+
+/**
+ * Encapsulation POJO of the outcome of a bulk member add.
+ * <p>
+ * Both the added and rejected members are keyed by their (zero-based) index in
+ * the originating list of members to add.
+ */
+public class MembersAdded {
+
+  public final Map<Integer, Mref> added;
+  public final Map<Integer, String> rejected;
+
+  /**
+   * Constructor.
+   *
+   * @param added the added member refs keyed by input index
+   * @param rejected the rejection reasons keyed by input index
+   */
+  public MembersAdded(Map<Integer, Mref> added, Map<Integer, String> rejected) {
+    this.added = added;
+    this.rejected = rejected;
+  }
+
+}
@@ -0,0 +1,75 @@
+package com.tll.mcorpus.gmodel;
+
+import static com.tll.core.Util.isNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Relay style cursor paginated member search result GraphQL entity type.
+ *
+ * @author jpk
+ */
+public class MemberConnection {
+
+  /**
+   * A single member search result along with its opaque cursor.
+   */
+  public static class MemberEdge {
+
+    private final String cursor;
+    private final Member node;
+
+    public MemberEdge(String cursor, Member node) {
+      this.cursor = cursor;
+      this.node = node;
+    }
+
+    public String getCursor() { return cursor; }
+
+    public Member getNode() { return node; }
+  }
+
+  /**
+   * Page level info for fetching the next page.
+   */
+  public static class PageInfo {
+
+    private final String startCursor;
+    private final String endCursor;
+    private final boolean hasPreviousPage;
+    private final boolean hasNextPage;
+
+    public PageInfo(String startCursor, String endCursor, boolean hasPreviousPage, boolean hasNextPage) {
+      this.startCursor = startCursor;
+      this.endCursor = endCursor;
+      this.hasPreviousPage = hasPreviousPage;
+      this.hasNextPage = hasNextPage;
+    }
+
+    public String getStartCursor() { return startCursor; }
+
+    public String getEndCursor() { return endCursor; }
+
+    public boolean isHasPreviousPage() { return hasPreviousPage; }
+
+    public boolean isHasNextPage() { return hasNextPage; }
+  }
+
+  private final List<MemberEdge> edges;
+  private final PageInfo pageInfo;
+
+  public MemberConnection(List<MemberEdge> edges, PageInfo pageInfo) {
+    this.edges = isNull(edges) ? Collections.emptyList() : edges;
+    this.pageInfo = pageInfo;
+  }
+
+  public List<MemberEdge> getEdges() { return edges; }
+
+  public PageInfo getPageInfo() { return pageInfo; }
+
+  @Override
+  public String toString() {
+    return String.format("MemberConnection[edges: %d, hasNextPage: %s]", edges.size(), pageInfo.isHasNextPage());
+  }
+}
@@ -51,6 +51,10 @@ public class MemberFilter {
       IS_NOT_NULL,
       EQUALS,
       LIKE,
+      /**
+       * Fuzzy (trigram similarity) match.
+       */
+      SIMILAR,
     }
 
     private final Operation operation;
@@ -293,6 +297,8 @@ public class MemberFilter {
 
   private List<OrderBy> orderByList;
 
+  private String after;
+
   /**
    * Constructor.
    */
@@ -422,6 +428,16 @@ public class MemberFilter {
     this.orderByList = isNullOrEmpty(orderBys) ? Collections.emptyList() : new ArrayList<>(orderBys);
   }
 
+  public boolean hasAfter() { return isNotBlank(after); }
+
+  /**
+   * @return the opaque keyset pagination cursor of the last member of the prior
+   *         page -OR- null when fetching the first page.
+   */
+  public String getAfter() { return after; }
+
+  public void setAfter(String after) { this.after = after; }
+
   /**
    * @return true if at least one member filter constraint is set, false otherwise.
    */
@@ -445,8 +461,11 @@ public class MemberFilter {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     MemberFilter that = (MemberFilter) o;
-    return Objects.equals(created, that.created) &&
+    return offset == that.offset &&
+      limit == that.limit &&
+      Objects.equals(created, that.created) &&
       Objects.equals(modified, that.modified) &&
+      Objects.equals(empId, that.empId) &&
       Objects.equals(location, that.location) &&
       Objects.equals(nameFirst, that.nameFirst) &&
       Objects.equals(nameMiddle, that.nameMiddle) &&
@@ -455,13 +474,14 @@ public class MemberFilter {
       Objects.equals(status, that.status) &&
       Objects.equals(dob, that.dob) &&
       Objects.equals(username, that.username) &&
-      Objects.equals(orderByList, that.orderByList)
+      Objects.equals(orderByList, that.orderByList) &&
+      Objects.equals(after, that.after)
       ;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(created, modified, location, nameFirst, nameMiddle, nameLast, displayName, status, dob, username, orderByList);
+    return Objects.hash(offset, limit, created, modified, empId, location, nameFirst, nameMiddle, nameLast, displayName, status, dob, username, orderByList, after);
   }
 
   /*
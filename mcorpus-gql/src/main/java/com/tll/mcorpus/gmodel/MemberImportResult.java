@@ -0,0 +1,62 @@
+package com.tll.mcorpus.gmodel;
+
+import static com.tll.core.Util.isNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bulk member add (import) result GraphQL entity type.
+ *
+ * @author jpk
+ */
+public class MemberImportResult {
+
+  /**
+   * A single member that was not added along with the reason.
+   */
+  public static class MemberImportError {
+
+    private final int index;
+    private final String empId;
+    private final String location;
+    private final String message;
+
+    public MemberImportError(int index, String empId, String location, String message) {
+      this.index = index;
+      this.empId = empId;
+      this.location = location;
+      this.message = message;
+    }
+
+    /**
+     * @return the zero-based index of the member in the originating import list.
+     */
+    public int getIndex() { return index; }
+
+    public String getEmpId() { return empId; }
+
+    public String getLocation() { return location; }
+
+    public String getMessage() { return message; }
+  }
+
+  private final List<Mref> added;
+  private final List<MemberImportError> errors;
+
+  public MemberImportResult(List<Mref> added, List<MemberImportError> errors) {
+    this.added = isNull(added) ? Collections.emptyList() : added;
+    this.errors = isNull(errors) ? Collections.emptyList() : errors;
+  }
+
+  public List<Mref> getAdded() { return added; }
+
+  public List<MemberImportError> getErrors() { return errors; }
+
+  public int getNumAdded() { return added.size(); }
+
+  @Override
+  public String toString() {
+    return String.format("MemberImportResult[added: %d, errors: %d]", added.size(), errors.size());
+  }
+}
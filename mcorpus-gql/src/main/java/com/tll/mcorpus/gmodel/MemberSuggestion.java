@@ -0,0 +1,26 @@
+package com.tll.mcorpus.gmodel;
+
+/**
+ * Member name type-ahead suggestion GraphQL entity type.
+ *
+ * @author jpk
+ */
+public class MemberSuggestion {
+
+  private final Mref mref;
+  private final String displayName;
+
+  public MemberSuggestion(Mref mref, String displayName) {
+    this.mref = mref;
+    this.displayName = displayName;
+  }
+
+  public Mref getMref() { return mref; }
+
+  public String getDisplayName() { return displayName; }
+
+  @Override
+  public String toString() {
+    return String.format("MemberSuggestion[mref: %s, displayName: %s]", mref, displayName);
+  }
+}
@@ -0,0 +1,304 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.core.Util.isNotNull;
+import static com.tll.core.Util.isNull;
+import static com.tll.repo.FetchResult.fetchrslt;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tll.mcorpus.db.enums.Addressname;
+import com.tll.mcorpus.db.tables.pojos.Maddress;
+import com.tll.mcorpus.dmodel.MemberAndMaddresses;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+import com.tll.mcorpus.dmodel.MemberSearch;
+import com.tll.repo.FetchResult;
+
+/**
+ * MCorpus repository holding recently fetched members in a bounded,
+ * time-based read-through cache keyed by member id.
+ * <p>
+ * Members are cached whole (PII included) as authorization of PII fields is
+ * done by the GraphQL layer on each request regardless of where the member
+ * came from.
+ * <p>
+ * All member mutations made through this repo precisely evict the cached
+ * member.  Mutations made by other server nodes are only seen once the
+ * cached member expires.
+ * <p>
+ * Cache loads always read from the primary db so a lagging read replica is
+ * never cached.
+ * <p>
+ * Member search results may optionally be held as well for a short time keyed
+ * by the (value-equal) search key and member projection.  Cached search
+ * results are only served while no member was added, updated or deleted
+ * through this repo since they were fetched (see
+ * {@link #memberGeneration()}).  The search result cache is bounded by the
+ * total number of cached members.
+ *
+ * @author jpk
+ */
+public class CachingMCorpusRepo extends MCorpusRepo {
+
+  /**
+   * Member search result cache key.
+   */
+  static final class SearchKey {
+    final Object key;
+    final MemberProjection projection;
+
+    SearchKey(Object key, MemberProjection projection) {
+      this.key = key;
+      this.projection = projection;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      SearchKey that = (SearchKey) o;
+      return Objects.equals(key, that.key) && Objects.equals(projection, that.projection);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(key, projection);
+    }
+  }
+
+  /**
+   * Cached member search result.
+   */
+  static final class SearchResult {
+    /**
+     * The member generation under which the members were fetched.
+     */
+    final long generation;
+    final List<MemberAndMauth> members;
+
+    SearchResult(long generation, List<MemberAndMauth> members) {
+      this.generation = generation;
+      this.members = members;
+    }
+  }
+
+  private final Cache<UUID, MemberAndMauth> memberCache;
+  private final Cache<UUID, MemberAndMaddresses> memberAndAddressesCache;
+
+  /**
+   * The optional member search result cache.
+   */
+  private final Cache<SearchKey, SearchResult> searchCache;
+
+  /**
+   * Constructor.
+   *
+   * @param ds the (primary) data source
+   * @param readRouter optional router of the fetch-only operations
+   * @param mrefIndex optional in-memory mref index
+   * @param suggestIndex optional in-memory member name prefix index
+   * @param sqlTelemetry optional sql statement telemetry listener
+   * @param minutesToLive the number of minutes a member is cached
+   * @param maxCacheSize the max number of members to cache (per cache)
+   */
+  public CachingMCorpusRepo(DataSource ds, ReadRouter readRouter, MrefIndex mrefIndex, MemberSuggestIndex suggestIndex, SqlTelemetry sqlTelemetry, int minutesToLive, int maxCacheSize) {
+    this(ds, readRouter, mrefIndex, suggestIndex, sqlTelemetry, minutesToLive, maxCacheSize, 0, 0);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param ds the (primary) data source
+   * @param readRouter optional router of the fetch-only operations
+   * @param mrefIndex optional in-memory mref index
+   * @param suggestIndex optional in-memory member name prefix index
+   * @param sqlTelemetry optional sql statement telemetry listener
+   * @param minutesToLive the number of minutes a member is cached
+   * @param maxCacheSize the max number of members to cache (per cache)
+   * @param searchSecondsToLive the number of seconds a member search result is
+   *                            cached (zero or less means do NOT cache member
+   *                            search results)
+   * @param searchMaxMembers the max total number of members held by all cached
+   *                         member search results
+   */
+  public CachingMCorpusRepo(DataSource ds, ReadRouter readRouter, MrefIndex mrefIndex, MemberSuggestIndex suggestIndex, SqlTelemetry sqlTelemetry, int minutesToLive, int maxCacheSize, int searchSecondsToLive, long searchMaxMembers) {
+    super(ds, readRouter, mrefIndex, suggestIndex, sqlTelemetry);
+    this.memberCache = Caffeine.newBuilder().expireAfterWrite(minutesToLive, TimeUnit.MINUTES)
+        .maximumSize(maxCacheSize).recordStats().build();
+    this.memberAndAddressesCache = Caffeine.newBuilder().expireAfterWrite(minutesToLive, TimeUnit.MINUTES)
+        .maximumSize(maxCacheSize).recordStats().build();
+    this.searchCache = searchSecondsToLive <= 0 || searchMaxMembers <= 0 ? null :
+      Caffeine.newBuilder().expireAfterWrite(searchSecondsToLive, TimeUnit.SECONDS)
+        .maximumWeight(searchMaxMembers).weigher((SearchKey k, SearchResult v) -> v.members.size() + 1)
+        .recordStats().build();
+    log.info("Caching mcorpus repo created with Time-to-Live: {} minutes, Max-Cache-Size: {}, Search-Time-to-Live: {} seconds, Search-Max-Members: {}.",
+        minutesToLive, maxCacheSize, searchSecondsToLive, searchMaxMembers);
+  }
+
+  /**
+   * @return snapshot of the member (and mauth) cache statistics.
+   */
+  public CacheStats memberCacheStats() { return memberCache.stats(); }
+
+  /**
+   * @return snapshot of the member and addresses cache statistics.
+   */
+  public CacheStats memberAndAddressesCacheStats() { return memberAndAddressesCache.stats(); }
+
+  /**
+   * @return the approximate number of members currently held in cache.
+   */
+  public long estimatedSize() { return memberCache.estimatedSize() + memberAndAddressesCache.estimatedSize(); }
+
+  /**
+   * @return true when member search results are cached.
+   */
+  public boolean isCachingSearches() { return isNotNull(searchCache); }
+
+  /**
+   * @return snapshot of the member search result cache statistics
+   *         (empty when member search results are not cached).
+   */
+  public CacheStats searchCacheStats() { return isNull(searchCache) ? CacheStats.empty() : searchCache.stats(); }
+
+  /**
+   * @return the approximate number of member search results currently held in cache.
+   */
+  public long searchCacheEstimatedSize() { return isNull(searchCache) ? 0L : searchCache.estimatedSize(); }
+
+  /**
+   * Evict a single member from cache.
+   *
+   * @param mid the member id
+   */
+  public void evict(final UUID mid) {
+    if(isNull(mid)) return;
+    memberCache.invalidate(mid);
+    memberAndAddressesCache.invalidate(mid);
+  }
+
+  /**
+   * Get a cached value loading it on a cache miss.
+   * <p>
+   * Failed loads are never cached and their fetch result is handed back as is.
+   */
+  private static <T> FetchResult<T> readThrough(final Cache<UUID, T> cache, final UUID mid, final Function<UUID, FetchResult<T>> loader) {
+    final AtomicReference<FetchResult<T>> loaded = new AtomicReference<>();
+    final T t = cache.get(mid, k -> {
+      final FetchResult<T> fr = ReadRouter.fromPrimary(() -> loader.apply(k));
+      loaded.set(fr);
+      return fr.isSuccess() ? fr.get() : null;
+    });
+    return isNotNull(t) ? fetchrslt(t, null) : loaded.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Whole members are cached and served regardless of the given projection.
+   */
+  @Override
+  public FetchResult<MemberAndMauth> fetchMember(final UUID mid, final MemberProjection projection) {
+    if(isNull(mid)) return super.fetchMember(mid, projection);
+    return readThrough(memberCache, mid, k -> super.fetchMember(k, MemberProjection.ALL));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Whole members are cached and served regardless of the given projection.
+   */
+  @Override
+  public FetchResult<MemberAndMaddresses> fetchMemberAndAddresses(final UUID mid, final MemberProjection projection) {
+    if(isNull(mid)) return super.fetchMemberAndAddresses(mid, projection);
+    return readThrough(memberAndAddressesCache, mid, k -> super.fetchMemberAndAddresses(k, MemberProjection.ALL));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Keyed searches are served from the search result cache (when on) so long
+   * as no member was mutated through this repo since the search was fetched.
+   */
+  @Override
+  public FetchResult<List<MemberAndMauth>> memberSearch(final MemberSearch msearch, final MemberProjection projection) {
+    if(isNull(searchCache) || isNull(msearch) || isNull(msearch.key)) return super.memberSearch(msearch, projection);
+    final SearchKey key = new SearchKey(msearch.key, projection);
+    // snapshot the generation ahead of fetching so a concurrent mutation
+    // invalidates what we are about to fetch
+    final long generation = memberGeneration();
+    final SearchResult cached = searchCache.getIfPresent(key);
+    if(isNotNull(cached) && cached.generation == generation) return fetchrslt(cached.members, null);
+    final FetchResult<List<MemberAndMauth>> fr = ReadRouter.fromPrimary(() -> super.memberSearch(msearch, projection));
+    if(fr.isSuccess()) {
+      final List<MemberAndMauth> members = Collections.unmodifiableList(fr.get());
+      searchCache.put(key, new SearchResult(generation, members));
+      return fetchrslt(members, null);
+    }
+    return fr;
+  }
+
+  @Override
+  public FetchResult<MemberAndMauth> updateMember(final MemberAndMauth memberToUpdate) {
+    try {
+      return super.updateMember(memberToUpdate);
+    } finally {
+      if(isNotNull(memberToUpdate)) evict(memberToUpdate.dbMember.getMid());
+    }
+  }
+
+  @Override
+  public FetchResult<Boolean> deleteMember(final UUID mid) {
+    try {
+      return super.deleteMember(mid);
+    } finally {
+      evict(mid);
+    }
+  }
+
+  @Override
+  public FetchResult<Boolean> setMemberPswd(final UUID mid, final String pswd) {
+    try {
+      return super.setMemberPswd(mid, pswd);
+    } finally {
+      evict(mid);
+    }
+  }
+
+  @Override
+  public FetchResult<Maddress> addMemberAddress(final Maddress memberAddressToAdd) {
+    try {
+      return super.addMemberAddress(memberAddressToAdd);
+    } finally {
+      if(isNotNull(memberAddressToAdd)) evict(memberAddressToAdd.getMid());
+    }
+  }
+
+  @Override
+  public FetchResult<Maddress> updateMemberAddress(final Maddress maddressToUpdate) {
+    try {
+      return super.updateMemberAddress(maddressToUpdate);
+    } finally {
+      if(isNotNull(maddressToUpdate)) evict(maddressToUpdate.getMid());
+    }
+  }
+
+  @Override
+  public FetchResult<Boolean> deleteMemberAddress(final UUID mid, final Addressname addressname) {
+    try {
+      return super.deleteMemberAddress(mid, addressname);
+    } finally {
+      evict(mid);
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package com.tll.mcorpus.repo;
 
+import static com.tll.core.Util.isBlank;
 import static com.tll.core.Util.isNotNull;
+import static com.tll.core.Util.isNotNullOrEmpty;
 import static com.tll.core.Util.isNull;
 import static com.tll.core.Util.isNullOrEmpty;
 import static com.tll.core.Util.nflatten;
@@ -10,25 +12,34 @@ import static com.tll.mcorpus.db.Tables.MAUTH;
 import static com.tll.mcorpus.db.Tables.MEMBER;
 import static com.tll.mcorpus.repo.MCorpusRepoUtil.fputWhenNotNull;
 import static com.tll.mcorpus.repo.MCorpusRepoUtil.fval;
+import static com.tll.mcorpus.repo.MemberRecordMappers.MEMBER_AND_MAUTH_FIELDS;
 import static com.tll.repo.FetchResult.fetchrslt;
+import static org.jooq.impl.DSL.any;
 
 import java.io.Closeable;
+import java.sql.Connection;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.sql.DataSource;
 
+import com.tll.mcorpus.db.Routines;
 import com.tll.mcorpus.db.enums.Addressname;
 import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.db.enums.MemberStatus;
 import com.tll.mcorpus.db.routines.InsertMember;
 import com.tll.mcorpus.db.routines.MemberLogin;
 import com.tll.mcorpus.db.routines.MemberLogout;
@@ -38,22 +49,37 @@ import com.tll.mcorpus.db.tables.pojos.Mauth;
 import com.tll.mcorpus.db.tables.pojos.Member;
 import com.tll.mcorpus.db.tables.records.MaddressRecord;
 import com.tll.mcorpus.db.tables.records.MauthRecord;
+import com.tll.mcorpus.db.tables.records.MemberRecord;
 import com.tll.mcorpus.db.udt.pojos.Mref;
 import com.tll.mcorpus.db.udt.records.MrefRecord;
 import com.tll.mcorpus.dmodel.MemberAndMaddresses;
 import com.tll.mcorpus.dmodel.MemberAndMauth;
 import com.tll.mcorpus.dmodel.MemberSearch;
+import com.tll.mcorpus.dmodel.MemberSuggestion;
+import com.tll.mcorpus.dmodel.MembersAdded;
 import com.tll.repo.FetchResult;
 
+import org.jooq.Condition;
+import org.jooq.Configuration;
+import org.jooq.ConnectionProvider;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
+import org.jooq.InsertSetMoreStep;
+import org.jooq.InsertSetStep;
+import org.jooq.InsertValuesStep7;
+import org.jooq.Record;
 import org.jooq.Record3;
 import org.jooq.Record9;
+import org.jooq.Result;
 import org.jooq.SQLDialect;
+import org.jooq.Table;
 import org.jooq.conf.RenderKeywordCase;
 import org.jooq.conf.RenderNameCase;
 import org.jooq.conf.Settings;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
+import org.jooq.impl.DefaultConnectionProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -98,42 +124,94 @@ public class MCorpusRepo implements Closeable {
       );
   }
 
-  static MemberAndMaddresses mapToOneMemberAndMaddresses(List<Map<String, Object>> mlist) {
-    return new MemberAndMaddresses(
-      mapToMemberAndMauth(mlist.get(0)),
-      mlist.stream().map(map -> {
-        return new Maddress(
-          fval(MADDRESS.MID, map),
-          fval(MADDRESS.ADDRESS_NAME, map),
-          fval(MADDRESS.MODIFIED, map),
-          fval(MADDRESS.ATTN, map),
-          fval(MADDRESS.STREET1, map),
-          fval(MADDRESS.STREET2, map),
-          fval(MADDRESS.CITY, map),
-          fval(MADDRESS.STATE, map),
-          fval(MADDRESS.POSTAL_CODE, map),
-          fval(MADDRESS.COUNTRY, map)
-        );
-      }).filter(ma -> isNotNull(ma.getAddressName())).collect(Collectors.toList())
-    );
+  /**
+   * The max number of members inserted per (multi-row) insert statement when
+   * adding members in bulk.
+   * <p>
+   * Keeps the number of bind values per statement well under the postgres
+   * limit of 32767.
+   */
+  static final int ADD_MEMBERS_BATCH_SIZE = 1000;
+
+  static String empIdLocKey(final String empId, final Location location) {
+    return empId + "|" + location;
+  }
+
+  /**
+   * @param mauth join the mauth table?
+   * @return the member table (inner) joined to the mauth table -OR- just the
+   *         member table (every member has exactly one mauth row)
+   */
+  static Table<?> memberTable(final boolean mauth) {
+    return mauth ? MEMBER.join(MAUTH).onKey() : MEMBER;
   }
 
   protected final Logger log = LoggerFactory.getLogger("MCorpusRepo");
 
   protected final DSLContext dsl;
 
+  /**
+   * The dsl for fetch-only (read) operations which may be routed to a read replica.
+   */
+  protected final DSLContext rdsl;
+
+  /**
+   * The optional in-memory index answering mref lookups with no db access.
+   */
+  protected final MrefIndex mrefIndex;
+
+  /**
+   * The optional in-memory member name prefix index answering member suggest
+   * lookups with no db access.
+   */
+  protected final MemberSuggestIndex suggestIndex;
+
+  /**
+   * Bumped upon every member add, update and delete.
+   */
+  private final AtomicLong memberGeneration = new AtomicLong();
+
   /**
    * Constructor.
+   * <p>
+   * All operations use the given data source.
    *
    * @param ds the data source
-   * @param vldtr optional entity validator
    */
   public MCorpusRepo(DataSource ds) {
+    this(ds, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param ds the (primary) data source
+   * @param readRouter optional router of the fetch-only operations
+   */
+  public MCorpusRepo(DataSource ds, ReadRouter readRouter) {
+    this(ds, readRouter, null, null, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param ds the (primary) data source
+   * @param readRouter optional router of the fetch-only operations
+   * @param mrefIndex optional in-memory mref index
+   * @param suggestIndex optional in-memory member name prefix index
+   * @param sqlTelemetry optional sql statement telemetry listener
+   */
+  public MCorpusRepo(DataSource ds, ReadRouter readRouter, MrefIndex mrefIndex, MemberSuggestIndex suggestIndex, SqlTelemetry sqlTelemetry) {
     Settings s = new Settings();
     s.setRenderSchema(false);
     s.setRenderNameCase(RenderNameCase.LOWER);
     s.setRenderKeywordCase(RenderKeywordCase.UPPER);
-    this.dsl = DSL.using(ds, SQLDialect.POSTGRES, s);
+    final Configuration cfg = new DefaultConfiguration().set(SQLDialect.POSTGRES).set(s);
+    if(isNotNull(sqlTelemetry)) cfg.set(sqlTelemetry);
+    this.dsl = DSL.using(cfg.derive(ds));
+    this.rdsl = isNull(readRouter) ? dsl : DSL.using(cfg.derive(readRouter));
+    this.mrefIndex = mrefIndex;
+    this.suggestIndex = suggestIndex;
   }
 
   @Override
@@ -145,6 +223,39 @@ public class MCorpusRepo implements Closeable {
     }
   }
 
+  /**
+   * The member generation which is bumped upon every member mutation made
+   * through this repo.
+   * <p>
+   * Member derived results (e.g. member search results) held in-memory are
+   * current only so long as the generation they were fetched under is the
+   * current generation.
+   *
+   * @return the current member generation
+   */
+  public long memberGeneration() { return memberGeneration.get(); }
+
+  /**
+   * Keep the in-memory indexes (when present) and the member generation
+   * current with an added or updated member.
+   */
+  private void index(final UUID mid, final Member member) {
+    memberGeneration.incrementAndGet();
+    if(isNotNull(mrefIndex)) mrefIndex.put(mid, member.getEmpId(), member.getLocation());
+    if(isNotNull(suggestIndex)) suggestIndex.put(mid, member.getEmpId(), member.getLocation(),
+      member.getNameFirst(), member.getNameLast(), member.getDisplayName());
+  }
+
+  /**
+   * Keep the in-memory indexes (when present) and the member generation
+   * current with a deleted member.
+   */
+  private void unindex(final UUID mid) {
+    memberGeneration.incrementAndGet();
+    if(isNotNull(mrefIndex)) mrefIndex.remove(mid);
+    if(isNotNull(suggestIndex)) suggestIndex.remove(mid);
+  }
+
   /**
    * The member login routine which fetches the member ref whose username and
    * password matches the ones given.
@@ -218,9 +329,11 @@ public class MCorpusRepo implements Closeable {
    */
   public FetchResult<Mref> fetchMRefByMid(final UUID mid) {
     if(mid == null) return fetchrslt(null, "No member id provided.");
+    final Mref indexed = isNull(mrefIndex) ? null : mrefIndex.byMid(mid);
+    if(isNotNull(indexed)) return fetchrslt(indexed);
     String emsg;
     try {
-      final Record3<UUID, String, Location> mrefRec = dsl
+      final Record3<UUID, String, Location> mrefRec = rdsl
         .select(MEMBER.MID, MEMBER.EMP_ID, MEMBER.LOCATION)
         .from(MEMBER)
         .where(MEMBER.MID.eq(mid))
@@ -258,8 +371,10 @@ public class MCorpusRepo implements Closeable {
   public FetchResult<Mref> fetchMRefByEmpIdAndLoc(final String empId, final Location loc) {
     String emsg;
     if(empId != null && loc != null) {
+      final Mref indexed = isNull(mrefIndex) ? null : mrefIndex.byEmpIdAndLoc(empId, loc);
+      if(isNotNull(indexed)) return fetchrslt(indexed);
       try {
-        Record3<UUID, String, Location> mrefRec = dsl
+        Record3<UUID, String, Location> mrefRec = rdsl
           .select(MEMBER.MID, MEMBER.EMP_ID, MEMBER.LOCATION)
           .from(MEMBER)
           .where(MEMBER.EMP_ID.eq(empId).and(MEMBER.LOCATION.eq(loc)))
@@ -299,9 +414,11 @@ public class MCorpusRepo implements Closeable {
    */
   public FetchResult<List<Mref>> fetchMRefsByEmpId(final String empId) {
     if(empId == null) return fetchrslt(null, "No emp id provided.");
+    final List<Mref> indexed = isNull(mrefIndex) ? null : mrefIndex.byEmpId(empId);
+    if(isNotNullOrEmpty(indexed)) return fetchrslt(indexed, null);
     String emsg;
     try {
-      final List<Mref> mref = dsl
+      final List<Mref> mref = rdsl
         .select(MEMBER.MID, MEMBER.EMP_ID, MEMBER.LOCATION)
         .from(MEMBER)
         .where(MEMBER.EMP_ID.eq(empId))
@@ -320,23 +437,110 @@ public class MCorpusRepo implements Closeable {
     return fetchrslt(null, emsg);
   }
 
+  /**
+   * Batch fetch the {@link Mref}s for a set of member ids in one round trip.
+   *
+   * @param mids the member ids
+   * @return newly created {@link FetchResult} wrapping a map of the found mrefs keyed by member id
+   *          or wrapping an error message upon a fetch error.
+   */
+  public FetchResult<Map<UUID, Mref>> fetchMRefsByMids(final Collection<UUID> mids) {
+    if(isNullOrEmpty(mids)) return fetchrslt(null, "No member ids provided.");
+    String emsg;
+    final Map<UUID, Mref> mrefMap = new HashMap<>(mids.size());
+    final Collection<UUID> unindexed = isNull(mrefIndex) ? mids : mrefIndex.byMids(mids, mrefMap);
+    if(unindexed.isEmpty()) return fetchrslt(mrefMap, null);
+    try {
+      mrefMap.putAll(rdsl
+        .select(MEMBER.MID, MEMBER.EMP_ID, MEMBER.LOCATION)
+        .from(MEMBER)
+        .where(MEMBER.MID.eq(any(unindexed.toArray(new UUID[unindexed.size()]))))
+        .fetchMap(MEMBER.MID, Mref.class));
+      return fetchrslt(mrefMap, null);
+    }
+    catch(DataAccessException dae) {
+      log.error(dae.getMessage());
+      emsg = "A data access exception occurred batch fetching mrefs by mid.";
+    }
+    catch(Throwable t) {
+      log.error(t.getMessage());
+      emsg = "A technical error occurred batch fetching mrefs by mid.";
+    }
+    // error
+    return fetchrslt(null, emsg);
+  }
+
+  /**
+   * Member name type-ahead: fetch the members whose last, first, full or
+   * display name starts with the given prefix.
+   * <p>
+   * Served from the in-memory member name prefix index when loaded otherwise
+   * from the db.
+   *
+   * @param prefix the name prefix
+   * @param location optional location to which suggestions are limited
+   * @param limit the max number of suggestions (capped at {@link MemberSuggestIndex#MAX_LIMIT})
+   * @return newly created {@link FetchResult} wrapping the list of suggestions upon success
+   *          or wrapping an error message upon a fetch error.
+   */
+  public FetchResult<List<MemberSuggestion>> memberSuggest(final String prefix, final Location location, final int limit) {
+    if(isBlank(prefix)) return fetchrslt(null, "No name prefix provided.");
+    final List<MemberSuggestion> indexed = isNull(suggestIndex) ? null : suggestIndex.suggest(prefix, location, limit);
+    if(isNotNull(indexed)) return fetchrslt(indexed, null);
+    String emsg;
+    try {
+      final String lprefix = prefix.trim().toLowerCase();
+      Condition c = DSL.or(
+        DSL.lower(MEMBER.NAME_LAST).startsWith(lprefix),
+        DSL.lower(MEMBER.NAME_FIRST).startsWith(lprefix),
+        DSL.lower(MEMBER.DISPLAY_NAME).startsWith(lprefix));
+      if(isNotNull(location)) c = c.and(MEMBER.LOCATION.eq(location));
+      final List<MemberSuggestion> list = rdsl
+        .select(MEMBER.MID, MEMBER.EMP_ID, MEMBER.LOCATION, MEMBER.NAME_FIRST, MEMBER.NAME_LAST, MEMBER.DISPLAY_NAME)
+        .from(MEMBER)
+        .where(c)
+        .orderBy(MEMBER.NAME_LAST, MEMBER.NAME_FIRST)
+        .limit(Math.min(Math.max(limit, 0), MemberSuggestIndex.MAX_LIMIT))
+        .fetch(rec -> new MemberSuggestion(
+          new Mref(rec.value1(), rec.value2(), rec.value3()),
+          MemberSuggestIndex.displayName(rec.value4(), rec.value5(), rec.value6())));
+      return fetchrslt(list, null);
+    }
+    catch(DataAccessException dae) {
+      log.error(dae.getMessage());
+      emsg = "A data access exception occurred fetching member suggestions.";
+    }
+    catch(Throwable t) {
+      log.error(t.getMessage());
+      emsg = "A technical error occurred fetching member suggestions.";
+    }
+    // error
+    return fetchrslt(null, emsg);
+  }
+
   public FetchResult<MemberAndMauth> fetchMember(final UUID mid) {
+    return fetchMember(mid, MemberProjection.ALL);
+  }
+
+  /**
+   * Fetch a member selecting only the columns of the given projection.
+   *
+   * @param mid the member id
+   * @param projection the member and mauth columns to select
+   * @return newly created {@link FetchResult} wrapping a {@link MemberAndMauth} domain object
+   *         or wrapping an error message upon a fetch error.
+   */
+  public FetchResult<MemberAndMauth> fetchMember(final UUID mid, final MemberProjection projection) {
     if(mid == null) return fetchrslt(null, "No member id provided.");
     String emsg;
     try {
-      final Map<String, Object> mmap = dsl
-        .select(
-          MEMBER.MID, MEMBER.CREATED, MEMBER.MODIFIED, MEMBER.EMP_ID, MEMBER.LOCATION, MEMBER.NAME_FIRST, MEMBER.NAME_MIDDLE, MEMBER.NAME_LAST, MEMBER.DISPLAY_NAME, MEMBER.STATUS,
-          MAUTH.DOB, MAUTH.SSN, MAUTH.EMAIL_PERSONAL, MAUTH.EMAIL_WORK, MAUTH.MOBILE_PHONE, MAUTH.HOME_PHONE, MAUTH.WORK_PHONE, MAUTH.FAX, MAUTH.USERNAME
-        )
-        .from(MEMBER).join(MAUTH).onKey()
+      final MemberAndMauth manda = rdsl
+        .select(projection.fields)
+        .from(memberTable(projection.mauth))
         .where(MEMBER.MID.eq(mid))
-        .fetchOneMap();
+        .fetchOne(projection.mapper);
 
-      if(isNull(mmap)) return fetchrslt(null, String.format("No member found with mid: '%s'.", mid));
-
-      // map to pojo
-      final MemberAndMauth manda = mapToMemberAndMauth(mmap);
+      if(isNull(manda)) return fetchrslt(null, String.format("No member found with mid: '%s'.", mid));
 
       // success
       return fetchrslt(manda, null);
@@ -361,23 +565,32 @@ public class MCorpusRepo implements Closeable {
    *         or wrapping an error message upon a fetch error.
    */
   public FetchResult<MemberAndMaddresses> fetchMemberAndAddresses(final UUID mid) {
+    return fetchMemberAndAddresses(mid, MemberProjection.ALL);
+  }
+
+  /**
+   * Fetch a member selecting only the columns of the given projection and all
+   * related member addresses (if any) given a member id.
+   *
+   * @param mid the member id
+   * @param projection the member and mauth columns to select
+   * @return newly created {@link FetchResult} wrapping a {@link MemberAndMaddresses} domain object
+   *         or wrapping an error message upon a fetch error.
+   */
+  public FetchResult<MemberAndMaddresses> fetchMemberAndAddresses(final UUID mid, final MemberProjection projection) {
     if(mid == null) return fetchrslt(null, "No member id provided.");
     String emsg;
     try {
-      final List<Map<String, Object>> mlist = dsl
-        .select(
-          MEMBER.MID, MEMBER.CREATED, MEMBER.MODIFIED, MEMBER.EMP_ID, MEMBER.LOCATION, MEMBER.NAME_FIRST, MEMBER.NAME_MIDDLE, MEMBER.NAME_LAST, MEMBER.DISPLAY_NAME, MEMBER.STATUS,
-          MAUTH.DOB, MAUTH.SSN, MAUTH.EMAIL_PERSONAL, MAUTH.EMAIL_WORK, MAUTH.MOBILE_PHONE, MAUTH.HOME_PHONE, MAUTH.WORK_PHONE, MAUTH.FAX, MAUTH.USERNAME,
-          MADDRESS.ADDRESS_NAME, MADDRESS.ATTN, MADDRESS.STREET1, MADDRESS.STREET2, MADDRESS.CITY, MADDRESS.STATE, MADDRESS.POSTAL_CODE, MADDRESS.COUNTRY
-        )
-        .from(MEMBER).join(MAUTH).onKey().leftJoin(MADDRESS).on(MEMBER.MID.eq(MADDRESS.MID))
+      final Result<Record> mlist = rdsl
+        .select(projection.fieldsWithAddresses)
+        .from(memberTable(projection.mauth)).leftJoin(MADDRESS).on(MEMBER.MID.eq(MADDRESS.MID))
         .where(MEMBER.MID.eq(mid))
-        .fetchMaps();
+        .fetch();
 
       if(isNullOrEmpty(mlist)) return fetchrslt(null, String.format("No member and addresses found with mid: '%s'.", mid));
 
       // map to pojo
-      final MemberAndMaddresses mandaddresses = mapToOneMemberAndMaddresses(mlist);
+      final MemberAndMaddresses mandaddresses = projection.toOneMemberAndMaddresses(mlist);
 
       // success
       return fetchrslt(mandaddresses, null);
@@ -406,7 +619,7 @@ public class MCorpusRepo implements Closeable {
     if(mid == null) return fetchrslt(null, "No member id provided.");
     String emsg;
     try {
-      final List<Maddress> maddressList = dsl
+      final List<Maddress> maddressList = rdsl
         .select()
         .from(MADDRESS)
         .where(MADDRESS.MID.eq(mid))
@@ -427,6 +640,41 @@ public class MCorpusRepo implements Closeable {
     return fetchrslt(null, emsg);
   }
 
+  /**
+   * Batch fetch all held member addresses for a set of members in one round trip.
+   *
+   * @param mids the member ids for which to get addresses
+   * @return the member addresses grouped by member id
+   *          wrapped in a {@link FetchResult} to enclose an
+   *          error message when the fetch fails.
+   *          <p>
+   *          Members having no addresses are absent from the returned map.
+   */
+  public FetchResult<Map<UUID, List<Maddress>>> fetchMemberAddressesByMids(final Collection<UUID> mids) {
+    if(isNullOrEmpty(mids)) return fetchrslt(null, "No member ids provided.");
+    String emsg;
+    try {
+      final Map<UUID, List<Maddress>> maddressMap = rdsl
+        .select()
+        .from(MADDRESS)
+        .where(MADDRESS.MID.eq(any(mids.toArray(new UUID[mids.size()]))))
+        .fetchGroups(MADDRESS.MID, Maddress.class);
+
+      // success
+      return fetchrslt(maddressMap, null);
+    }
+    catch(DataAccessException dae) {
+      log.error(dae.getMessage());
+      emsg = "A data access exception occurred batch fetching member addresses.";
+    }
+    catch(Throwable t) {
+      log.error(t.getMessage());
+      emsg = "A technical error occurred batch fetching member addresses.";
+    }
+    // error
+    return fetchrslt(null, emsg);
+  }
+
   /**
    * Member search function with optional filtering and paging offsets.
    *
@@ -434,43 +682,44 @@ public class MCorpusRepo implements Closeable {
    * @return FetchResult for a list of property maps representing member entities.
    */
   public FetchResult<List<MemberAndMauth>> memberSearch(final MemberSearch msearch) {
+    return memberSearch(msearch, MemberProjection.ALL);
+  }
+
+  /**
+   * Member search function with optional filtering and paging offsets
+   * selecting only the columns of the given projection.
+   * <p>
+   * The mauth table is joined only when the projection or the search
+   * references mauth columns.
+   *
+   * @param msearch the member search conditions object
+   * @param projection the member and mauth columns to select
+   * @return FetchResult for a list of property maps representing member entities.
+   */
+  public FetchResult<List<MemberAndMauth>> memberSearch(final MemberSearch msearch, final MemberProjection projection) {
     String emsg;
     try {
-      final List<Map<String, Object>> mmap;
+      final Table<?> from = memberTable(projection.mauth || msearch.mauth);
+      final List<MemberAndMauth> mlist;
       if(not(msearch.hasSearchConditions())) {
         // NO filter
-        mmap = dsl
-          .select(
-            MEMBER.MID, MEMBER.CREATED, MEMBER.MODIFIED, MEMBER.EMP_ID, MEMBER.LOCATION, MEMBER.NAME_FIRST, MEMBER.NAME_MIDDLE, MEMBER.NAME_LAST, MEMBER.DISPLAY_NAME, MEMBER.STATUS,
-            MAUTH.DOB, MAUTH.SSN, MAUTH.EMAIL_PERSONAL, MAUTH.EMAIL_WORK, MAUTH.MOBILE_PHONE, MAUTH.HOME_PHONE, MAUTH.WORK_PHONE, MAUTH.USERNAME
-          )
-          .from(MEMBER).join(MAUTH).onKey()
+        mlist = rdsl
+          .select(projection.fields)
+          .from(from)
           .orderBy(msearch.orderBys)
           .offset(msearch.offset).limit(msearch.limit)
-          .fetch().intoMaps();
+          .fetch(projection.mapper);
       } else {
         // filter
-        mmap = dsl
-          .select(
-            MEMBER.MID, MEMBER.CREATED, MEMBER.MODIFIED, MEMBER.EMP_ID, MEMBER.LOCATION, MEMBER.NAME_FIRST, MEMBER.NAME_MIDDLE, MEMBER.NAME_LAST, MEMBER.DISPLAY_NAME, MEMBER.STATUS,
-            MAUTH.DOB, MAUTH.SSN, MAUTH.EMAIL_PERSONAL, MAUTH.EMAIL_WORK, MAUTH.MOBILE_PHONE, MAUTH.HOME_PHONE, MAUTH.WORK_PHONE, MAUTH.USERNAME
-          )
-          .from(MEMBER).join(MAUTH).onKey()
+        mlist = rdsl
+          .select(projection.fields)
+          .from(from)
           .where(msearch.conditions)
           .orderBy(msearch.orderBys)
           .offset(msearch.offset).limit(msearch.limit)
-          .fetch().intoMaps();
+          .fetch(projection.mapper);
       }
 
-      if(isNullOrEmpty(mmap)) {
-        // no matches
-        return fetchrslt(Collections.emptyList(), null);
-      }
-
-      final List<MemberAndMauth> mlist = mmap.stream()
-        .map(MCorpusRepo::mapToMemberAndMauth)
-        .collect(Collectors.toList());
-
       return fetchrslt(mlist, null);
     }
     catch(DataAccessException dae) {
@@ -485,6 +734,59 @@ public class MCorpusRepo implements Closeable {
     return fetchrslt(null, emsg);
   }
 
+  /**
+   * Open a server-side cursor over all members matching the given search
+   * conditions for streaming purposes.
+   * <p>
+   * The search paging offset and limit are ignored.
+   * <p>
+   * The returned {@link MemberCursor} holds a dedicated db connection and
+   * MUST be closed by the caller.
+   *
+   * @param msearch the member search conditions object
+   * @param fetchSize the number of rows to fetch from the db per round trip
+   * @return FetchResult for the opened member cursor
+   */
+  public FetchResult<MemberCursor> openMemberCursor(final MemberSearch msearch, final int fetchSize) {
+    String emsg;
+    final ConnectionProvider cp = rdsl.configuration().connectionProvider();
+    Connection cnx = null;
+    try {
+      cnx = cp.acquire();
+      // postgres only honors the fetch size (server-side cursor) within a transaction
+      cnx.setAutoCommit(false);
+      cnx.setReadOnly(true);
+      final Cursor<? extends Record> cursor = DSL.using(rdsl.configuration().derive(new DefaultConnectionProvider(cnx)))
+        .select(MEMBER_AND_MAUTH_FIELDS)
+        .from(MEMBER).join(MAUTH).onKey()
+        .where(msearch.conditions)
+        .orderBy(msearch.orderBys)
+        .fetchSize(fetchSize)
+        .fetchLazy();
+      return fetchrslt(new MemberCursor(cp, cnx, cursor), null);
+    }
+    catch(DataAccessException dae) {
+      log.error(dae.getMessage());
+      emsg = "A data access error occurred opening member cursor.";
+    }
+    catch(Throwable t) {
+      log.error(t.getMessage());
+      emsg = "A technical error occurred opening member cursor.";
+    }
+    if(isNotNull(cnx)) {
+      try {
+        cnx.rollback();
+        cnx.setReadOnly(false);
+        cnx.setAutoCommit(true);
+      } catch(Exception e) {
+        log.error(e.getMessage());
+      }
+      cp.release(cnx);
+    }
+    // error
+    return fetchrslt(null, emsg);
+  }
+
   /**
    * Add a member.
    *
@@ -567,9 +869,120 @@ public class MCorpusRepo implements Closeable {
     }
 
     final MemberAndMauth added = rlist.size() == 1 ? rlist.get(0) : null;
+    if(isNotNull(added)) index(added.dbMember.getMid(), added.dbMember);
     return fetchrslt(added, nflatten(emsgs, ","));
   }
 
+  /**
+   * Add many members in a single transaction.
+   * <p>
+   * Members whose emp id and location or whose username is already taken
+   * (either in the db or by an earlier member in the given list) are rejected
+   * up front.  The remaining members are inserted using multi-row inserts
+   * {@link #ADD_MEMBERS_BATCH_SIZE} members at a time with the member pswds
+   * hashed in the db just as with {@link #addMember(MemberAndMauth)}.
+   * <p>
+   * Either all non-rejected members are added or none are.
+   *
+   * @param membersToAdd the (validated) members to add
+   * @return newly created {@link FetchResult} wrapping the added and rejected
+   *         members keyed by their index in the given list
+   *         -OR- an error message when the transaction failed.
+   */
+  public FetchResult<MembersAdded> addMembers(final List<MemberAndMauth> membersToAdd) {
+    if(isNullOrEmpty(membersToAdd)) return fetchrslt(null, "No members provided.");
+
+    final Map<Integer, Mref> added = new TreeMap<>();
+    final Map<Integer, String> rejected = new TreeMap<>();
+    String emsg;
+    try {
+      dsl.transaction(configuration -> {
+        final DSLContext trans = DSL.using(configuration);
+
+        // existing emp id and location pairs and usernames
+        final Set<String> takenEmpIdLocs = new HashSet<>();
+        trans
+          .select(MEMBER.EMP_ID, MEMBER.LOCATION)
+          .from(MEMBER)
+          .where(MEMBER.EMP_ID.eq(any(membersToAdd.stream().map(m -> m.dbMember.getEmpId()).distinct().toArray(String[]::new))))
+          .fetch()
+          .forEach(r -> takenEmpIdLocs.add(empIdLocKey(r.value1(), r.value2())));
+        final Set<String> takenUsernames = new HashSet<>(trans
+          .select(MAUTH.USERNAME)
+          .from(MAUTH)
+          .where(MAUTH.USERNAME.eq(any(membersToAdd.stream().map(m -> m.dbMauth.getUsername()).distinct().toArray(String[]::new))))
+          .fetch(MAUTH.USERNAME));
+
+        // reject the dupes (first one in wins)
+        final List<Integer> toInsert = new ArrayList<>(membersToAdd.size());
+        for(int i = 0; i < membersToAdd.size(); i++) {
+          final MemberAndMauth m = membersToAdd.get(i);
+          final String empIdLoc = empIdLocKey(m.dbMember.getEmpId(), m.dbMember.getLocation());
+          if(takenEmpIdLocs.contains(empIdLoc)) {
+            rejected.put(i, "Member emp id and location already exist.");
+          } else if(takenUsernames.contains(m.dbMauth.getUsername())) {
+            rejected.put(i, "Member username already exists.");
+          } else {
+            takenEmpIdLocs.add(empIdLoc);
+            takenUsernames.add(m.dbMauth.getUsername());
+            toInsert.add(i);
+          }
+        }
+
+        for(int from = 0; from < toInsert.size(); from += ADD_MEMBERS_BATCH_SIZE) {
+          final List<Integer> batch = toInsert.subList(from, Math.min(from + ADD_MEMBERS_BATCH_SIZE, toInsert.size()));
+
+          // member (the db generates the member ids)
+          InsertValuesStep7<MemberRecord, String, Location, String, String, String, String, MemberStatus> im = trans
+            .insertInto(MEMBER, MEMBER.EMP_ID, MEMBER.LOCATION, MEMBER.NAME_FIRST, MEMBER.NAME_MIDDLE, MEMBER.NAME_LAST, MEMBER.DISPLAY_NAME, MEMBER.STATUS);
+          for(final Integer i : batch) {
+            final Member m = membersToAdd.get(i).dbMember;
+            im = im.values(m.getEmpId(), m.getLocation(), m.getNameFirst(), m.getNameMiddle(), m.getNameLast(), m.getDisplayName(), m.getStatus());
+          }
+          final Map<String, UUID> mids = new HashMap<>(batch.size());
+          im.returning(MEMBER.MID, MEMBER.EMP_ID, MEMBER.LOCATION).fetch()
+            .forEach(r -> mids.put(empIdLocKey(r.getEmpId(), r.getLocation()), r.getMid()));
+
+          // mauth
+          InsertSetStep<MauthRecord> iaNext = trans.insertInto(MAUTH);
+          InsertSetMoreStep<MauthRecord> ia = null;
+          for(final Integer i : batch) {
+            final MemberAndMauth m = membersToAdd.get(i);
+            final UUID mid = mids.get(empIdLocKey(m.dbMember.getEmpId(), m.dbMember.getLocation()));
+            if(isNotNull(ia)) iaNext = ia.newRecord();
+            ia = iaNext
+              .set(MAUTH.MID, mid)
+              .set(MAUTH.DOB, m.dbMauth.getDob())
+              .set(MAUTH.SSN, m.dbMauth.getSsn())
+              .set(MAUTH.EMAIL_PERSONAL, m.dbMauth.getEmailPersonal())
+              .set(MAUTH.EMAIL_WORK, m.dbMauth.getEmailWork())
+              .set(MAUTH.MOBILE_PHONE, m.dbMauth.getMobilePhone())
+              .set(MAUTH.HOME_PHONE, m.dbMauth.getHomePhone())
+              .set(MAUTH.WORK_PHONE, m.dbMauth.getWorkPhone())
+              .set(MAUTH.FAX, m.dbMauth.getFax())
+              .set(MAUTH.USERNAME, m.dbMauth.getUsername())
+              .set(MAUTH.PSWD, Routines.passHash(DSL.val(m.dbMauth.getPswd())));
+            added.put(i, new Mref(mid, m.dbMember.getEmpId(), m.dbMember.getLocation()));
+          }
+          ia.execute();
+        }
+      });
+      log.info("{} members added ({} rejected).", added.size(), rejected.size());
+      added.forEach((i, mref) -> index(mref.getMid(), membersToAdd.get(i).dbMember));
+      return fetchrslt(new MembersAdded(added, rejected), null);
+    }
+    catch(DataAccessException e) {
+      log.error(e.getMessage());
+      emsg = "A data access exception occurred adding members.";
+    }
+    catch(Throwable t) {
+      log.error(t.getMessage());
+      emsg = "A technical error occurred adding members.";
+    }
+    // error
+    return fetchrslt(null, emsg);
+  }
+
   public FetchResult<MemberAndMauth> updateMember(final MemberAndMauth memberToUpdate) {
     if(isNull(memberToUpdate)) return fetchrslt(null, "No member provided.");
 
@@ -667,6 +1080,7 @@ public class MCorpusRepo implements Closeable {
 
     // success
     final MemberAndMauth updated = rlist.size() == 1 ? rlist.get(0) : null;
+    if(isNotNull(updated)) index(updated.dbMember.getMid(), updated.dbMember);
     return fetchrslt(updated, nflatten(emsgs, ","));
   }
 
@@ -689,6 +1103,7 @@ public class MCorpusRepo implements Closeable {
           .execute();
 
       if(numDeleted != 1) throw new DataAccessException("Invalid member delete return value.");
+      unindex(mid);
 
       // success
       return fetchrslt(Boolean.TRUE, null);
@@ -1,16 +1,21 @@
 package com.tll.mcorpus.repo;
 
+import static com.tll.core.Util.isNotBlank;
+
 import javax.sql.DataSource;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
+import com.tll.mcorpus.MCorpusServerConfig;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 
 /**
  * MCorpusRepoModule module.
  * <p>
  * Created on 11/22/17.
- * 
+ *
  * @author jpk
  */
 public class MCorpusRepoModule extends AbstractModule {
@@ -20,13 +25,56 @@ public class MCorpusRepoModule extends AbstractModule {
 
   @Provides
   @Singleton
-  MCorpusUserRepo mcorpusUserRepo(DataSource ds) {
-    return new MCorpusUserRepo(ds);
+  SqlTelemetry sqlTelemetry(DataSource ds, MCorpusServerConfig config) {
+    final SqlTelemetry sqlTelemetry = new SqlTelemetry(config.dbSlowSqlThresholdInMillis);
+    sqlTelemetry.addPool(ds);
+    return sqlTelemetry;
+  }
+
+  @Provides
+  @Singleton
+  ReadRouter readRouter(DataSource ds, SqlTelemetry sqlTelemetry, MCorpusServerConfig config) {
+    DataSource replica = null;
+    if(isNotBlank(config.dbReplicaUrl)) {
+      final HikariConfig hikariConfig = new HikariConfig();
+      hikariConfig.setPoolName("mcorpus-replica");
+      hikariConfig.setReadOnly(true);
+      hikariConfig.setDataSourceClassName(config.dbDataSourceClassName);
+      hikariConfig.addDataSourceProperty("URL", config.dbReplicaUrl);
+      // fail fast on an unreachable replica and don't fail startup when it is down
+      hikariConfig.setConnectionTimeout(ReadRouter.REPLICA_CONNECTION_TIMEOUT_MILLIS);
+      hikariConfig.setInitializationFailTimeout(-1);
+      replica = new HikariDataSource(hikariConfig);
+      sqlTelemetry.addPool(replica);
+    }
+    return new ReadRouter(ds, replica, config.dbReplicaMaxLagInSeconds, config.dbReplicaPinInSeconds);
+  }
+
+  @Provides
+  @Singleton
+  MrefIndex mrefIndex(DataSource ds, MCorpusServerConfig config) {
+    return new MrefIndex(ds, config.mrefIndexRefreshInSeconds, config.mrefIndexReloadInMinutes);
+  }
+
+  @Provides
+  @Singleton
+  MemberSuggestIndex memberSuggestIndex(DataSource ds, MCorpusServerConfig config) {
+    return new MemberSuggestIndex(ds, config.memberSuggestRefreshInSeconds, config.memberSuggestReloadInMinutes);
+  }
+
+  @Provides
+  @Singleton
+  MCorpusUserRepo mcorpusUserRepo(DataSource ds, ReadRouter readRouter, SqlTelemetry sqlTelemetry) {
+    return new MCorpusUserRepo(ds, readRouter, sqlTelemetry);
   }
 
   @Provides
   @Singleton
-  MCorpusRepo mcorpusRepo(DataSource ds) {
-    return new MCorpusRepo(ds);
+  MCorpusRepo mcorpusRepo(DataSource ds, ReadRouter readRouter, MrefIndex mrefIndex, MemberSuggestIndex suggestIndex, SqlTelemetry sqlTelemetry, MCorpusServerConfig config) {
+    // the mcorpus server config determines whether we cache members or not
+    return config.memberCacheTimeoutInMinutes <= 0 || config.memberCacheMaxSize <= 0 ?
+      new MCorpusRepo(ds, readRouter, mrefIndex, suggestIndex, sqlTelemetry) :
+      new CachingMCorpusRepo(ds, readRouter, mrefIndex, suggestIndex, sqlTelemetry, config.memberCacheTimeoutInMinutes, config.memberCacheMaxSize,
+        config.memberSearchCacheTimeoutInSeconds, config.memberSearchCacheMaxMembers);
   }
 }
@@ -38,6 +38,7 @@ import com.tll.mcorpus.dmodel.McuserHistoryDomain.LoginEventDomain;
 import com.tll.mcorpus.dmodel.McuserHistoryDomain.LogoutEventDomain;
 import com.tll.repo.FetchResult;
 
+import org.jooq.Configuration;
 import org.jooq.DSLContext;
 import org.jooq.Record4;
 import org.jooq.Record9;
@@ -48,6 +49,7 @@ import org.jooq.conf.RenderNameCase;
 import org.jooq.conf.Settings;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,16 +66,49 @@ public class MCorpusUserRepo implements Closeable {
 
   protected final DSLContext dsl;
 
+  /**
+   * The dsl for fetch-only (read) operations which may be routed to a read replica.
+   */
+  protected final DSLContext rdsl;
+
   /**
    * Constructor
    * @param ds the data source
    */
   public MCorpusUserRepo(DataSource ds) {
+    this(ds, null);
+  }
+
+  /**
+   * Constructor
+   * <p>
+   * NOTE: jwt status and login related fetches always go to the primary.
+   *
+   * @param ds the (primary) data source
+   * @param readRouter optional router of the fetch-only operations
+   */
+  public MCorpusUserRepo(DataSource ds, ReadRouter readRouter) {
+    this(ds, readRouter, null);
+  }
+
+  /**
+   * Constructor
+   * <p>
+   * NOTE: jwt status and login related fetches always go to the primary.
+   *
+   * @param ds the (primary) data source
+   * @param readRouter optional router of the fetch-only operations
+   * @param sqlTelemetry optional sql statement telemetry listener
+   */
+  public MCorpusUserRepo(DataSource ds, ReadRouter readRouter, SqlTelemetry sqlTelemetry) {
     Settings s = new Settings();
     s.setRenderSchema(false);
     s.setRenderNameCase(RenderNameCase.LOWER);
     s.setRenderKeywordCase(RenderKeywordCase.UPPER);
-    this.dsl = DSL.using(ds, SQLDialect.POSTGRES, s);
+    final Configuration cfg = new DefaultConfiguration().set(SQLDialect.POSTGRES).set(s);
+    if(isNotNull(sqlTelemetry)) cfg.set(sqlTelemetry);
+    this.dsl = DSL.using(cfg.derive(ds));
+    this.rdsl = isNull(readRouter) ? dsl : DSL.using(cfg.derive(readRouter));
   }
 
   @Override
@@ -139,7 +174,7 @@ public class MCorpusUserRepo implements Closeable {
   public FetchResult<McuserHistoryDomain> mcuserHistory(final UUID uid) {
     if(uid == null) return fetchrslt(null, "No mcuser id provided.");
     try {
-      final Result<Record4<UUID, OffsetDateTime, String, McuserAuditType>> result = dsl
+      final Result<Record4<UUID, OffsetDateTime, String, McuserAuditType>> result = rdsl
         .select(MCUSER_AUDIT.JWT_ID, MCUSER_AUDIT.CREATED, MCUSER_AUDIT.REQUEST_ORIGIN, MCUSER_AUDIT.TYPE)
         .from(MCUSER_AUDIT)
         .where(MCUSER_AUDIT.UID.eq(uid))
@@ -264,7 +299,7 @@ public class MCorpusUserRepo implements Closeable {
     if(uid == null) return fetchrslt(null, "No mcuser id provided.");
     String emsg;
     try {
-      final Mcuser mcuser = dsl
+      final Mcuser mcuser = rdsl
               .select(
                 MCUSER.UID,
                 MCUSER.CREATED,
@@ -0,0 +1,91 @@
+package com.tll.mcorpus.repo;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.List;
+
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+
+import org.jooq.ConnectionProvider;
+import org.jooq.Cursor;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Forward only member search result cursor backed by a postgres server-side
+ * cursor.
+ * <p>
+ * Only one fetch size worth of rows is held in memory at any one time
+ * regardless of the total number of matching members.
+ * <p>
+ * Holds a dedicated db connection (in an open read-only transaction) until
+ * either exhausted or closed.  Always close!
+ * <p>
+ * All public methods are <em>blocking</em>.
+ *
+ * @author jpk
+ */
+public class MemberCursor implements Closeable {
+
+  private final Logger log = LoggerFactory.getLogger(MemberCursor.class);
+
+  private final ConnectionProvider connectionProvider;
+  private final Connection cnx;
+  private final Cursor<? extends Record> cursor;
+
+  private boolean closed;
+
+  /**
+   * Constructor.
+   *
+   * @param connectionProvider the provider the connection was acquired from
+   * @param cnx the dedicated non auto-commit db connection
+   * @param cursor the lazy jooq cursor
+   */
+  MemberCursor(final ConnectionProvider connectionProvider, final Connection cnx, final Cursor<? extends Record> cursor) {
+    this.connectionProvider = connectionProvider;
+    this.cnx = cnx;
+    this.cursor = cursor;
+    this.closed = false;
+  }
+
+  /**
+   * @return true when this cursor is exhausted or closed.
+   */
+  public synchronized boolean isClosed() { return closed; }
+
+  /**
+   * Fetch the next batch of members.
+   * <p>
+   * This cursor is closed automatically once exhausted.
+   *
+   * @param max the max number of members to fetch
+   * @return the next batch of members which is empty once exhausted
+   */
+  public synchronized List<MemberAndMauth> next(final int max) {
+    if(closed) return Collections.emptyList();
+    final Result<? extends Record> result = cursor.fetchNext(max);
+    if(result.size() < max) close();
+    return result.map(MemberRecordMappers.MEMBER_AND_MAUTH);
+  }
+
+  @Override
+  public synchronized void close() {
+    if(closed) return;
+    closed = true;
+    try {
+      cursor.close();
+      cnx.commit();
+      cnx.setReadOnly(false);
+      cnx.setAutoCommit(true);
+    } catch(Exception e) {
+      log.error("Member cursor close error: {}", e.getMessage());
+    } finally {
+      connectionProvider.release(cnx);
+    }
+    log.debug("Member cursor closed.");
+  }
+}
@@ -0,0 +1,141 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.mcorpus.repo.MemberRecordMappers.ALL_POSITIONS;
+import static com.tll.mcorpus.repo.MemberRecordMappers.FIRST_MAUTH_FIELD;
+import static com.tll.mcorpus.repo.MemberRecordMappers.MADDRESS_FIELDS;
+import static com.tll.mcorpus.repo.MemberRecordMappers.MEMBER_AND_MAUTH_FIELDS;
+import static com.tll.mcorpus.repo.MemberRecordMappers.concat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.tll.mcorpus.dmodel.MemberAndMaddresses;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+
+/**
+ * The member and mauth columns to select when fetching members.
+ * <p>
+ * Member fields not in the projection are null in the fetched members.  The
+ * member id is always selected and the mauth table is only joined when at
+ * least one mauth column is in the projection.
+ * <p>
+ * Instances are immutable and shared (one per distinct column set).
+ *
+ * @author jpk
+ */
+public final class MemberProjection {
+
+  /**
+   * All member and mauth columns.
+   */
+  public static final MemberProjection ALL = new MemberProjection((1 << MEMBER_AND_MAUTH_FIELDS.length) - 1);
+
+  private static final ConcurrentMap<Integer, MemberProjection> projections = new ConcurrentHashMap<>();
+
+  /**
+   * Get the projection of the given member and mauth columns.
+   *
+   * @param columns the member (<code>MEMBER.*</code>) and mauth
+   *                (<code>MAUTH.*</code>) columns to select
+   * @return the projection of the given columns plus the member id
+   *         -OR- {@link #ALL} when any column is not a selectable member or
+   *         mauth column
+   */
+  public static MemberProjection of(final Collection<? extends Field<?>> columns) {
+    int mask = 1; // mid
+    for(final Field<?> column : columns) {
+      final int i = Arrays.asList(MEMBER_AND_MAUTH_FIELDS).indexOf(column);
+      if(i < 0) return ALL;
+      mask |= 1 << i;
+    }
+    return mask == ALL.mask ? ALL : projections.computeIfAbsent(mask, MemberProjection::new);
+  }
+
+  private final int mask;
+
+  /**
+   * The member and mauth select list.
+   */
+  final Field<?>[] fields;
+
+  /**
+   * The member, mauth and (left joined) maddress select list.
+   */
+  final Field<?>[] fieldsWithAddresses;
+
+  /**
+   * The record position of each {@link MemberRecordMappers#MEMBER_AND_MAUTH_FIELDS}
+   * field (-1 when not selected).
+   */
+  final int[] positions;
+
+  /**
+   * Is any mauth column selected?
+   */
+  final boolean mauth;
+
+  /**
+   * Maps {@link #fields} records.
+   */
+  final RecordMapper<Record, MemberAndMauth> mapper;
+
+  private MemberProjection(final int mask) {
+    this.mask = mask;
+    final int n = Integer.bitCount(mask);
+    if(n == MEMBER_AND_MAUTH_FIELDS.length) {
+      this.fields = MEMBER_AND_MAUTH_FIELDS;
+      this.positions = ALL_POSITIONS;
+    } else {
+      this.fields = new Field<?>[n];
+      this.positions = new int[MEMBER_AND_MAUTH_FIELDS.length];
+      int p = 0;
+      for(int i = 0; i < MEMBER_AND_MAUTH_FIELDS.length; i++) {
+        if((mask & (1 << i)) != 0) {
+          fields[p] = MEMBER_AND_MAUTH_FIELDS[i];
+          positions[i] = p++;
+        } else {
+          positions[i] = -1;
+        }
+      }
+    }
+    this.fieldsWithAddresses = concat(fields, MADDRESS_FIELDS);
+    this.mauth = (mask >>> FIRST_MAUTH_FIELD) != 0;
+    this.mapper = r -> MemberRecordMappers.toMemberAndMauth(r, positions);
+  }
+
+  /**
+   * @return true when all member and mauth columns are selected
+   */
+  public boolean isAll() { return mask == ALL.mask; }
+
+  /**
+   * Map the {@link #fieldsWithAddresses} records of a single member.
+   *
+   * @param rlist the non-empty records of a single member
+   * @return newly created {@link MemberAndMaddresses}
+   */
+  MemberAndMaddresses toOneMemberAndMaddresses(final List<? extends Record> rlist) {
+    return MemberRecordMappers.toOneMemberAndMaddresses(rlist, positions, fields.length);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return this == obj || (obj instanceof MemberProjection && ((MemberProjection) obj).mask == mask);
+  }
+
+  @Override
+  public int hashCode() { return mask; }
+
+  @Override
+  public String toString() {
+    return String.format("MemberProjection[%s]", isAll() ? "*" :
+      Arrays.stream(fields).map(Field::getName).reduce((a, b) -> a + ", " + b).orElse(""));
+  }
+}
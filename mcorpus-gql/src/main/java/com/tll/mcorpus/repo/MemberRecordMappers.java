@@ -0,0 +1,208 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.mcorpus.db.Tables.MADDRESS;
+import static com.tll.mcorpus.db.Tables.MAUTH;
+import static com.tll.mcorpus.db.Tables.MEMBER;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.tll.mcorpus.db.enums.Addressname;
+import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.db.enums.MemberStatus;
+import com.tll.mcorpus.db.tables.pojos.Maddress;
+import com.tll.mcorpus.db.tables.pojos.Mauth;
+import com.tll.mcorpus.db.tables.pojos.Member;
+import com.tll.mcorpus.dmodel.MemberAndMaddresses;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+
+/**
+ * Index based jOOQ record mappers for the member read paths.
+ * <p>
+ * The mappers read the record values by position against the fixed select
+ * lists declared herein and so neither copy rows into field name keyed maps
+ * nor look up fields by name.  Queries mapped by these mappers MUST select
+ * exactly the corresponding select list.
+ *
+ * @author jpk
+ */
+final class MemberRecordMappers {
+
+  /**
+   * The member and mauth select list.
+   */
+  static final Field<?>[] MEMBER_AND_MAUTH_FIELDS = {
+    MEMBER.MID,               // 0
+    MEMBER.CREATED,           // 1
+    MEMBER.MODIFIED,          // 2
+    MEMBER.EMP_ID,            // 3
+    MEMBER.LOCATION,          // 4
+    MEMBER.NAME_FIRST,        // 5
+    MEMBER.NAME_MIDDLE,       // 6
+    MEMBER.NAME_LAST,         // 7
+    MEMBER.DISPLAY_NAME,      // 8
+    MEMBER.STATUS,            // 9
+    MAUTH.DOB,                // 10
+    MAUTH.SSN,                // 11
+    MAUTH.EMAIL_PERSONAL,     // 12
+    MAUTH.EMAIL_WORK,         // 13
+    MAUTH.MOBILE_PHONE,       // 14
+    MAUTH.HOME_PHONE,         // 15
+    MAUTH.WORK_PHONE,         // 16
+    MAUTH.USERNAME            // 17
+  };
+
+  /**
+   * The maddress select list (appended to a member and mauth select list).
+   */
+  static final Field<?>[] MADDRESS_FIELDS = {
+    MADDRESS.ADDRESS_NAME,    // +0
+    MADDRESS.MODIFIED,        // +1
+    MADDRESS.ATTN,            // +2
+    MADDRESS.STREET1,         // +3
+    MADDRESS.STREET2,         // +4
+    MADDRESS.CITY,            // +5
+    MADDRESS.STATE,           // +6
+    MADDRESS.POSTAL_CODE,     // +7
+    MADDRESS.COUNTRY          // +8
+  };
+
+  /**
+   * The member, mauth and (left joined) maddress select list.
+   */
+  static final Field<?>[] MEMBER_AND_MAUTH_AND_MADDRESS_FIELDS = concat(MEMBER_AND_MAUTH_FIELDS, MADDRESS_FIELDS);
+
+  /**
+   * The index of the first mauth field in {@link #MEMBER_AND_MAUTH_FIELDS}.
+   */
+  static final int FIRST_MAUTH_FIELD = 10;
+
+  /**
+   * The identity record positions of {@link #MEMBER_AND_MAUTH_FIELDS}.
+   */
+  static final int[] ALL_POSITIONS = new int[MEMBER_AND_MAUTH_FIELDS.length];
+
+  static {
+    for(int i = 0; i < ALL_POSITIONS.length; i++) ALL_POSITIONS[i] = i;
+  }
+
+  /**
+   * Maps {@link #MEMBER_AND_MAUTH_FIELDS} records.
+   */
+  static final RecordMapper<Record, MemberAndMauth> MEMBER_AND_MAUTH = r -> toMemberAndMauth(r, ALL_POSITIONS);
+
+  static Field<?>[] concat(final Field<?>[] a, final Field<?>[] b) {
+    final Field<?>[] c = new Field<?>[a.length + b.length];
+    System.arraycopy(a, 0, c, 0, a.length);
+    System.arraycopy(b, 0, c, a.length, b.length);
+    return c;
+  }
+
+  /**
+   * @return the record value at the record position of the given
+   *         {@link #MEMBER_AND_MAUTH_FIELDS} index -OR- null when not selected
+   */
+  private static Object v(final Record r, final int[] positions, final int i) {
+    final int p = positions[i];
+    return p < 0 ? null : r.get(p);
+  }
+
+  /**
+   * Map a member and mauth record.
+   * <p>
+   * The mauth modified date, fax and pswd are never selected and are null as
+   * are any fields not selected.
+   *
+   * @param r the record
+   * @param positions the record position of each {@link #MEMBER_AND_MAUTH_FIELDS}
+   *                  field (-1 when not selected)
+   * @return newly created {@link MemberAndMauth}
+   */
+  static MemberAndMauth toMemberAndMauth(final Record r, final int[] positions) {
+    final UUID mid = (UUID) v(r, positions, 0);
+    return new MemberAndMauth(
+      new Member(
+        mid,
+        (OffsetDateTime) v(r, positions, 1),
+        (OffsetDateTime) v(r, positions, 2),
+        (String) v(r, positions, 3),
+        (Location) v(r, positions, 4),
+        (String) v(r, positions, 5),
+        (String) v(r, positions, 6),
+        (String) v(r, positions, 7),
+        (String) v(r, positions, 8),
+        (MemberStatus) v(r, positions, 9)
+      ),
+      new Mauth(
+        mid,
+        null,
+        (LocalDate) v(r, positions, 10),
+        (String) v(r, positions, 11),
+        (String) v(r, positions, 12),
+        (String) v(r, positions, 13),
+        (String) v(r, positions, 14),
+        (String) v(r, positions, 15),
+        (String) v(r, positions, 16),
+        null,
+        (String) v(r, positions, 17),
+        null
+      )
+    );
+  }
+
+  /**
+   * Map the {@link #MEMBER_AND_MAUTH_AND_MADDRESS_FIELDS} records of a single
+   * member to a member and its addresses.
+   *
+   * @param rlist the non-empty records of a single member (one per address or
+   *              a single address-less record)
+   * @return newly created {@link MemberAndMaddresses}
+   */
+  static MemberAndMaddresses toOneMemberAndMaddresses(final List<? extends Record> rlist) {
+    return toOneMemberAndMaddresses(rlist, ALL_POSITIONS, MEMBER_AND_MAUTH_FIELDS.length);
+  }
+
+  /**
+   * Map the member, mauth and (left joined) maddress records of a single
+   * member to a member and its addresses.
+   *
+   * @param rlist the non-empty records of a single member (one per address or
+   *              a single address-less record)
+   * @param positions the record position of each {@link #MEMBER_AND_MAUTH_FIELDS}
+   *                  field (-1 when not selected)
+   * @param a the record position of the first maddress field
+   * @return newly created {@link MemberAndMaddresses}
+   */
+  static MemberAndMaddresses toOneMemberAndMaddresses(final List<? extends Record> rlist, final int[] positions, final int a) {
+    final MemberAndMauth manda = toMemberAndMauth(rlist.get(0), positions);
+    final UUID mid = manda.dbMember.getMid();
+    final List<Maddress> addresses = new ArrayList<>(rlist.size());
+    for(final Record r : rlist) {
+      final Addressname addressName = (Addressname) r.get(a);
+      // no address (left join)
+      if(addressName == null) continue;
+      addresses.add(new Maddress(
+        mid,
+        addressName,
+        (OffsetDateTime) r.get(a + 1),
+        (String) r.get(a + 2),
+        (String) r.get(a + 3),
+        (String) r.get(a + 4),
+        (String) r.get(a + 5),
+        (String) r.get(a + 6),
+        (String) r.get(a + 7),
+        (String) r.get(a + 8)
+      ));
+    }
+    return new MemberAndMaddresses(manda, addresses);
+  }
+
+  private MemberRecordMappers() {}
+}
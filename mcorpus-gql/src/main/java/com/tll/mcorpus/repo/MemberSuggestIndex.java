@@ -0,0 +1,506 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.core.Util.isBlank;
+import static com.tll.core.Util.isNotNull;
+import static com.tll.core.Util.isNull;
+import static com.tll.mcorpus.db.Tables.MEMBER;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.db.udt.pojos.Mref;
+import com.tll.mcorpus.dmodel.MemberSuggestion;
+
+import org.jooq.Field;
+import org.jooq.Record;
+
+/**
+ * In-memory prefix index of member names answering member name type-ahead
+ * (suggest) lookups with no db access.
+ * <p>
+ * Each member is indexed under its normalized (lower case, accent and
+ * punctuation free) last name, first name, full name (first last) and
+ * display name.
+ * <p>
+ * A full load builds an immutable snapshot of sorted compact arrays:
+ * <ul>
+ * <li>the member rows: member id (two longs), location ordinal and an offset
+ *     into a UTF-8 byte blob holding the emp id and display name
+ * <li>the name keys: an ASCII byte blob of the normalized names with the key
+ *     offsets, the key rows and the key ids in key order (binary searched for
+ *     a prefix)
+ * <li>an open addressing hash table of member rows keyed by member id
+ * </ul>
+ * Members changed or deleted since the last full load are masked out of the
+ * snapshot and held (when changed) in a small sorted overlay merged in at
+ * lookup time.
+ * <p>
+ * <b>Memory:</b> about 130 bytes per member (some 55 per row plus 22 per name
+ * key) i.e. roughly 130 MB per million members.
+ *
+ * @author jpk
+ */
+public class MemberSuggestIndex extends PolledMemberIndex<MemberSuggestIndex.Snapshot> {
+
+  /**
+   * The max number of suggestions handed back by a single lookup.
+   */
+  public static final int MAX_LIMIT = 50;
+
+  /**
+   * The number of overlay keys past which a full reload is requested ahead of
+   * schedule so the overlay is folded back into the snapshot.
+   */
+  static final int MAX_OVERLAY_KEYS = 10000;
+
+  private static final Pattern marks = Pattern.compile("\\p{M}+");
+
+  private static final Pattern nonAlnum = Pattern.compile("[^a-z0-9]+");
+
+  private static final Location[] locations = Location.values();
+
+  private static final Field<?>[] fields = new Field<?>[] {
+    MEMBER.MID, MEMBER.EMP_ID, MEMBER.LOCATION, MEMBER.NAME_FIRST, MEMBER.NAME_LAST, MEMBER.DISPLAY_NAME
+  };
+
+  /**
+   * Normalize a name or name prefix for indexing and lookup.
+   *
+   * @param s the name
+   * @return the lower case, accent free name having only letters, digits and
+   *         single spaces which is empty for a null name
+   */
+  static String normalize(final String s) {
+    if(isNull(s)) return "";
+    final String unaccented = marks.matcher(Normalizer.normalize(s, Normalizer.Form.NFD)).replaceAll("");
+    return nonAlnum.matcher(unaccented.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+  }
+
+  /**
+   * @return the member display name falling back to the member's full name
+   */
+  static String displayName(final String first, final String last, final String display) {
+    return isBlank(display) ? fullName(first, last) : display;
+  }
+
+  /**
+   * @return the distinct, non-empty normalized name keys of a member
+   */
+  static Set<String> keys(final String first, final String last, final String display) {
+    final Set<String> keys = new LinkedHashSet<>(4);
+    for(final String key : new String[] { normalize(last), normalize(first), normalize(fullName(first, last)), normalize(display) }) {
+      if(!key.isEmpty()) keys.add(key);
+    }
+    return keys;
+  }
+
+  private static String fullName(final String first, final String last) {
+    return ((isNull(first) ? "" : first) + " " + (isNull(last) ? "" : last)).trim();
+  }
+
+  /**
+   * Growable byte blob of zero terminated entries.
+   */
+  static final class Blob {
+
+    byte[] bytes;
+    int size;
+
+    Blob(final int capacity) {
+      bytes = new byte[Math.max(16, capacity)];
+    }
+
+    /**
+     * @return the offset of the appended (zero terminated) entry
+     */
+    int append(final byte[] b) {
+      if(size + b.length + 1 > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + b.length + 1));
+      final int off = size;
+      System.arraycopy(b, 0, bytes, off, b.length);
+      size += b.length;
+      bytes[size++] = 0;
+      return off;
+    }
+
+    /**
+     * @return the length of the zero terminated entry at the given offset
+     */
+    int length(final int off) {
+      int end = off;
+      while(bytes[end] != 0) end++;
+      return end - off;
+    }
+
+    String string(final int off) {
+      return new String(bytes, off, length(off), StandardCharsets.UTF_8);
+    }
+
+    void trim() { bytes = Arrays.copyOf(bytes, size); }
+  }
+
+  /**
+   * The fully loaded member rows and name keys.
+   * <p>
+   * Only the {@link #dead} rows mask is mutated once built.
+   * NOT thread safe.
+   */
+  static final class Snapshot {
+
+    long[] midHi;
+    long[] midLo;
+    byte[] locs;
+    int[] textOffs;
+    final Blob text;
+    int numRows;
+
+    int[] keyOffs;
+    int[] keyRows;
+    final Blob keyText;
+    int numKeys;
+
+    /**
+     * The key ids in key order.
+     */
+    int[] sorted;
+
+    /**
+     * Slot values are row number + 1 where 0 means empty.
+     */
+    int[] midSlots;
+
+    /**
+     * The rows deleted or superseded since built.
+     */
+    final BitSet dead = new BitSet();
+
+    Snapshot(final int capacity) {
+      final int cap = Math.max(16, capacity);
+      midHi = new long[cap];
+      midLo = new long[cap];
+      locs = new byte[cap];
+      textOffs = new int[cap];
+      text = new Blob(cap * 24);
+      keyOffs = new int[cap * 4];
+      keyRows = new int[cap * 4];
+      keyText = new Blob(cap * 40);
+    }
+
+    void add(final UUID mid, final String empId, final Location loc, final String first, final String last, final String display) {
+      if(numRows == locs.length) {
+        final int cap = numRows * 2;
+        midHi = Arrays.copyOf(midHi, cap);
+        midLo = Arrays.copyOf(midLo, cap);
+        locs = Arrays.copyOf(locs, cap);
+        textOffs = Arrays.copyOf(textOffs, cap);
+      }
+      final int r = numRows++;
+      midHi[r] = mid.getMostSignificantBits();
+      midLo[r] = mid.getLeastSignificantBits();
+      locs[r] = (byte) loc.ordinal();
+      textOffs[r] = text.append(empId.getBytes(StandardCharsets.UTF_8));
+      text.append(displayName(first, last, display).getBytes(StandardCharsets.UTF_8));
+      for(final String key : keys(first, last, display)) {
+        if(numKeys == keyOffs.length) {
+          keyOffs = Arrays.copyOf(keyOffs, numKeys * 2);
+          keyRows = Arrays.copyOf(keyRows, numKeys * 2);
+        }
+        keyOffs[numKeys] = keyText.append(key.getBytes(StandardCharsets.US_ASCII));
+        keyRows[numKeys++] = r;
+      }
+    }
+
+    /**
+     * Trim the arrays to size, sort the keys and hash the member ids.
+     *
+     * @return this snapshot
+     */
+    Snapshot build() {
+      midHi = Arrays.copyOf(midHi, numRows);
+      midLo = Arrays.copyOf(midLo, numRows);
+      locs = Arrays.copyOf(locs, numRows);
+      textOffs = Arrays.copyOf(textOffs, numRows);
+      text.trim();
+      keyOffs = Arrays.copyOf(keyOffs, numKeys);
+      keyRows = Arrays.copyOf(keyRows, numKeys);
+      keyText.trim();
+
+      sorted = new int[numKeys];
+      for(int k = 0; k < numKeys; k++) sorted[k] = k;
+      mergeSort(sorted, new int[numKeys], 0, numKeys);
+
+      final int numSlots = Integer.highestOneBit(Math.max(16, numRows * 2) - 1) << 1;
+      midSlots = new int[numSlots];
+      for(int r = 0; r < numRows; r++) midSlots[midSlot(midHi[r], midLo[r])] = r + 1;
+      return this;
+    }
+
+    private void mergeSort(final int[] a, final int[] tmp, final int lo, final int hi) {
+      if(hi - lo < 2) return;
+      final int mid = (lo + hi) >>> 1;
+      mergeSort(a, tmp, lo, mid);
+      mergeSort(a, tmp, mid, hi);
+      if(compareKeys(a[mid - 1], a[mid]) <= 0) return;
+      System.arraycopy(a, lo, tmp, lo, hi - lo);
+      int i = lo, j = mid, k = lo;
+      while(i < mid && j < hi) a[k++] = compareKeys(tmp[j], tmp[i]) < 0 ? tmp[j++] : tmp[i++];
+      while(i < mid) a[k++] = tmp[i++];
+      while(j < hi) a[k++] = tmp[j++];
+    }
+
+    private int compareKeys(final int k1, final int k2) {
+      final byte[] b = keyText.bytes;
+      int i = keyOffs[k1], j = keyOffs[k2];
+      while(b[i] == b[j] && b[i] != 0) { i++; j++; }
+      return b[i] - b[j];
+    }
+
+    /**
+     * @return zero when the key starts with the prefix otherwise the sign of
+     *         the key relative to the prefix
+     */
+    private int comparePrefix(final int k, final byte[] prefix) {
+      final byte[] b = keyText.bytes;
+      int i = keyOffs[k];
+      for(final byte p : prefix) {
+        if(b[i] != p) return b[i] - p;
+        i++;
+      }
+      return 0;
+    }
+
+    int midSlot(final long hi, final long lo) {
+      final int mask = midSlots.length - 1;
+      for(int i = MrefIndex.mix(hi ^ lo) & mask; ; i = (i + 1) & mask) {
+        final int r = midSlots[i] - 1;
+        if(r < 0 || (midHi[r] == hi && midLo[r] == lo)) return i;
+      }
+    }
+
+    /**
+     * @return the live row of the given member id or -1 when not present
+     */
+    int row(final UUID mid) {
+      final int r = midSlots[midSlot(mid.getMostSignificantBits(), mid.getLeastSignificantBits())] - 1;
+      return r >= 0 && !dead.get(r) ? r : -1;
+    }
+
+    MemberSuggestion suggestion(final int r) {
+      final int off = textOffs[r];
+      final String empId = text.string(off);
+      final String displayName = text.string(off + text.length(off) + 1);
+      return new MemberSuggestion(new Mref(new UUID(midHi[r], midLo[r]), empId, locations[locs[r]]), displayName);
+    }
+
+    /**
+     * Collect the live members having a key starting with the given prefix in
+     * key order.
+     */
+    void suggest(final String prefix, final Location loc, final int limit, final Map<UUID, Entry<String, MemberSuggestion>> found) {
+      final byte[] p = prefix.getBytes(StandardCharsets.US_ASCII);
+      // binary search for the first key not less than the prefix
+      int lo = 0, hi = numKeys;
+      while(lo < hi) {
+        final int mid = (lo + hi) >>> 1;
+        if(comparePrefix(sorted[mid], p) < 0) lo = mid + 1; else hi = mid;
+      }
+      for(int i = lo; i < numKeys && found.size() < limit && comparePrefix(sorted[i], p) == 0; i++) {
+        final int r = keyRows[sorted[i]];
+        if(dead.get(r) || (isNotNull(loc) && locs[r] != loc.ordinal())) continue;
+        final MemberSuggestion ms = suggestion(r);
+        found.putIfAbsent(ms.mref.getMid(), new SimpleImmutableEntry<>(keyText.string(keyOffs[sorted[i]]), ms));
+      }
+    }
+  }
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private Snapshot snapshot = new Snapshot(0).build();
+
+  /**
+   * The members changed since the snapshot was built keyed by name key + NUL + member id.
+   */
+  private final TreeMap<String, MemberSuggestion> overlay = new TreeMap<>();
+
+  /**
+   * The overlay keys by member id.
+   */
+  private final Map<UUID, List<String>> overlayKeys = new HashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param ds the (primary) data source
+   * @param refreshIntervalInSeconds the number of seconds between incremental
+   *                                 refreshes where zero or less means the
+   *                                 index is OFF
+   * @param reloadIntervalInMinutes the number of minutes between full reloads
+   */
+  public MemberSuggestIndex(final DataSource ds, final int refreshIntervalInSeconds, final int reloadIntervalInMinutes) {
+    super("member-suggest-index", ds, refreshIntervalInSeconds, reloadIntervalInMinutes);
+  }
+
+  /**
+   * Suggest members whose last, first, full or display name starts with the
+   * given prefix ordered by the matched name.
+   *
+   * @param prefix the name prefix
+   * @param location optional location to which suggestions are limited
+   * @param limit the max number of suggestions
+   * @return the suggestions or null when the index is not loaded
+   */
+  public List<MemberSuggestion> suggest(final String prefix, final Location location, final int limit) {
+    if(!isLoaded()) return null;
+    final String np = normalize(prefix);
+    final int max = Math.min(Math.max(limit, 0), MAX_LIMIT);
+    if(np.isEmpty() || max == 0) return Collections.emptyList();
+    final Map<UUID, Entry<String, MemberSuggestion>> fromSnapshot = new LinkedHashMap<>();
+    final Map<UUID, Entry<String, MemberSuggestion>> fromOverlay = new LinkedHashMap<>();
+    lock.readLock().lock();
+    try {
+      snapshot.suggest(np, location, max, fromSnapshot);
+      for(final Entry<String, MemberSuggestion> e : overlay.subMap(np, true, np + Character.MAX_VALUE, false).entrySet()) {
+        if(fromOverlay.size() >= max) break;
+        final MemberSuggestion ms = e.getValue();
+        if(isNotNull(location) && ms.mref.getLocation() != location) continue;
+        fromOverlay.putIfAbsent(ms.mref.getMid(), new SimpleImmutableEntry<>(e.getKey().substring(0, e.getKey().indexOf('\0')), ms));
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    if(fromOverlay.isEmpty()) return values(fromSnapshot.values());
+    // merge in key order
+    final List<Entry<String, MemberSuggestion>> merged = new ArrayList<>(fromSnapshot.values());
+    merged.addAll(fromOverlay.values());
+    merged.sort(Entry.comparingByKey());
+    final Map<UUID, Entry<String, MemberSuggestion>> distinct = new LinkedHashMap<>();
+    for(final Entry<String, MemberSuggestion> e : merged) {
+      if(distinct.size() >= max) break;
+      distinct.putIfAbsent(e.getValue().mref.getMid(), e);
+    }
+    return values(distinct.values());
+  }
+
+  private static List<MemberSuggestion> values(final Iterable<Entry<String, MemberSuggestion>> entries) {
+    final List<MemberSuggestion> list = new ArrayList<>();
+    for(final Entry<String, MemberSuggestion> e : entries) list.add(e.getValue());
+    return list;
+  }
+
+  /**
+   * Index a newly added or updated member.
+   *
+   * @param mid the member id
+   * @param empId the member emp id
+   * @param location the member location
+   * @param first the member first name
+   * @param last the member last name
+   * @param display the optional member display name
+   */
+  public void put(final UUID mid, final String empId, final Location location, final String first, final String last, final String display) {
+    if(isNull(mid)) return;
+    if(isNull(empId) || isNull(location)) {
+      // not indexable
+      remove(mid);
+      return;
+    }
+    final MemberSuggestion ms = new MemberSuggestion(new Mref(mid, empId, location), displayName(first, last, display));
+    final List<String> keys = new ArrayList<>(4);
+    for(final String key : keys(first, last, display)) keys.add(key + '\0' + mid);
+    lock.writeLock().lock();
+    try {
+      unindex(mid);
+      for(final String key : keys) overlay.put(key, ms);
+      overlayKeys.put(mid, keys);
+      if(overlay.size() > MAX_OVERLAY_KEYS) requestReload();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Un-index a deleted member.
+   *
+   * @param mid the member id
+   */
+  public void remove(final UUID mid) {
+    if(isNull(mid)) return;
+    removed(mid);
+    lock.writeLock().lock();
+    try {
+      unindex(mid);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Must be called under the write lock.
+   */
+  private void unindex(final UUID mid) {
+    final int r = snapshot.row(mid);
+    if(r >= 0) snapshot.dead.set(r);
+    final List<String> keys = overlayKeys.remove(mid);
+    if(isNotNull(keys)) keys.forEach(overlay::remove);
+  }
+
+  @Override
+  protected Field<?>[] fields() { return fields; }
+
+  @Override
+  protected Snapshot newState(final int expectedSize) { return new Snapshot(expectedSize); }
+
+  @Override
+  protected Snapshot add(final Snapshot state, final Record rec) {
+    state.add(rec.get(MEMBER.MID), rec.get(MEMBER.EMP_ID), rec.get(MEMBER.LOCATION),
+      rec.get(MEMBER.NAME_FIRST), rec.get(MEMBER.NAME_LAST), rec.get(MEMBER.DISPLAY_NAME));
+    return state;
+  }
+
+  @Override
+  protected Snapshot complete(final Snapshot state) { return state.build(); }
+
+  @Override
+  protected int install(final Snapshot state, final List<UUID> removed) {
+    lock.writeLock().lock();
+    try {
+      for(final UUID mid : removed) {
+        final int r = state.row(mid);
+        if(r >= 0) state.dead.set(r);
+      }
+      snapshot = state;
+      // members changed mid load are picked up again by the next refresh
+      overlay.clear();
+      overlayKeys.clear();
+      return state.numRows - state.dead.cardinality();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  protected void apply(final Record rec) {
+    put(rec.get(MEMBER.MID), rec.get(MEMBER.EMP_ID), rec.get(MEMBER.LOCATION),
+      rec.get(MEMBER.NAME_FIRST), rec.get(MEMBER.NAME_LAST), rec.get(MEMBER.DISPLAY_NAME));
+  }
+}
@@ -0,0 +1,296 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.core.Util.isNotNull;
+import static com.tll.core.Util.isNull;
+import static com.tll.mcorpus.db.Tables.MEMBER;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.jooq.Cursor;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ratpack.service.Service;
+import ratpack.service.StartEvent;
+import ratpack.service.StopEvent;
+
+/**
+ * Base class for in-memory indexes over the member table.
+ * <p>
+ * The index is fully loaded at startup then kept current by:
+ * <ul>
+ * <li>applying mutations made through this server node immediately (by way of
+ *     the mcorpus repo)
+ * <li>periodically polling for members created or modified (by
+ *     <code>coalesce(modified, created)</code> watermark) on other nodes
+ * <li>periodically reloading in full which drops members deleted on other
+ *     nodes
+ * </ul>
+ * Lookups made before the initial load completes are expected to fall through
+ * to the db.
+ *
+ * @param <T> the index state type built by a full load
+ *
+ * @author jpk
+ */
+public abstract class PolledMemberIndex<T> implements Service {
+
+  /**
+   * The number of seconds the refresh watermark is wound back to pick up
+   * members whose (transaction start) timestamp precedes a later commit.
+   */
+  static final long WATERMARK_OVERLAP_SECONDS = 60L;
+
+  /**
+   * The number of member rows read per db round trip when loading in full.
+   */
+  static final int LOAD_FETCH_SIZE = 10000;
+
+  /**
+   * @return the member last changed timestamp field.
+   */
+  static Field<OffsetDateTime> lastChanged() {
+    return DSL.coalesce(MEMBER.MODIFIED, MEMBER.CREATED);
+  }
+
+  protected final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final String name;
+  private final DSLContext dsl;
+  private final int refreshIntervalInSeconds;
+  private final int reloadIntervalInMinutes;
+
+  /**
+   * The member ids removed while a full load is in flight which are re-applied
+   * to the newly loaded index state.
+   */
+  private List<UUID> removedWhileLoading;
+
+  private volatile boolean loaded;
+
+  /**
+   * Set by sub-classes to have the next tick reload in full ahead of schedule.
+   */
+  private volatile boolean reloadRequested;
+
+  private OffsetDateTime watermark;
+  private long lastLoad;
+
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * Constructor.
+   *
+   * @param name the index name (for logging and thread naming)
+   * @param ds the (primary) data source
+   * @param refreshIntervalInSeconds the number of seconds between incremental
+   *                                 refreshes where zero or less means the
+   *                                 index is OFF
+   * @param reloadIntervalInMinutes the number of minutes between full reloads
+   */
+  protected PolledMemberIndex(final String name, final DataSource ds, final int refreshIntervalInSeconds, final int reloadIntervalInMinutes) {
+    this.name = name;
+    this.dsl = DSL.using(ds, SQLDialect.POSTGRES);
+    this.refreshIntervalInSeconds = refreshIntervalInSeconds;
+    this.reloadIntervalInMinutes = reloadIntervalInMinutes;
+    log.info("{} is {} (refresh: {}s, reload: {}m).",
+      name, isEnabled() ? "ON" : "OFF", refreshIntervalInSeconds, reloadIntervalInMinutes);
+  }
+
+  /**
+   * @return true when the index is configured to be loaded.
+   */
+  public final boolean isEnabled() { return refreshIntervalInSeconds > 0; }
+
+  /**
+   * @return true once the initial full load has completed.
+   */
+  public final boolean isLoaded() { return loaded; }
+
+  /**
+   * @return the member fields the index is built from.
+   */
+  protected abstract Field<?>[] fields();
+
+  /**
+   * @param expectedSize the number of members expected to be loaded
+   * @return new and empty index state
+   */
+  protected abstract T newState(int expectedSize);
+
+  /**
+   * Add a loaded member to the index state being built.
+   *
+   * @param state the index state being built
+   * @param rec the member record holding (at least) the index {@link #fields()}
+   * @return the index state to use from here on (which may have been replaced)
+   */
+  protected abstract T add(T state, Record rec);
+
+  /**
+   * Finish off a fully loaded index state before it is installed.
+   * <p>
+   * Called outside of any lock.
+   *
+   * @param state the loaded index state
+   * @return the index state to install
+   */
+  protected T complete(final T state) { return state; }
+
+  /**
+   * Replace the current index state with a fully loaded one.
+   *
+   * @param state the newly loaded index state
+   * @param removed the member ids removed while loading which are to be
+   *                removed from the new state
+   * @return the number of indexed members
+   */
+  protected abstract int install(T state, List<UUID> removed);
+
+  /**
+   * Apply a created or modified member to the current index state.
+   *
+   * @param rec the member record holding (at least) the index {@link #fields()}
+   */
+  protected abstract void apply(Record rec);
+
+  /**
+   * To be called by sub-classes <em>before</em> removing a member from the
+   * current index state (and outside of any sub-class lock) so the removal
+   * survives an in-flight full load.
+   *
+   * @param mid the removed member id
+   */
+  protected final void removed(final UUID mid) {
+    synchronized(this) {
+      if(isNotNull(removedWhileLoading)) removedWhileLoading.add(mid);
+    }
+  }
+
+  /**
+   * Have the next scheduled tick reload the index in full rather than refresh
+   * regardless of when it was last loaded.
+   */
+  protected final void requestReload() { reloadRequested = true; }
+
+  /**
+   * @return true when a full reload has been requested ahead of schedule.
+   */
+  final boolean isReloadRequested() { return reloadRequested; }
+
+  /**
+   * (Re-)load all members from the db replacing the current index upon success.
+   */
+  final void load() {
+    final long start = System.currentTimeMillis();
+    reloadRequested = false;
+    synchronized(this) {
+      removedWhileLoading = new ArrayList<>();
+    }
+    try {
+      final int count = dsl.fetchCount(MEMBER);
+      final List<T> loading = new ArrayList<>(1);
+      loading.add(newState(count + count / 4));
+      final OffsetDateTime[] maxts = new OffsetDateTime[1];
+      final Field<?>[] fields = fields();
+      final Field<?>[] select = withLastChanged(fields);
+      // stream in a transaction so the pg driver honors the fetch size
+      dsl.transaction(cfg -> {
+        try(final Cursor<Record> cursor = DSL.using(cfg)
+          .select(select)
+          .from(MEMBER)
+          .fetchSize(LOAD_FETCH_SIZE)
+          .fetchLazy()
+        ) {
+          for(final Record rec : cursor) {
+            loading.set(0, add(loading.get(0), rec));
+            final OffsetDateTime ts = rec.get(fields.length, OffsetDateTime.class);
+            if(isNull(maxts[0]) || ts.isAfter(maxts[0])) maxts[0] = ts;
+          }
+        }
+      });
+      final T loaded = complete(loading.get(0));
+      final int size;
+      synchronized(this) {
+        size = install(loaded, removedWhileLoading);
+        removedWhileLoading = null;
+      }
+      watermark = isNull(maxts[0]) ? OffsetDateTime.now() : maxts[0];
+      lastLoad = System.currentTimeMillis();
+      this.loaded = true;
+      log.info("{} loaded with {} members in {} ms.", name, size, lastLoad - start);
+    } catch(Exception e) {
+      log.error("{} load error: {}.", name, e.getMessage());
+      synchronized(this) {
+        removedWhileLoading = null;
+      }
+    }
+  }
+
+  /**
+   * Index the members created or modified since the last seen change.
+   */
+  final void refresh() {
+    try {
+      final Field<?>[] fields = fields();
+      final List<Record> changed = dsl
+        .select(withLastChanged(fields))
+        .from(MEMBER)
+        .where(lastChanged().gt(watermark.minusSeconds(WATERMARK_OVERLAP_SECONDS)))
+        .fetch();
+      if(changed.isEmpty()) return;
+      for(final Record rec : changed) {
+        apply(rec);
+        final OffsetDateTime ts = rec.get(fields.length, OffsetDateTime.class);
+        if(ts.isAfter(watermark)) watermark = ts;
+      }
+      log.debug("{} refreshed with {} changed members.", name, changed.size());
+    } catch(Exception e) {
+      log.error("{} refresh error: {}.", name, e.getMessage());
+    }
+  }
+
+  private static Field<?>[] withLastChanged(final Field<?>[] fields) {
+    final Field<?>[] select = Arrays.copyOf(fields, fields.length + 1);
+    select[fields.length] = lastChanged();
+    return select;
+  }
+
+  private void tick() {
+    if(!loaded || reloadRequested || System.currentTimeMillis() - lastLoad >= TimeUnit.MINUTES.toMillis(reloadIntervalInMinutes)) {
+      load();
+    } else {
+      refresh();
+    }
+  }
+
+  @Override
+  public void onStart(StartEvent event) throws Exception {
+    if(!isEnabled()) return;
+    scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      final Thread t = new Thread(r, name);
+      t.setDaemon(true);
+      return t;
+    });
+    scheduler.scheduleWithFixedDelay(this::tick, 0L, refreshIntervalInSeconds, TimeUnit.SECONDS);
+  }
+
+  @Override
+  public void onStop(StopEvent event) throws Exception {
+    if(isNotNull(scheduler)) scheduler.shutdownNow();
+  }
+}
@@ -0,0 +1,260 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.core.Util.isNotNull;
+import static com.tll.core.Util.isNull;
+import static com.tll.core.Util.not;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.jooq.ConnectionProvider;
+import org.jooq.exception.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ratpack.service.Service;
+import ratpack.service.StartEvent;
+import ratpack.service.StopEvent;
+
+/**
+ * Routes fetch-only (read) repo calls to a read replica db when one is
+ * configured.
+ * <p>
+ * Reads go to the primary db instead when:
+ * <ul>
+ * <li>no replica is configured
+ * <li>the replica lags the primary by more than the max allowed staleness
+ * <li>the requesting mcuser mutated data within the pin window (read your
+ *     own writes)
+ * </ul>
+ * The requesting mcuser is bound to the current thread for the duration of a
+ * repo call by way of {@link #readAs(UUID, Callable)}.
+ * <p>
+ * The replica lag is checked on a background thread once started so an
+ * unreachable replica never holds up request threads.  Until the first check
+ * completes (and whenever a check fails) reads go to the primary db.
+ *
+ * @author jpk
+ */
+public class ReadRouter implements ConnectionProvider, Service, Closeable {
+
+  /**
+   * The replica lag query.
+   * <p>
+   * A replica that has replayed all it has received is considered caught up
+   * as the last replay timestamp does not advance while the primary is idle.
+   * A non-replica db reports no lag.
+   */
+  static final String SQL_REPLICA_LAG =
+    "select case " +
+      "when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+      "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+
+  /**
+   * The number of seconds between replica lag checks.
+   */
+  static final long LAG_CHECK_INTERVAL_SECONDS = 1L;
+
+  /**
+   * The max number of millis to wait on a replica db connection.
+   * <p>
+   * Kept short so an unreachable replica is detected (and reads fall back to
+   * the primary db) quickly.
+   */
+  public static final long REPLICA_CONNECTION_TIMEOUT_MILLIS = 2000L;
+
+  private static final ThreadLocal<UUID> requestor = new ThreadLocal<>();
+
+  private static final ThreadLocal<Boolean> primaryOnly = new ThreadLocal<>();
+
+  /**
+   * Call the given repo operation on behalf of the given mcuser.
+   *
+   * @param mcuserId the requesting mcuser id (may be null)
+   * @param op the repo operation
+   * @return the repo operation return value
+   * @throws Exception when the repo operation does
+   */
+  public static <T> T readAs(final UUID mcuserId, final Callable<T> op) throws Exception {
+    final UUID prior = requestor.get();
+    requestor.set(mcuserId);
+    try {
+      return op.call();
+    } finally {
+      if(isNull(prior)) requestor.remove(); else requestor.set(prior);
+    }
+  }
+
+  /**
+   * Call the given repo operation reading only from the primary db.
+   * <p>
+   * Use when the read result outlives the current request (i.e. is cached)
+   * and must therefore not be stale.
+   *
+   * @param op the repo operation
+   * @return the repo operation return value
+   */
+  public static <T> T fromPrimary(final Supplier<T> op) {
+    final Boolean prior = primaryOnly.get();
+    primaryOnly.set(Boolean.TRUE);
+    try {
+      return op.get();
+    } finally {
+      if(isNull(prior)) primaryOnly.remove(); else primaryOnly.set(prior);
+    }
+  }
+
+  private final Logger log = LoggerFactory.getLogger(ReadRouter.class);
+
+  private final DataSource primary;
+  private final DataSource replica;
+  private final double maxLagInSeconds;
+
+  private final Cache<UUID, Boolean> pinned;
+  private volatile boolean replicaCurrent;
+
+  private ScheduledExecutorService lagChecker;
+
+  /**
+   * Constructor.
+   *
+   * @param primary the primary db data source
+   * @param replica the optional read replica db data source
+   * @param maxLagInSeconds the max allowed replica staleness in seconds
+   * @param pinInSeconds the number of seconds reads are pinned to the primary
+   *                     for an mcuser after that mcuser mutates data
+   */
+  public ReadRouter(final DataSource primary, final DataSource replica, final int maxLagInSeconds, final int pinInSeconds) {
+    this.primary = primary;
+    this.replica = replica;
+    this.maxLagInSeconds = maxLagInSeconds;
+    this.pinned = Caffeine.newBuilder()
+      .expireAfterWrite(Duration.ofSeconds(pinInSeconds))
+      .build();
+    log.info("Read replica routing is {} (max lag: {}s, pin: {}s).",
+      isNull(replica) ? "OFF" : "ON", maxLagInSeconds, pinInSeconds);
+  }
+
+  /**
+   * @return true when a read replica is configured.
+   */
+  public boolean hasReplica() { return isNotNull(replica); }
+
+  /**
+   * Pin reads to the primary db for the current requesting mcuser.
+   * <p>
+   * To be called after the current requesting mcuser mutates data.
+   */
+  public void pin() {
+    pin(requestor.get());
+  }
+
+  /**
+   * Pin reads to the primary db for the given mcuser.
+   * <p>
+   * To be called after the given mcuser mutates data outside of a
+   * {@link #readAs(UUID, Callable)} scope.
+   *
+   * @param mcuserId the id of the mcuser that mutated data (may be null)
+   */
+  public void pin(final UUID mcuserId) {
+    if(hasReplica() && isNotNull(mcuserId)) pinned.put(mcuserId, Boolean.TRUE);
+  }
+
+  /**
+   * @return true when reads for the current thread shall go to the replica.
+   */
+  boolean readFromReplica() {
+    if(not(hasReplica()) || isNotNull(primaryOnly.get())) return false;
+    final UUID mcuserId = requestor.get();
+    if(isNotNull(mcuserId) && isNotNull(pinned.getIfPresent(mcuserId))) return false;
+    return replicaCurrent;
+  }
+
+  /**
+   * Check the replica lag and record the result for subsequent reads.
+   */
+  void updateReplicaCurrent() {
+    replicaCurrent = checkReplicaCurrent();
+  }
+
+  boolean checkReplicaCurrent() {
+    try(
+      final Connection cnx = replica.getConnection();
+      final Statement stmt = cnx.createStatement();
+      final ResultSet rs = stmt.executeQuery(SQL_REPLICA_LAG)
+    ) {
+      final double lag = rs.next() ? rs.getDouble(1) : 0d;
+      if(lag > maxLagInSeconds) {
+        log.warn("Read replica lag of {}s exceeds max.  Reading from primary.", lag);
+        return false;
+      }
+      return true;
+    } catch(SQLException e) {
+      log.error("Read replica lag check error: {}.  Reading from primary.", e.getMessage());
+      return false;
+    }
+  }
+
+  @Override
+  public Connection acquire() throws DataAccessException {
+    try {
+      return readFromReplica() ? replica.getConnection() : primary.getConnection();
+    } catch(SQLException e) {
+      throw new DataAccessException("Error acquiring read connection.", e);
+    }
+  }
+
+  @Override
+  public void release(final Connection connection) throws DataAccessException {
+    try {
+      connection.close();
+    } catch(SQLException e) {
+      throw new DataAccessException("Error releasing read connection.", e);
+    }
+  }
+
+  @Override
+  public void onStart(StartEvent event) throws Exception {
+    if(not(hasReplica())) return;
+    lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+      final Thread t = new Thread(r, "replica-lag-check");
+      t.setDaemon(true);
+      return t;
+    });
+    lagChecker.scheduleWithFixedDelay(this::updateReplicaCurrent, 0L, LAG_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+  }
+
+  @Override
+  public void onStop(StopEvent event) throws Exception {
+    if(isNotNull(lagChecker)) lagChecker.shutdownNow();
+    close();
+  }
+
+  @Override
+  public void close() {
+    if(replica instanceof Closeable) {
+      try {
+        ((Closeable) replica).close();
+        log.info("Read replica data source closed.");
+      } catch(Exception e) {
+        log.error("Read replica data source close error: {}", e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.core.Util.isNotNull;
+import static com.tll.core.Util.isNull;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.jooq.ExecuteContext;
+import org.jooq.impl.DefaultExecuteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ratpack.service.Service;
+import ratpack.service.StartEvent;
+
+/**
+ * jOOQ execute listener recording the latency and row counts of the mcorpus
+ * sql statements and logging those slower than a set threshold.
+ * <p>
+ * Statements are grouped by shape: the routine name for stored procedure
+ * calls (e.g. <code>get_jwt_status</code>, <code>insert_member</code>) and
+ * otherwise the statement verb and primary table (e.g.
+ * <code>select_member</code>, <code>update_mauth</code>).
+ * <p>
+ * Recorded metrics (once the metric registry is bound upon server start):
+ * <ul>
+ * <li><code>sql.{shape}</code> timer spanning statement start to end (which
+ *     for lazy cursors includes the streaming of the results)
+ * <li><code>sql.{shape}.rows</code> histogram of the rows fetched (or the
+ *     rows affected when none are fetched)
+ * <li><code>sql.{shape}.errors</code> counter
+ * <li><code>{pool}.pool.Wait</code> connection acquire timer (and the other
+ *     pool metrics) of the registered Hikari data sources
+ * </ul>
+ * Slow statements are logged with their (bind value free) sql to the
+ * <code>SlowSqlLog</code> logger whether metrics are on or not.
+ *
+ * @author jpk
+ */
+public class SqlTelemetry extends DefaultExecuteListener implements Service {
+  private static final long serialVersionUID = 1L;
+
+  static final Pattern SELECT = Pattern.compile("^\\s*(?:select|with)\\b.*?\\bfrom\\s+([\\w.\"]+)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+  static final Pattern INSERT = Pattern.compile("^\\s*insert\\s+into\\s+([\\w.\"]+)", Pattern.CASE_INSENSITIVE);
+  static final Pattern UPDATE = Pattern.compile("^\\s*update\\s+([\\w.\"]+)", Pattern.CASE_INSENSITIVE);
+  static final Pattern DELETE = Pattern.compile("^\\s*delete\\s+from\\s+([\\w.\"]+)", Pattern.CASE_INSENSITIVE);
+
+  private static final String DATA_START = "mcorpus.sql.start";
+  private static final String DATA_ROWS = "mcorpus.sql.rows";
+
+  /**
+   * Resolve the metric friendly shape of an sql statement.
+   *
+   * @param sql the rendered sql
+   * @return the statement verb and primary table (e.g. <code>select_member</code>)
+   *         or just the lower-cased first word when not a dml statement
+   */
+  static String shape(final String sql) {
+    if(isNull(sql)) return "unknown";
+    Matcher m;
+    if((m = SELECT.matcher(sql)).find()) return "select_" + table(m.group(1));
+    if((m = INSERT.matcher(sql)).find()) return "insert_" + table(m.group(1));
+    if((m = UPDATE.matcher(sql)).find()) return "update_" + table(m.group(1));
+    if((m = DELETE.matcher(sql)).find()) return "delete_" + table(m.group(1));
+    final String trimmed = sql.trim();
+    final int i = trimmed.indexOf(' ');
+    return (i < 0 ? trimmed : trimmed.substring(0, i)).toLowerCase(Locale.ROOT);
+  }
+
+  private static String table(final String qname) {
+    final String name = qname.replace("\"", "");
+    return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+  }
+
+  private final transient Logger log = LoggerFactory.getLogger(SqlTelemetry.class);
+  private final transient Logger slowLog = LoggerFactory.getLogger("SlowSqlLog");
+
+  private final long slowThresholdNanos;
+
+  private final transient List<DataSource> pools = new CopyOnWriteArrayList<>();
+
+  private transient volatile MetricRegistry metricRegistry;
+
+  /**
+   * Constructor.
+   *
+   * @param slowThresholdInMillis the statement duration at or above which the
+   *                              statement is logged as slow (zero or less
+   *                              means no slow statement logging)
+   */
+  public SqlTelemetry(final long slowThresholdInMillis) {
+    this.slowThresholdNanos = slowThresholdInMillis <= 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(slowThresholdInMillis);
+    log.info("SQL telemetry created with Slow-Threshold: {} ms.", slowThresholdInMillis);
+  }
+
+  /**
+   * Register a connection pool whose metrics (connection acquire time in
+   * particular) are to be recorded once metrics are on.
+   *
+   * @param ds the data source which is ignored unless it is a Hikari pool
+   */
+  public void addPool(final DataSource ds) {
+    if(ds instanceof HikariDataSource) pools.add(ds);
+  }
+
+  /**
+   * @param metricRegistry the metric registry to record to
+   */
+  void bind(final MetricRegistry metricRegistry) {
+    this.metricRegistry = metricRegistry;
+    for(final DataSource ds : pools) {
+      final HikariDataSource hds = (HikariDataSource) ds;
+      if(isNull(hds.getMetricRegistry())) hds.setMetricRegistry(metricRegistry);
+    }
+  }
+
+  @Override
+  public void onStart(StartEvent event) throws Exception {
+    event.getRegistry().maybeGet(MetricRegistry.class).ifPresent(metricRegistry -> {
+      bind(metricRegistry);
+      log.info("SQL metrics registered.");
+    });
+  }
+
+  @Override
+  public void start(ExecuteContext ctx) {
+    ctx.data(DATA_START, System.nanoTime());
+  }
+
+  @Override
+  public void recordEnd(ExecuteContext ctx) {
+    final Object rows = ctx.data(DATA_ROWS);
+    if(rows instanceof long[]) {
+      ((long[]) rows)[0]++;
+    } else {
+      ctx.data(DATA_ROWS, new long[] { 1L });
+    }
+  }
+
+  @Override
+  public void exception(ExecuteContext ctx) {
+    final MetricRegistry mr = metricRegistry;
+    if(isNotNull(mr)) mr.counter("sql." + shape(ctx) + ".errors").inc();
+  }
+
+  @Override
+  public void end(ExecuteContext ctx) {
+    final Object start = ctx.data(DATA_START);
+    if(!(start instanceof Long)) return;
+    final long elapsed = System.nanoTime() - (Long) start;
+    final MetricRegistry mr = metricRegistry;
+    if(isNull(mr) && elapsed < slowThresholdNanos) return;
+
+    final String shape = shape(ctx);
+    final Object fetched = ctx.data(DATA_ROWS);
+    final long rows = fetched instanceof long[] ? ((long[]) fetched)[0] : Math.max(ctx.rows(), 0);
+    if(isNotNull(mr)) {
+      mr.timer("sql." + shape).update(elapsed, TimeUnit.NANOSECONDS);
+      mr.histogram("sql." + shape + ".rows").update(rows);
+    }
+    if(elapsed >= slowThresholdNanos) {
+      slowLog.warn("{} took {} ms ({} rows): {}",
+        shape, TimeUnit.NANOSECONDS.toMillis(elapsed), rows, isNull(ctx.routine()) ? sql(ctx) : ctx.routine().getName());
+    }
+  }
+
+  private static String shape(final ExecuteContext ctx) {
+    return isNotNull(ctx.routine()) ? ctx.routine().getName() : shape(sql(ctx));
+  }
+
+  private static String sql(final ExecuteContext ctx) {
+    final String sql = isNotNull(ctx.sql()) ? ctx.sql() :
+      isNotNull(ctx.batchSQL()) && ctx.batchSQL().length > 0 ? ctx.batchSQL()[0] : null;
+    return isNull(sql) ? null : sql.replaceAll("\\s+", " ");
+  }
+}
@@ -6,6 +6,7 @@ import static com.tll.core.Util.isBlank;
 import static com.tll.core.Util.isNotNull;
 import static com.tll.core.Util.isNotNullOrEmpty;
 import static com.tll.core.Util.isNull;
+import static com.tll.core.Util.isNullOrEmpty;
 import static com.tll.core.Util.upper;
 import static com.tll.mcorpus.db.Tables.MAUTH;
 import static com.tll.mcorpus.db.Tables.MEMBER;
@@ -14,20 +15,34 @@ import static com.tll.mcorpus.transform.MemberXfrm.memberStatusFromString;
 import static com.tll.transform.TransformUtil.dateToLocalDate;
 import static com.tll.transform.TransformUtil.odtFromDate;
 import static java.util.Collections.singletonList;
+import static org.jooq.impl.DSL.falseCondition;
 import static org.jooq.impl.DSL.not;
+import static org.jooq.impl.DSL.trueCondition;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import com.tll.mcorpus.db.enums.Location;
 import com.tll.mcorpus.db.enums.MemberStatus;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
 import com.tll.mcorpus.dmodel.MemberSearch;
 import com.tll.mcorpus.gmodel.MemberFilter;
 import com.tll.mcorpus.gmodel.MemberFilter.DatePredicate;
@@ -41,6 +56,7 @@ import com.tll.transform.BaseTransformer;
 import org.jooq.Condition;
 import org.jooq.Field;
 import org.jooq.SortField;
+import org.jooq.impl.DSL;
 
 public class MemberFilterXfrm extends BaseTransformer<MemberFilter, MemberSearch> {
 
@@ -70,6 +86,7 @@ public class MemberFilterXfrm extends BaseTransformer<MemberFilter, MemberSearch
   private static StringPredicate stringPredicatefromGraphQLMap(final Map<String, Object> gqlMap) {
     String value = null;
     boolean ignoreCase = false;
+    boolean fuzzy = false;
     Operation opValue = Operation.EQUALS; // default op
     Operation opIsNull = null;
     if(gqlMap != null && !gqlMap.isEmpty()) {
@@ -89,9 +106,19 @@ public class MemberFilterXfrm extends BaseTransformer<MemberFilter, MemberSearch
             Boolean bic = (Boolean) entry.getValue();
             ignoreCase = isNotNull(bic) ? bic.booleanValue() : false;
             break;
+          case "fuzzy":
+            Boolean bfz = (Boolean) entry.getValue();
+            fuzzy = isNotNull(bfz) ? bfz.booleanValue() : false;
+            break;
         }
       }
     }
+    if(fuzzy && isNotNull(value)) {
+      // trigram similarity is case insensitive and wildcard free
+      opValue = Operation.SIMILAR;
+      value = sqlEqualsStatement(value);
+      ignoreCase = true;
+    }
     return new StringPredicate(
       isNotNull(opIsNull) ? opIsNull : opValue, // nullness check takes precedence
       isNotNull(opIsNull) ? null : value,
@@ -171,7 +198,14 @@ public class MemberFilterXfrm extends BaseTransformer<MemberFilter, MemberSearch
 
   private static SortField<?>[] generateJooqSortFields(final MemberFilter mf) {
     final List<OrderBy> orderBys = mf.getOrderByList();
-    return isNotNullOrEmpty(orderBys) ? generateJooqSortFields(orderBys) : defaultJooqSorting;
+    if(isNotNullOrEmpty(orderBys)) return generateJooqSortFields(orderBys);
+    // rank fuzzy matches by similarity (most similar first)
+    final Field<Float> rank = similarityRank(mf);
+    if(isNull(rank)) return defaultJooqSorting;
+    final SortField<?>[] ranked = new SortField<?>[defaultJooqSorting.length + 1];
+    ranked[0] = rank.desc();
+    System.arraycopy(defaultJooqSorting, 0, ranked, 1, defaultJooqSorting.length);
+    return ranked;
   }
 
   private static Condition datePredicateAsJooqCondition(final DatePredicate dp, final Field<java.time.LocalDate> f) {
@@ -290,10 +324,35 @@ public class MemberFilterXfrm extends BaseTransformer<MemberFilter, MemberSearch
       case LIKE:
         c = sp.isIgnoreCase() ? f.likeIgnoreCase(sqlLikeStatement(sp.getValue())) : f.like(sqlLikeStatement(sp.getValue()));
         break;
+      case SIMILAR:
+        // pg_trgm similarity operator (gin index backed)
+        c = DSL.condition("{0} % {1}", f, DSL.val(sp.getValue()));
+        break;
     }
     return c;
   }
 
+  /**
+   * @return the summed trigram similarity of the given member filter's fuzzy
+   *         string predicates or null when there are none.
+   */
+  private static Field<Float> similarityRank(final MemberFilter mf) {
+    final Map<Field<String>, StringPredicate> spmap = new LinkedHashMap<>(6);
+    if(mf.hasEmpId()) spmap.put(MEMBER.EMP_ID, mf.getEmpId());
+    if(mf.hasNameFirst()) spmap.put(MEMBER.NAME_FIRST, mf.getNameFirst());
+    if(mf.hasNameMiddle()) spmap.put(MEMBER.NAME_MIDDLE, mf.getNameMiddle());
+    if(mf.hasNameLast()) spmap.put(MEMBER.NAME_LAST, mf.getNameLast());
+    if(mf.hasDisplayName()) spmap.put(MEMBER.DISPLAY_NAME, mf.getDisplayName());
+    if(mf.hasUsername()) spmap.put(MAUTH.USERNAME, mf.getUsername());
+    Field<Float> rank = null;
+    for(final Entry<Field<String>, StringPredicate> entry : spmap.entrySet()) {
+      if(entry.getValue().getOperation() != Operation.SIMILAR) continue;
+      final Field<Float> sim = DSL.field("similarity({0}, {1})", Float.class, entry.getKey(), DSL.val(entry.getValue().getValue()));
+      rank = isNull(rank) ? sim : rank.add(sim);
+    }
+    return rank;
+  }
+
   private static String sqlEqualsStatement(final String value) {
     return value.replaceAll("[\\*|%]", "");
   }
@@ -319,47 +378,262 @@ public class MemberFilterXfrm extends BaseTransformer<MemberFilter, MemberSearch
    * @return Array of JOOQ {@link SortField} objects.
    */
   private static SortField<?>[] generateJooqSortFields(final List<OrderBy> obl) {
-    final List<SortField<?>> jlist = new ArrayList<>(obl.size());
+    final List<SortField<?>> jlist = new ArrayList<>(obl.size() + 1);
     for(final OrderBy orderBy : obl) {
-      switch (orderBy.getToken()) {
-        case "created":
-          jlist.add(orderBy.asc() ? MEMBER.CREATED.asc() : MEMBER.CREATED.desc());
-          break;
-        case "modified":
-          jlist.add(orderBy.asc() ? MEMBER.MODIFIED.asc() : MEMBER.MODIFIED.desc());
-          break;
-        case "empId":
-          jlist.add(orderBy.asc() ? MEMBER.EMP_ID.asc() : MEMBER.EMP_ID.desc());
-          break;
-        case "location":
-          jlist.add(orderBy.asc() ? MEMBER.LOCATION.asc() : MEMBER.LOCATION.desc());
-          break;
-        case "nameFirst":
-          jlist.add(orderBy.asc() ? MEMBER.NAME_FIRST.asc() : MEMBER.NAME_FIRST.desc());
-          break;
-        case "nameMiddle":
-          jlist.add(orderBy.asc() ? MEMBER.NAME_MIDDLE.asc() : MEMBER.NAME_MIDDLE.desc());
-          break;
-        case "nameLast":
-          jlist.add(orderBy.asc() ? MEMBER.NAME_LAST.asc() : MEMBER.NAME_LAST.desc());
-          break;
-        case "displayName":
-          jlist.add(orderBy.asc() ? MEMBER.DISPLAY_NAME.asc() : MEMBER.DISPLAY_NAME.desc());
-          break;
-        case "status":
-          jlist.add(orderBy.asc() ? MEMBER.STATUS.asc() : MEMBER.STATUS.desc());
-          break;
-        case "dob":
-          jlist.add(orderBy.asc() ? MAUTH.DOB.asc() : MAUTH.DOB.desc());
-          break;
-        case "username":
-          jlist.add(orderBy.asc() ? MAUTH.USERNAME.asc() : MAUTH.USERNAME.desc());
-          break;
-      }
+      final Field<?> f = orderByFields.get(orderBy.getToken());
+      if(isNotNull(f)) jlist.add(orderBy.asc() ? f.asc() : f.desc());
     }
     return jlist.toArray(new SortField[jlist.size()]);
   }
 
+  /**
+   * @param mf the member filter
+   * @return the effective member search ordering: the recognized filter order
+   *         bys -OR- the default ordering when none are specified.
+   */
+  private static List<OrderBy> effectiveOrderBys(final MemberFilter mf) {
+    final List<OrderBy> obl = isNullOrEmpty(mf.getOrderByList()) ? Collections.emptyList() :
+      mf.getOrderByList().stream()
+        .filter(ob -> orderByFields.containsKey(ob.getToken()))
+        .distinct()
+        .collect(Collectors.toList());
+    return obl.isEmpty() ? defaultOrderBys : obl;
+  }
+
+  /**
+   * @return true when the given member filter's conditions or ordering
+   *         reference any mauth columns.
+   */
+  private static boolean referencesMauth(final MemberFilter mf) {
+    if(mf.hasDob() || mf.hasUsername()) return true;
+    if(isNotNullOrEmpty(mf.getOrderByList())) {
+      for(final OrderBy ob : mf.getOrderByList()) {
+        final Field<?> f = orderByFields.get(ob.getToken());
+        if(MAUTH.DOB.equals(f) || MAUTH.USERNAME.equals(f)) return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param mf the member filter
+   * @return the columns of the effective member search ordering of the given
+   *         member filter (which are needed to generate member cursors).
+   */
+  public static List<Field<?>> orderByColumns(final MemberFilter mf) {
+    return effectiveOrderBys(mf).stream().map(ob -> orderByFields.get(ob.getToken())).collect(Collectors.toList());
+  }
+
+  /**
+   * @return the keyset (seek) ordering for the given member filter which is the
+   *         effective ordering with the member id appended as a unique tie breaker.
+   */
+  private static List<OrderBy> keysetOrderBys(final MemberFilter mf) {
+    final List<OrderBy> obl = new ArrayList<>(effectiveOrderBys(mf));
+    obl.add(keysetTieBreaker);
+    return obl;
+  }
+
+  /**
+   * @return the ordering key value of the given token for the given member.
+   */
+  private static Object keyValue(final String token, final MemberAndMauth b) {
+    switch(token) {
+      case "created":
+        return b.dbMember.getCreated();
+      case "modified":
+        return b.dbMember.getModified();
+      case "empId":
+        return b.dbMember.getEmpId();
+      case "location":
+        return b.dbMember.getLocation();
+      case "nameFirst":
+        return b.dbMember.getNameFirst();
+      case "nameMiddle":
+        return b.dbMember.getNameMiddle();
+      case "nameLast":
+        return b.dbMember.getNameLast();
+      case "displayName":
+        return b.dbMember.getDisplayName();
+      case "status":
+        return b.dbMember.getStatus();
+      case "dob":
+        return b.dbMauth.getDob();
+      case "username":
+        return b.dbMauth.getUsername();
+      case "mid":
+        return b.dbMember.getMid();
+      default:
+        throw new IllegalArgumentException("Unhandled order by token: " + token);
+    }
+  }
+
+  private static String keyValueToString(final Object v) {
+    return v instanceof Enum ? ((Enum<?>) v).name() : v.toString();
+  }
+
+  private static Object keyValueFromString(final Field<?> f, final String s) {
+    final Class<?> type = f.getType();
+    if(type == OffsetDateTime.class) return OffsetDateTime.parse(s);
+    if(type == LocalDate.class) return LocalDate.parse(s);
+    if(type == UUID.class) return UUID.fromString(s);
+    if(type == Location.class) return Location.valueOf(s);
+    if(type == MemberStatus.class) return MemberStatus.valueOf(s);
+    return s;
+  }
+
+  private static String cursorKey(final OrderBy ob) {
+    return ob.getToken() + (ob.asc() ? ":a" : ":d");
+  }
+
+  /**
+   * Decode an opaque member cursor into its ordering key values.
+   *
+   * @param cursor the cursor
+   * @param obl the keyset ordering the cursor is expected to have been issued under
+   * @return the decoded key values in keyset order
+   * @throws IllegalArgumentException when the cursor is malformed or was
+   *         issued under a different ordering
+   */
+  private static Object[] decodeCursor(final String cursor, final List<OrderBy> obl) throws IllegalArgumentException {
+    final String[] parts;
+    try {
+      parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("&", -1);
+    } catch(IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid member cursor.");
+    }
+    if(parts.length != obl.size()) throw new IllegalArgumentException("Member cursor does not match the member search ordering.");
+    final Object[] vals = new Object[parts.length];
+    for(int i = 0; i < parts.length; i++) {
+      final OrderBy ob = obl.get(i);
+      final int eq = parts[i].indexOf('=');
+      final String key = eq < 0 ? parts[i] : parts[i].substring(0, eq);
+      if(!cursorKey(ob).equals(key)) throw new IllegalArgumentException("Member cursor does not match the member search ordering.");
+      try {
+        vals[i] = eq < 0 ? null : keyValueFromString(keysetField(ob), URLDecoder.decode(parts[i].substring(eq + 1), "UTF-8"));
+      } catch(Exception e) {
+        throw new IllegalArgumentException("Invalid member cursor.");
+      }
+    }
+    return vals;
+  }
+
+  private static Field<?> keysetField(final OrderBy ob) {
+    return keysetTieBreaker.equals(ob) ? MEMBER.MID : orderByFields.get(ob.getToken());
+  }
+
+  /**
+   * @return condition selecting rows strictly after the given key value
+   *         under postgres' default null ordering (nulls sort last when
+   *         ascending and first when descending).
+   */
+  @SuppressWarnings("unchecked")
+  private static Condition seekAfter(final Field<?> f, final boolean asc, final Object v) {
+    final Field<Object> fo = (Field<Object>) f;
+    if(isNull(v)) return asc ? falseCondition() : fo.isNotNull();
+    if(asc) return nullableOrderByFields.contains(f) ? fo.gt(v).or(fo.isNull()) : fo.gt(v);
+    return fo.lt(v);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Condition seekEqual(final Field<?> f, final Object v) {
+    final Field<Object> fo = (Field<Object>) f;
+    return isNull(v) ? fo.isNull() : fo.eq(v);
+  }
+
+  /**
+   * Generate the keyset (seek) predicate selecting the members that follow
+   * the given cursor under the given keyset ordering.
+   * <p>
+   * A redundant range bound on the leading order by column is added when
+   * possible so the predicate is index seekable.
+   */
+  @SuppressWarnings("unchecked")
+  private static Condition seekCondition(final List<OrderBy> obl, final Object[] vals) {
+    Condition seek = falseCondition();
+    Condition prefix = trueCondition();
+    for(int i = 0; i < obl.size(); i++) {
+      final OrderBy ob = obl.get(i);
+      final Field<?> f = keysetField(ob);
+      seek = seek.or(prefix.and(seekAfter(f, ob.asc(), vals[i])));
+      prefix = prefix.and(seekEqual(f, vals[i]));
+    }
+    final Field<?> lead = keysetField(obl.get(0));
+    if(isNotNull(vals[0]) && !nullableOrderByFields.contains(lead)) {
+      final Field<Object> flead = (Field<Object>) lead;
+      seek = (obl.get(0).asc() ? flead.ge(vals[0]) : flead.le(vals[0])).and(seek);
+    }
+    return seek;
+  }
+
+  /**
+   * Generate the opaque keyset pagination cursor for a member search result.
+   *
+   * @param mf the member filter under which the member was fetched
+   * @param b the fetched member
+   * @return newly created cursor encoding the member's ordering key values
+   */
+  public String cursorFor(final MemberFilter mf, final MemberAndMauth b) {
+    final List<OrderBy> obl = keysetOrderBys(mf);
+    final StringBuilder sb = new StringBuilder();
+    try {
+      for(final OrderBy ob : obl) {
+        if(sb.length() > 0) sb.append('&');
+        sb.append(cursorKey(ob));
+        final Object v = keyValue(ob.getToken(), b);
+        if(isNotNull(v)) sb.append('=').append(URLEncoder.encode(keyValueToString(v), "UTF-8"));
+      }
+    } catch(UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Transform member search GraphQL query arguments for a cursor paginated
+   * member search.
+   *
+   * @param gqlFilterMap the optional member filter GraphQL input map
+   * @param first the optional max number of members to fetch
+   * @param after the optional cursor of the last member of the prior page
+   * @return newly created never null {@link MemberFilter}
+   */
+  public MemberFilter fromGraphQLArgs(final Map<String, Object> gqlFilterMap, final Integer first, final String after) {
+    final MemberFilter mf = isNullOrEmpty(gqlFilterMap) ? new MemberFilter() : fromNotEmptyGraphQLMap(gqlFilterMap);
+    if(isNotNull(first) && first.intValue() > 0) mf.setLimit(first.intValue());
+    mf.setAfter(clean(after));
+    return mf;
+  }
+
+  /**
+   * Transform a member filter to a keyset (seek) paginated backend member search.
+   * <p>
+   * Rows preceding the filter's <code>after</code> cursor are excluded by way
+   * of a seek predicate on the ordering columns rather than an offset so
+   * fetching any page costs the same as fetching the first.
+   * <p>
+   * One more member than requested is fetched to determine if there is a next page.
+   *
+   * @param mf the member filter
+   * @return newly created {@link MemberSearch}
+   * @throws IllegalArgumentException when the filter's cursor is invalid
+   */
+  public MemberSearch toBackendForPage(final MemberFilter mf) throws IllegalArgumentException {
+    final List<OrderBy> obl = keysetOrderBys(mf);
+    final Condition[] filterConditions = asJooqCondition(mf);
+    final Condition[] conditions;
+    if(mf.hasAfter()) {
+      conditions = Arrays.copyOf(filterConditions, filterConditions.length + 1);
+      conditions[filterConditions.length] = seekCondition(obl, decodeCursor(mf.getAfter(), obl));
+    } else {
+      conditions = filterConditions;
+    }
+    final SortField<?>[] orderBys = generateJooqSortFields(effectiveOrderBys(mf));
+    final SortField<?>[] keysetOrderBys = Arrays.copyOf(orderBys, orderBys.length + 1);
+    keysetOrderBys[orderBys.length] = MEMBER.MID.asc();
+    return new MemberSearch(conditions, keysetOrderBys, 0, mf.getLimit() + 1, referencesMauth(mf), mf);
+  }
+
   /**
    * @return the default member search result ordering for Jooq.
    */
@@ -371,10 +645,34 @@ public class MemberFilterXfrm extends BaseTransformer<MemberFilter, MemberSearch
     return rval;
   }
 
+  private static final Map<String, Field<?>> orderByFields;
+
+  private static final Set<Field<?>> nullableOrderByFields;
+
+  private static final List<OrderBy> defaultOrderBys;
+
+  private static final OrderBy keysetTieBreaker;
+
   private static final SortField<?>[] defaultJooqSorting;
 
   static {
-    defaultJooqSorting = generateJooqSortFields(singletonList(new OrderBy("created", OrderBy.Dir.DESC)));
+    final Map<String, Field<?>> map = new HashMap<>(11);
+    map.put("created", MEMBER.CREATED);
+    map.put("modified", MEMBER.MODIFIED);
+    map.put("empId", MEMBER.EMP_ID);
+    map.put("location", MEMBER.LOCATION);
+    map.put("nameFirst", MEMBER.NAME_FIRST);
+    map.put("nameMiddle", MEMBER.NAME_MIDDLE);
+    map.put("nameLast", MEMBER.NAME_LAST);
+    map.put("displayName", MEMBER.DISPLAY_NAME);
+    map.put("status", MEMBER.STATUS);
+    map.put("dob", MAUTH.DOB);
+    map.put("username", MAUTH.USERNAME);
+    orderByFields = Collections.unmodifiableMap(map);
+    nullableOrderByFields = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(MEMBER.MODIFIED, MEMBER.DISPLAY_NAME)));
+    defaultOrderBys = singletonList(new OrderBy("created", OrderBy.Dir.DESC));
+    keysetTieBreaker = new OrderBy("mid", OrderBy.Dir.ASC);
+    defaultJooqSorting = generateJooqSortFields(defaultOrderBys);
   }
 
   @Override @SuppressWarnings("unchecked")
@@ -475,7 +773,9 @@ public class MemberFilterXfrm extends BaseTransformer<MemberFilter, MemberSearch
       asJooqCondition(e),
       generateJooqSortFields(e),
       e.getOffset(),
-      e.getLimit()
+      e.getLimit(),
+      referencesMauth(e),
+      e
     );
   }
 
@@ -1,30 +1,40 @@
 package com.tll.mcorpus.web;
 
 import static com.tll.core.Util.isBlank;
+import static com.tll.core.Util.isNotNull;
 import static com.tll.core.Util.isNull;
 import static com.tll.core.Util.not;
 import static com.tll.mcorpus.web.RequestUtil.getOrCreateRequestSnapshot;
-import static ratpack.jackson.Jackson.fromJson;
 import static ratpack.jackson.Jackson.json;
 
 import java.util.Collections;
-import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import com.google.common.reflect.TypeToken;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tll.gql.PersistedQueryCache;
 import com.tll.jwt.JWT;
 import com.tll.jwt.JWTHttpRequestStatus;
+import com.tll.repo.FetchResult;
 import com.tll.web.JWTUserGraphQLWebContext;
 import com.tll.web.RequestSnapshot;
 
+import org.dataloader.DataLoaderRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import graphql.ErrorType;
 import graphql.ExecutionInput;
+import graphql.ExecutionResult;
 import graphql.GraphQL;
 import graphql.GraphqlErrorBuilder;
 import graphql.execution.ExecutionId;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import ratpack.exec.Promise;
 import ratpack.handling.Context;
 import ratpack.handling.Handler;
 
@@ -35,39 +45,65 @@ import ratpack.handling.Handler;
  */
 public class GraphQLHandler implements Handler {
 
+  static final String CONTENT_TYPE_JSON = "application/json";
+
   private final Logger log = LoggerFactory.getLogger(GraphQLHandler.class);
 
   private final GraphQL graphQL;
 
+  private final Function<UUID, DataLoaderRegistry> dataLoaderRegistryProvider;
+
+  private final PersistedQueryCache persistedQueryCache;
+
   /**
    * Constructor.
    *
    * @param graphQL the app scoped {@link GraphQL} instance.
+   * @param dataLoaderRegistryProvider provides a new {@link DataLoaderRegistry}
+   *                                   for each graphql request given the
+   *                                   requesting mcuser id (may be null)
+   * @param persistedQueryCache optional persisted query cache which when null
+   *                            means automatic persisted queries are not supported
    */
-  public GraphQLHandler( final GraphQL graphQL) {
+  public GraphQLHandler(final GraphQL graphQL, final Function<UUID, DataLoaderRegistry> dataLoaderRegistryProvider, final PersistedQueryCache persistedQueryCache) {
     this.graphQL = graphQL;
+    this.dataLoaderRegistryProvider = dataLoaderRegistryProvider;
+    this.persistedQueryCache = persistedQueryCache;
   }
 
-  @SuppressWarnings("serial")
-  private static final TypeToken<Map<String, Object>> strObjMapTypeRef = new TypeToken<Map<String, Object>>() { };
-
   @Override
   public void handle(Context ctx) throws Exception {
-    ctx.parse(fromJson(strObjMapTypeRef)).then(qmap -> {
+    final JsonFactory jsonFactory = ctx.get(ObjectMapper.class).getFactory();
+    ctx.getRequest().getBody().map(body -> GraphQLJson.readRequest(jsonFactory, body.getInputStream())).then(gqlRequest -> {
 
       final RequestSnapshot rsnap = getOrCreateRequestSnapshot(ctx);
       final JWTHttpRequestStatus jwtRequestStatus = ctx.getRequest().get(JWTHttpRequestStatus.class);
 
       // grab the http request info
-      final String query = ((String) qmap.get("query"));
+      String query = gqlRequest.query;
       log.debug("Received gql query:\n\n{}\n", query);
 
-      @SuppressWarnings("unchecked")
-      final Map<String, Object> vmap = (Map<String, Object>) qmap.get("variables");
+      // resolve automatic persisted query (when supported)
+      if(isNotNull(persistedQueryCache)) {
+        final FetchResult<String> fr = persistedQueryCache.resolve(query, gqlRequest.extensions);
+        if(fr.hasErrorMsg()) {
+          log.info("graphql persisted query not resolved: {}", fr.getErrorMsg());
+          ctx.render(json(Collections.singletonMap("errors", Collections.singletonList(
+            GraphqlErrorBuilder.newError()
+              .message(fr.getErrorMsg())
+              .extensions(PersistedQueryCache.PERSISTED_QUERY_NOT_FOUND.equals(fr.getErrorMsg()) ?
+                Collections.singletonMap("code", PersistedQueryCache.PERSISTED_QUERY_NOT_FOUND_CODE) : null)
+              .build()
+              .toSpecification()
+          ))));
+          return;
+        }
+        query = fr.get();
+      }
 
       final JWTUserGraphQLWebContext gqlWebCtx = new JWTUserGraphQLWebContext(
         query,
-        vmap,
+        gqlRequest.variables,
         MCorpusJwtRequestProvider.fromRequestSnapshot(rsnap),
         jwtRequestStatus,
         ctx.get(JWT.class),
@@ -119,10 +155,21 @@ public class GraphQLHandler implements Handler {
                         .operationName(gqlWebCtx.getOpName())
                         .executionId(ExecutionId.from(gqlWebCtx.getExecutionId()))
                         .context(gqlWebCtx)
+                        .dataLoaderRegistry(dataLoaderRegistryProvider.apply(jwtRequestStatus.userId()))
                         .build();
-      graphQL.executeAsync(executionInput).thenAccept(executionResult -> {
+      // NOTE: data fetchers may complete off of the ratpack compute thread
+      //       so we resume on the current execution before rendering
+      Promise.<ExecutionResult>async(down -> down.accept(graphQL.executeAsync(executionInput))).then(executionResult -> {
         if (executionResult.getErrors().isEmpty()) {
-          ctx.render(json(executionResult.toSpecification()));
+          // stream the result straight into a pooled response buffer
+          final ByteBuf buf = ctx.get(ByteBufAllocator.class).buffer();
+          try {
+            GraphQLJson.writeResult(jsonFactory, executionResult, new ByteBufOutputStream(buf));
+          } catch(Exception e) {
+            buf.release();
+            throw e;
+          }
+          ctx.getResponse().contentType(CONTENT_TYPE_JSON).send(buf);
           log.info("graphql request {} handled successfully.", gqlWebCtx.getExecutionId());
         } else {
           log.error("graphql request {} execution error(s):\n\n{}\n", gqlWebCtx.getExecutionId(), executionResult.getErrors());
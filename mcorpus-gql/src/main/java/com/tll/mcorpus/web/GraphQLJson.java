@@ -0,0 +1,165 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.core.Util.isNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+
+/**
+ * Streaming (token level) json reading of GraphQL http requests and writing of
+ * GraphQL execution results.
+ * <p>
+ * Requests are read straight into a {@link GraphQLRequest} without first
+ * binding the whole request body to a generic map.
+ * <p>
+ * Results are walked and written straight to the given output (i.e. a pooled
+ * Netty buffer) without first building the specification map of the result
+ * and without per value serializer lookups.  The generator (internal) buffers
+ * are recycled by the {@link JsonFactory}.
+ *
+ * @author jpk
+ */
+final class GraphQLJson {
+
+  /**
+   * A GraphQL http request.
+   */
+  static final class GraphQLRequest {
+    final String query;
+    final Map<String, Object> variables;
+    final Map<String, Object> extensions;
+
+    GraphQLRequest(String query, Map<String, Object> variables, Map<String, Object> extensions) {
+      this.query = query;
+      this.variables = variables;
+      this.extensions = extensions;
+    }
+  }
+
+  private static final TypeReference<Map<String, Object>> strObjMapTypeRef = new TypeReference<Map<String, Object>>() { };
+
+  /**
+   * Read a GraphQL http request.
+   * <p>
+   * Only the <code>query</code>, <code>variables</code> and
+   * <code>extensions</code> members are read and all others are skipped.
+   *
+   * @param jsonFactory the json factory (with an object codec for reading the
+   *                    variables and extensions)
+   * @param in the request body
+   * @return newly created {@link GraphQLRequest}
+   * @throws IOException upon a malformed request body
+   */
+  static GraphQLRequest readRequest(final JsonFactory jsonFactory, final InputStream in) throws IOException {
+    String query = null;
+    Map<String, Object> variables = null;
+    Map<String, Object> extensions = null;
+    try(final JsonParser p = jsonFactory.createParser(in)) {
+      if(p.nextToken() != JsonToken.START_OBJECT) throw new IOException("GraphQL request is not a json object.");
+      while(p.nextToken() == JsonToken.FIELD_NAME) {
+        final String name = p.getCurrentName();
+        final JsonToken t = p.nextToken();
+        if("query".equals(name)) {
+          query = t == JsonToken.VALUE_STRING ? p.getText() : null;
+          p.skipChildren();
+        } else if("variables".equals(name)) {
+          variables = t == JsonToken.START_OBJECT ? p.readValueAs(strObjMapTypeRef) : null;
+          if(t != JsonToken.START_OBJECT) p.skipChildren();
+        } else if("extensions".equals(name)) {
+          extensions = t == JsonToken.START_OBJECT ? p.readValueAs(strObjMapTypeRef) : null;
+          if(t != JsonToken.START_OBJECT) p.skipChildren();
+        } else {
+          p.skipChildren();
+        }
+      }
+    }
+    return new GraphQLRequest(query, variables, extensions);
+  }
+
+  /**
+   * Write an execution result as per the GraphQL specification.
+   *
+   * @param jsonFactory the json factory (with an object codec for any non json
+   *                    native values)
+   * @param er the execution result
+   * @param out the output
+   * @throws IOException upon a write error
+   */
+  static void writeResult(final JsonFactory jsonFactory, final ExecutionResult er, final OutputStream out) throws IOException {
+    try(final JsonGenerator g = jsonFactory.createGenerator(out)) {
+      g.writeStartObject();
+      final List<GraphQLError> errors = er.getErrors();
+      if(isNotNull(errors) && !errors.isEmpty()) {
+        g.writeArrayFieldStart("errors");
+        for(final GraphQLError err : errors) writeValue(g, err.toSpecification());
+        g.writeEndArray();
+      }
+      if(er.isDataPresent()) {
+        g.writeFieldName("data");
+        writeValue(g, er.getData());
+      }
+      if(isNotNull(er.getExtensions())) {
+        g.writeFieldName("extensions");
+        writeValue(g, er.getExtensions());
+      }
+      g.writeEndObject();
+    }
+  }
+
+  /**
+   * Write a (completed) GraphQL result value.
+   *
+   * @param g the json generator
+   * @param value the value
+   * @throws IOException upon a write error
+   */
+  static void writeValue(final JsonGenerator g, final Object value) throws IOException {
+    if(value == null) {
+      g.writeNull();
+    } else if(value instanceof String) {
+      g.writeString((String) value);
+    } else if(value instanceof Map) {
+      g.writeStartObject();
+      for(final Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+        g.writeFieldName(String.valueOf(e.getKey()));
+        writeValue(g, e.getValue());
+      }
+      g.writeEndObject();
+    } else if(value instanceof Iterable) {
+      g.writeStartArray();
+      for(final Object o : (Iterable<?>) value) writeValue(g, o);
+      g.writeEndArray();
+    } else if(value instanceof Boolean) {
+      g.writeBoolean((Boolean) value);
+    } else if(value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      g.writeNumber(((Number) value).intValue());
+    } else if(value instanceof Long) {
+      g.writeNumber((Long) value);
+    } else if(value instanceof Double || value instanceof Float) {
+      g.writeNumber(((Number) value).doubleValue());
+    } else if(value instanceof BigDecimal) {
+      g.writeNumber((BigDecimal) value);
+    } else if(value instanceof BigInteger) {
+      g.writeNumber((BigInteger) value);
+    } else {
+      // not a json native value (defer to the codec)
+      g.writeObject(value);
+    }
+  }
+
+  private GraphQLJson() {}
+}
@@ -0,0 +1,179 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.core.Util.isBlank;
+import static com.tll.core.Util.isNotNull;
+import static com.tll.core.Util.isNull;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.language.Document;
+import graphql.language.OperationDefinition;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.validation.ValidationError;
+import ratpack.service.Service;
+import ratpack.service.StartEvent;
+
+/**
+ * Records graphql execution metrics to the Dropwizard metrics registry upon
+ * server start when metrics are on (and does nothing otherwise).
+ * <p>
+ * Recorded metrics:
+ * <ul>
+ * <li><code>graphql.request</code>, <code>graphql.parse</code>,
+ *     <code>graphql.validate</code> and <code>graphql.execute</code> phase
+ *     timers
+ * <li><code>graphql.operation.{type}.{name}</code> timer and
+ *     <code>graphql.operation.{type}.{name}.fetches</code> histogram (the
+ *     number of non-trivial data fetches) per named operation
+ * <li><code>graphql.field.{Type}.{field}</code> timer per root field
+ * <li><code>graphql.fetch.{Type}.{field}</code> timer per non-trivial data
+ *     fetcher (i.e. excluding plain property access)
+ * <li><code>graphql.errors.{ErrorType}</code> counters
+ * </ul>
+ * Client chosen operation names are capped at {@link #MAX_OPERATION_NAMES}
+ * beyond which they are recorded as <code>other</code>.
+ *
+ * @author jpk
+ */
+public class GraphQLMetrics extends SimpleInstrumentation implements Service {
+
+  /**
+   * The max number of distinct operation names to record metrics for.
+   */
+  static final int MAX_OPERATION_NAMES = 100;
+
+  /**
+   * The per-execution state.
+   */
+  static class ExecutionMetrics implements InstrumentationState {
+    final AtomicInteger fetches = new AtomicInteger();
+  }
+
+  private final Logger log = LoggerFactory.getLogger(GraphQLMetrics.class);
+
+  private final Set<String> operationNames = ConcurrentHashMap.newKeySet();
+
+  private volatile MetricRegistry metricRegistry;
+
+  /**
+   * Constructor.
+   *
+   * @param metricRegistry the metric registry to record to (may be null in
+   *                       which case the registry is bound upon server start)
+   */
+  public GraphQLMetrics(final MetricRegistry metricRegistry) {
+    this.metricRegistry = metricRegistry;
+  }
+
+  @Override
+  public void onStart(StartEvent event) throws Exception {
+    event.getRegistry().maybeGet(MetricRegistry.class).ifPresent(metricRegistry -> {
+      this.metricRegistry = metricRegistry;
+      log.info("GraphQL metrics registered.");
+    });
+  }
+
+  @Override
+  public InstrumentationState createState() {
+    return new ExecutionMetrics();
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters) {
+    return time("graphql.request");
+  }
+
+  @Override
+  public InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters) {
+    return time("graphql.parse");
+  }
+
+  @Override
+  public InstrumentationContext<List<ValidationError>> beginValidation(InstrumentationValidationParameters parameters) {
+    return time("graphql.validate");
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters) {
+    final MetricRegistry mr = metricRegistry;
+    if(isNull(mr)) return super.beginExecuteOperation(parameters);
+    final String opname = operationName(parameters.getExecutionContext().getOperationDefinition());
+    final ExecutionMetrics em = parameters.getInstrumentationState();
+    final Timer.Context execute = mr.timer("graphql.execute").time();
+    final Timer.Context operation = mr.timer(opname).time();
+    return SimpleInstrumentationContext.whenCompleted((result, t) -> {
+      execute.stop();
+      operation.stop();
+      mr.histogram(opname + ".fetches").update(em.fetches.get());
+    });
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginField(InstrumentationFieldParameters parameters) {
+    final ExecutionStepInfo esi = parameters.getExecutionStepInfo();
+    return esi.getPath().getLevel() == 1 ?
+      time("graphql.field." + parentTypeName(esi) + "." + parameters.getField().getName()) :
+      super.beginField(parameters);
+  }
+
+  @Override
+  public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters) {
+    if(parameters.isTrivialDataFetcher()) return super.beginFieldFetch(parameters);
+    final ExecutionMetrics em = parameters.getInstrumentationState();
+    em.fetches.incrementAndGet();
+    return time("graphql.fetch." + parentTypeName(parameters.getExecutionStepInfo()) + "." + parameters.getField().getName());
+  }
+
+  @Override
+  public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult, InstrumentationExecutionParameters parameters) {
+    final MetricRegistry mr = metricRegistry;
+    if(isNotNull(mr)) {
+      for(final GraphQLError err : executionResult.getErrors()) {
+        mr.counter("graphql.errors." + err.getErrorType()).inc();
+      }
+    }
+    return super.instrumentExecutionResult(executionResult, parameters);
+  }
+
+  private <T> InstrumentationContext<T> time(final String name) {
+    final MetricRegistry mr = metricRegistry;
+    if(isNull(mr)) return SimpleInstrumentationContext.noOp();
+    final Timer.Context tctx = mr.timer(name).time();
+    return SimpleInstrumentationContext.whenCompleted((result, t) -> tctx.stop());
+  }
+
+  private static String parentTypeName(final ExecutionStepInfo esi) {
+    return GraphQLTypeUtil.unwrapAll(esi.getParent().getType()).getName();
+  }
+
+  private String operationName(final OperationDefinition opdef) {
+    final String type = opdef.getOperation().name().toLowerCase();
+    final String name = isBlank(opdef.getName()) ? "anonymous" : opdef.getName();
+    if(operationNames.contains(name) || (operationNames.size() < MAX_OPERATION_NAMES && operationNames.add(name))) {
+      return "graphql.operation." + type + "." + name;
+    }
+    return "graphql.operation." + type + ".other";
+  }
+}
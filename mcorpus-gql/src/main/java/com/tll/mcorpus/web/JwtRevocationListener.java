@@ -0,0 +1,169 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.core.Util.isNotNull;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.UUID;
+
+import com.tll.jwt.CachingJwtBackendHandler;
+import com.tll.jwt.IJwtBackendHandler;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ratpack.service.Service;
+import ratpack.service.StartEvent;
+import ratpack.service.StopEvent;
+
+/**
+ * Listens on the db <code>jwt_revoked</code> channel over a dedicated
+ * (non-pooled) db connection and evicts the revoked JWTs from this server
+ * node's JWT status cache.
+ * <p>
+ * The db functions that blacklist JWTs (<code>blacklist_jwt_ids_for</code> and
+ * <code>mcuser_logout</code>) publish the affected jwt ids on this channel so
+ * JWT revocations happening on one node are honored by all nodes.
+ * <p>
+ * The whole cache is evicted whenever the listen connection is (re-)established
+ * since revocations may have been missed while not listening.
+ * <p>
+ * The listen connection is validated whenever a poll comes back empty and is
+ * opened with TCP keep-alive and a socket timeout so that a silently dropped
+ * connection (e.g. db failover or an idle NAT/LB drop) is re-established rather
+ * than waited on forever.
+ * <p>
+ * This service does nothing when JWT status caching is off.
+ *
+ * @author jpk
+ */
+public class JwtRevocationListener implements Service {
+
+  /**
+   * The db notification channel name.
+   */
+  public static final String CHANNEL = "jwt_revoked";
+
+  /**
+   * The max time in millis to block waiting for notifications.
+   */
+  static final int POLL_TIMEOUT_MILLIS = 5000;
+
+  /**
+   * The time in millis to wait before re-connecting after a connection failure.
+   */
+  static final long RECONNECT_DELAY_MILLIS = 5000L;
+
+  /**
+   * The max time in seconds to wait on the listen connection validity check.
+   */
+  static final int VALIDATE_TIMEOUT_SECONDS = 5;
+
+  /**
+   * The listen connection socket read timeout in seconds
+   * (well above the poll timeout).
+   */
+  static final int SOCKET_TIMEOUT_SECONDS = 30;
+
+  /**
+   * @return the listen connection properties
+   */
+  static Properties listenConnectionProperties() {
+    final Properties props = new Properties();
+    props.setProperty("tcpKeepAlive", "true");
+    props.setProperty("socketTimeout", Integer.toString(SOCKET_TIMEOUT_SECONDS));
+    props.setProperty("connectTimeout", Integer.toString(VALIDATE_TIMEOUT_SECONDS));
+    return props;
+  }
+
+  private final Logger log = LoggerFactory.getLogger(JwtRevocationListener.class);
+
+  private final IJwtBackendHandler jwtBackendHandler;
+
+  private CachingJwtBackendHandler jwtStatusCache;
+
+  private final String dbUrl;
+
+  private volatile boolean running;
+
+  private Thread listenThread;
+
+  /**
+   * Constructor.
+   *
+   * @param jwtBackendHandler the app scoped jwt backend handler
+   * @param dbUrl the JDBC db connection URL which includes the db username and password
+   */
+  public JwtRevocationListener(final IJwtBackendHandler jwtBackendHandler, final String dbUrl) {
+    this.jwtBackendHandler = jwtBackendHandler;
+    this.dbUrl = dbUrl;
+  }
+
+  @Override
+  public void onStart(StartEvent event) throws Exception {
+    if(!(jwtBackendHandler instanceof CachingJwtBackendHandler)) return;
+    jwtStatusCache = (CachingJwtBackendHandler) jwtBackendHandler;
+    running = true;
+    listenThread = new Thread(this::listen, "jwt-revocation-listener");
+    listenThread.setDaemon(true);
+    listenThread.start();
+  }
+
+  @Override
+  public void onStop(StopEvent event) throws Exception {
+    running = false;
+    if(isNotNull(listenThread)) {
+      listenThread.interrupt();
+      listenThread.join(POLL_TIMEOUT_MILLIS);
+    }
+  }
+
+  private void listen() {
+    while(running) {
+      try(final Connection conn = DriverManager.getConnection(dbUrl, listenConnectionProperties())) {
+        final PGConnection pgconn = conn.unwrap(PGConnection.class);
+        try(final Statement stmt = conn.createStatement()) {
+          stmt.execute("LISTEN " + CHANNEL);
+        }
+        jwtStatusCache.evictAll();
+        log.info("Listening for JWT revocations on db channel '{}'.", CHANNEL);
+        while(running) {
+          final PGNotification[] notifications = pgconn.getNotifications(POLL_TIMEOUT_MILLIS);
+          if(isNotNull(notifications) && notifications.length > 0) {
+            for(final PGNotification n : notifications) {
+              evict(n.getParameter());
+            }
+          } else if(running && !conn.isValid(VALIDATE_TIMEOUT_SECONDS)) {
+            // a half-open connection never errors on poll
+            throw new SQLException("Listen connection no longer valid.");
+          }
+        }
+      } catch(SQLException e) {
+        if(!running) break;
+        log.error("JWT revocation listen connection error: {}.  Re-connecting in {} ms.", e.getMessage(), RECONNECT_DELAY_MILLIS);
+        try {
+          Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch(InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+    log.info("JWT revocation listener stopped.");
+  }
+
+  private void evict(final String payload) {
+    try {
+      final UUID jwtId = UUID.fromString(payload);
+      jwtStatusCache.evict(jwtId);
+      log.info("Revoked JWT {} evicted from status cache.", jwtId);
+    } catch(IllegalArgumentException e) {
+      log.error("Bad JWT revocation payload: '{}'.", payload);
+    }
+  }
+}
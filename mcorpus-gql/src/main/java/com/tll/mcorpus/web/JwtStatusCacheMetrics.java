@@ -0,0 +1,48 @@
+package com.tll.mcorpus.web;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.tll.jwt.CachingJwtBackendHandler;
+import com.tll.jwt.IJwtBackendHandler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ratpack.service.Service;
+import ratpack.service.StartEvent;
+
+/**
+ * Exports the JWT status cache statistics to the Dropwizard metrics registry
+ * upon server start when both metrics and JWT status caching are on.
+ *
+ * @author jpk
+ */
+public class JwtStatusCacheMetrics implements Service {
+
+  private final Logger log = LoggerFactory.getLogger(JwtStatusCacheMetrics.class);
+
+  private final IJwtBackendHandler jwtBackendHandler;
+
+  /**
+   * Constructor.
+   *
+   * @param jwtBackendHandler the app scoped jwt backend handler
+   */
+  public JwtStatusCacheMetrics(final IJwtBackendHandler jwtBackendHandler) {
+    this.jwtBackendHandler = jwtBackendHandler;
+  }
+
+  @Override
+  public void onStart(StartEvent event) throws Exception {
+    if(!(jwtBackendHandler instanceof CachingJwtBackendHandler)) return;
+    final CachingJwtBackendHandler cache = (CachingJwtBackendHandler) jwtBackendHandler;
+    event.getRegistry().maybeGet(MetricRegistry.class).ifPresent(metricRegistry -> {
+      metricRegistry.register("jwt-status-cache.size", (Gauge<Long>) cache::estimatedSize);
+      metricRegistry.register("jwt-status-cache.hits", (Gauge<Long>) () -> cache.stats().hitCount());
+      metricRegistry.register("jwt-status-cache.misses", (Gauge<Long>) () -> cache.stats().missCount());
+      metricRegistry.register("jwt-status-cache.hit-rate", (Gauge<Double>) () -> cache.stats().hitRate());
+      metricRegistry.register("jwt-status-cache.evictions", (Gauge<Long>) () -> cache.stats().evictionCount());
+      log.info("JWT status cache metrics registered.");
+    });
+  }
+}
@@ -1,6 +1,10 @@
 package com.tll.mcorpus.web;
 
 import static com.tll.core.Util.clean;
+import static com.tll.core.Util.isNull;
+import static com.tll.core.Util.not;
+import static com.tll.mcorpus.db.Tables.MAUTH;
+import static com.tll.mcorpus.db.Tables.MEMBER;
 import static com.tll.transform.TransformUtil.uuidFromToken;
 import static com.tll.transform.TransformUtil.uuidToToken;
 import static com.tll.repo.FetchResult.fetchrslt;
@@ -8,6 +12,18 @@ import static com.tll.repo.FetchResult.fetchrslt;
 
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.tll.gql.GraphQLDate;
@@ -19,8 +35,15 @@ import com.tll.mcorpus.gmodel.EmpIdAndLocationKey;
 import com.tll.mcorpus.gmodel.Member;
 import com.tll.mcorpus.gmodel.MemberAddress;
 import com.tll.mcorpus.gmodel.MemberAndAddresses;
+import com.tll.mcorpus.gmodel.MemberConnection;
+import com.tll.mcorpus.gmodel.MemberConnection.MemberEdge;
+import com.tll.mcorpus.gmodel.MemberConnection.PageInfo;
+import com.tll.mcorpus.gmodel.MemberFilter;
 import com.tll.mcorpus.gmodel.MemberAddress.MidAndAddressNameKey;
 import com.tll.mcorpus.gmodel.MemberIdAndPswdKey;
+import com.tll.mcorpus.gmodel.MemberImportResult;
+import com.tll.mcorpus.gmodel.MemberImportResult.MemberImportError;
+import com.tll.mcorpus.gmodel.MemberSuggestion;
 import com.tll.mcorpus.gmodel.Mlogin;
 import com.tll.mcorpus.gmodel.Mlogout;
 import com.tll.mcorpus.gmodel.Mref;
@@ -32,6 +55,8 @@ import com.tll.mcorpus.gmodel.mcuser.McuserIdAndPswdKey;
 import com.tll.mcorpus.gmodel.mcuser.McusernameAndPswdKey;
 import com.tll.mcorpus.repo.MCorpusRepo;
 import com.tll.mcorpus.repo.MCorpusUserRepo;
+import com.tll.mcorpus.repo.MemberProjection;
+import com.tll.mcorpus.repo.ReadRouter;
 import com.tll.mcorpus.transform.EmpIdAndLocationXfrm;
 import com.tll.mcorpus.transform.McuserHistoryXfrm;
 import com.tll.mcorpus.transform.McuserXfrm;
@@ -45,11 +70,22 @@ import com.tll.mcorpus.validate.EmpIdAndLocationValidator;
 import com.tll.mcorpus.validate.McuserValidator;
 import com.tll.mcorpus.validate.MemberAddressValidator;
 import com.tll.mcorpus.validate.MemberValidator;
+import com.tll.repo.FetchResult;
 import com.tll.web.JWTUserGraphQLWebContext;
 
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.jooq.Field;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import graphql.execution.DataFetcherResult;
+import graphql.language.OperationDefinition.Operation;
+import graphql.schema.AsyncDataFetcher;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.SchemaGenerator;
@@ -63,6 +99,71 @@ import graphql.schema.idl.TypeDefinitionRegistry;
  */
 public class MCorpusGraphQL {
 
+  /**
+   * Name of the per-request data loader of mrefs keyed by member id.
+   */
+  public static final String DL_MREF = "mref";
+
+  /**
+   * Name of the per-request data loader of member address lists keyed by member id.
+   */
+  public static final String DL_MADDRESSES = "maddresses";
+
+  /**
+   * The member and mauth column of each (db column backed) gql Member field.
+   */
+  private static final Map<String, Field<?>> memberFieldColumns;
+
+  static {
+    final Map<String, Field<?>> map = new HashMap<>(18);
+    map.put("mid", MEMBER.MID);
+    map.put("created", MEMBER.CREATED);
+    map.put("modified", MEMBER.MODIFIED);
+    map.put("empId", MEMBER.EMP_ID);
+    map.put("location", MEMBER.LOCATION);
+    map.put("nameFirst", MEMBER.NAME_FIRST);
+    map.put("nameMiddle", MEMBER.NAME_MIDDLE);
+    map.put("nameLast", MEMBER.NAME_LAST);
+    map.put("displayName", MEMBER.DISPLAY_NAME);
+    map.put("status", MEMBER.STATUS);
+    map.put("dob", MAUTH.DOB);
+    map.put("ssn", MAUTH.SSN);
+    map.put("personalEmail", MAUTH.EMAIL_PERSONAL);
+    map.put("workEmail", MAUTH.EMAIL_WORK);
+    map.put("mobilePhone", MAUTH.MOBILE_PHONE);
+    map.put("homePhone", MAUTH.HOME_PHONE);
+    map.put("workPhone", MAUTH.WORK_PHONE);
+    map.put("username", MAUTH.USERNAME);
+    memberFieldColumns = Collections.unmodifiableMap(map);
+  }
+
+  /**
+   * Resolve the member columns to select from the requested gql Member fields.
+   *
+   * @param selectionSet the data fetching field selection set
+   * @param glob the glob matching the gql Member fields in the selection set
+   * @param extra additional columns to select (e.g. the ordering columns)
+   * @return the member projection of the requested member fields
+   *         -OR- {@link MemberProjection#ALL} when any requested field is not
+   *         known to be column backed
+   */
+  static MemberProjection memberProjection(final DataFetchingFieldSelectionSet selectionSet, final String glob, final List<Field<?>> extra) {
+    final Set<Field<?>> columns = new HashSet<>(extra);
+    for(final SelectedField sf : selectionSet.getFields(glob)) {
+      switch(sf.getName()) {
+        case "addresses":
+        case "__typename":
+          break;
+        default:
+          final Field<?> column = memberFieldColumns.get(sf.getName());
+          if(isNull(column)) return MemberProjection.ALL;
+          columns.add(column);
+          break;
+      }
+    }
+    return MemberProjection.of(columns);
+  }
+
   private final Logger log = LoggerFactory.getLogger(MCorpusGraphQL.class);
 
   private final GraphQLRequestProcessor processor;
@@ -86,23 +187,65 @@ public class MCorpusGraphQL {
   private final MemberAddressXfrm xfrmMemberAddress;
   private final MemberFilterXfrm xfrmMemberFilter;
 
+  // bulk member add
+  private final MemberImporter memberImporter;
+
   // backend repos
   private final MCorpusUserRepo mcuserRepo;
   private final MCorpusRepo mcorpusRepo;
 
+  // optional executor for the blocking (backend) data fetchers
+  private final Executor fetchExecutor;
+
+  // optional read replica router (null when no replica)
+  private final ReadRouter readRouter;
+
   // GraphQL schema
   private GraphQLSchema graphQLSchema = null;
 
   /**
    * Constructor.
+   * <p>
+   * All data fetchers are run in-line (synchronously).
    *
-   * @param graphqlSchemaFilename the GraphQL schema file name (no path)
    * @param mcuserRepo required mcuser repo
    * @param mcorpusRepo required mcorpus repo
    */
   public MCorpusGraphQL(final MCorpusUserRepo mcuserRepo, final MCorpusRepo mcorpusRepo) {
+    this(mcuserRepo, mcorpusRepo, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param mcuserRepo required mcuser repo
+   * @param mcorpusRepo required mcorpus repo
+   * @param fetchExecutor optional executor on which to run the data fetchers
+   *                      that call the (blocking) backend repos.
+   *                      When null, all data fetchers are run in-line.
+   */
+  public MCorpusGraphQL(final MCorpusUserRepo mcuserRepo, final MCorpusRepo mcorpusRepo, final Executor fetchExecutor) {
+    this(mcuserRepo, mcorpusRepo, fetchExecutor, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param mcuserRepo required mcuser repo
+   * @param mcorpusRepo required mcorpus repo
+   * @param fetchExecutor optional executor on which to run the data fetchers
+   *                      that call the (blocking) backend repos.
+   *                      When null, all data fetchers are run in-line.
+   * @param readRouter optional read replica router the given repos were
+   *                   created with.  When present, backend calls are made on
+   *                   behalf of the requesting mcuser and mutations pin that
+   *                   mcuser's reads to the primary db.
+   */
+  public MCorpusGraphQL(final MCorpusUserRepo mcuserRepo, final MCorpusRepo mcorpusRepo, final Executor fetchExecutor, final ReadRouter readRouter) {
     this.mcuserRepo = mcuserRepo;
     this.mcorpusRepo = mcorpusRepo;
+    this.fetchExecutor = fetchExecutor;
+    this.readRouter = isNull(readRouter) || not(readRouter.hasReplica()) ? null : readRouter;
 
     this.processor = new GraphQLRequestProcessor();
 
@@ -122,6 +265,8 @@ public class MCorpusGraphQL {
     this.xfrmMidAndAddressName = new MidAndAddressNameXfrm();
     this.xfrmMemberAddress = new MemberAddressXfrm();
     this.xfrmMemberFilter = new MemberFilterXfrm();
+
+    this.memberImporter = new MemberImporter(mcorpusRepo);
   }
 
   /**
@@ -161,6 +306,9 @@ public class MCorpusGraphQL {
       final RuntimeWiring wiring = buildRuntimeWiring();
       graphQLSchema = schemaGenerator.makeExecutableSchema(typeRegistry, wiring);
 
+      // fail fast on a mis-declared query cost model
+      QueryCostInstrumentation.verifyCostDirectives(graphQLSchema);
+
       log.info("GraphQL mcorpus schema(s) loaded.");
     }
     catch (Exception e) {
@@ -169,6 +317,147 @@ public class MCorpusGraphQL {
     }
   }
 
+  /**
+   * Create a new {@link DataLoaderRegistry} holding the mcorpus batch loaders.
+   * <p>
+   * Data loaders cache loaded values so a new registry is expected to be
+   * created for each incoming GraphQL request.
+   *
+   * @return newly created {@link DataLoaderRegistry}
+   */
+  public DataLoaderRegistry newDataLoaderRegistry() {
+    return newDataLoaderRegistry(null);
+  }
+
+  /**
+   * Create a new {@link DataLoaderRegistry} holding the mcorpus batch loaders
+   * for a GraphQL request made by the given mcuser.
+   *
+   * @param mcuserId the requesting mcuser id (may be null)
+   * @return newly created {@link DataLoaderRegistry}
+   */
+  public DataLoaderRegistry newDataLoaderRegistry(final UUID mcuserId) {
+    final DataLoaderRegistry registry = new DataLoaderRegistry();
+    registry.register(DL_MREF, DataLoader.newDataLoader((List<UUID> mids) -> batchLoad(
+      mids,
+      () -> mcorpusRepo.fetchMRefsByMids(mids),
+      null,
+      mcuserId
+    )));
+    registry.register(DL_MADDRESSES, DataLoader.newDataLoader((List<UUID> mids) -> batchLoad(
+      mids,
+      () -> mcorpusRepo.fetchMemberAddressesByMids(mids),
+      Collections.<Maddress>emptyList(),
+      mcuserId
+    )));
+    return registry;
+  }
+
+  /**
+   * Run a backend batch fetch op on behalf of a data loader.
+   * <p>
+   * The batch fetch op is run on the fetch executor when one is configured.
+   *
+   * @param keys the data loader keys
+   * @param batchOp the backend batch fetch op
+   * @param dflt the value to load for keys absent in the batch op result
+   * @param mcuserId the requesting mcuser id (may be null)
+   * @return future of the loaded values ordered by the given keys
+   */
+  private <K, V> CompletionStage<List<V>> batchLoad(
+    final List<K> keys,
+    final Supplier<FetchResult<Map<K, V>>> batchOp,
+    final V dflt,
+    final UUID mcuserId
+  ) {
+    final Supplier<List<V>> loader = () -> {
+      final FetchResult<Map<K, V>> fr;
+      try {
+        fr = isNull(readRouter) ? batchOp.get() : ReadRouter.readAs(mcuserId, batchOp::get);
+      } catch(RuntimeException e) {
+        throw e;
+      } catch(Exception e) {
+        throw new RuntimeException(e);
+      }
+      if(not(fr.isSuccess())) throw new RuntimeException(fr.getErrorMsg());
+      return keys.stream().map(k -> fr.get().getOrDefault(k, dflt)).collect(Collectors.toList());
+    };
+    if(isNull(fetchExecutor)) {
+      final CompletableFuture<List<V>> cf = new CompletableFuture<>();
+      try {
+        cf.complete(loader.get());
+      } catch(Exception e) {
+        cf.completeExceptionally(e);
+      }
+      return cf;
+    }
+    return CompletableFuture.supplyAsync(loader, fetchExecutor);
+  }
+
+  /**
+   * Do a keyset (cursor) paginated member search.
+   *
+   * @param mfilter the member filter holding the page size and optional after cursor
+   * @param projection the member columns to select (including the ordering columns)
+   * @return fetch result holding the member connection (page)
+   */
+  private FetchResult<MemberConnection> fetchMembersConnection(final MemberFilter mfilter, final MemberProjection projection) {
+    final FetchResult<List<MemberAndMauth>> fr = mcorpusRepo.memberSearch(xfrmMemberFilter.toBackendForPage(mfilter), projection);
+    if(not(fr.isSuccess())) return fetchrslt(null, fr.getErrorMsg());
+    final List<MemberAndMauth> blist = fr.get();
+    final int pageSize = Math.min(blist.size(), mfilter.getLimit());
+    final List<MemberEdge> edges = new ArrayList<>(pageSize);
+    for(int i = 0; i < pageSize; i++) {
+      final MemberAndMauth b = blist.get(i);
+      edges.add(new MemberEdge(xfrmMemberFilter.cursorFor(mfilter, b), xfrmMember.fromBackend(b)));
+    }
+    return fetchrslt(new MemberConnection(edges, new PageInfo(
+      edges.isEmpty() ? null : edges.get(0).getCursor(),
+      edges.isEmpty() ? null : edges.get(pageSize - 1).getCursor(),
+      mfilter.hasAfter(),
+      blist.size() > pageSize
+    )), null);
+  }
+
+  /**
+   * Designate a data fetcher as backend bound (blocking).
+   * <p>
+   * When a fetch executor is configured, the given data fetcher is run on it
+   * and a future is handed back to graphql-java in its stead.
+   *
+   * When a read replica router is configured, the given data fetcher is run
+   * on behalf of the requesting mcuser and successful mutations pin that
+   * mcuser's subsequent reads to the primary db.
+   *
+   * @param df the blocking data fetcher
+   * @return either the given data fetcher -OR- an async wrapping of it
+   */
+  private <T> DataFetcher<?> blocking(final DataFetcher<T> df) {
+    final DataFetcher<T> routed = isNull(readRouter) ? df : env -> ReadRouter.readAs(requestorId(env), () -> {
+      final T t = df.get(env);
+      if(env.getOperationDefinition().getOperation() == Operation.MUTATION && isSuccess(t)) readRouter.pin();
+      return t;
+    });
+    return isNull(fetchExecutor) ? routed : AsyncDataFetcher.async(routed, fetchExecutor);
+  }
+
+  /**
+   * @return true when the given data fetcher result holds no errors
+   */
+  private static boolean isSuccess(final Object result) {
+    return not(result instanceof DataFetcherResult && ((DataFetcherResult<?>) result).hasErrors());
+  }
+
+  /**
+   * @return the id of the mcuser making the given GraphQL request
+   *         -OR- null when not known.
+   */
+  private static UUID requestorId(final DataFetchingEnvironment env) {
+    final Object ctx = env.getContext();
+    return ctx instanceof JWTUserGraphQLWebContext ?
+      ((JWTUserGraphQLWebContext) ctx).getJwtStatus().userId() : null;
+  }
+
   private RuntimeWiring buildRuntimeWiring() {
     return RuntimeWiring.newRuntimeWiring()
 
@@ -181,36 +470,37 @@ public class MCorpusGraphQL {
         // mcuser
 
         // mcuser status
-        .dataFetcher("mcstatus", env -> processor.process(
+        .dataFetcher("mcstatus", blocking(env -> processor.process(
           env,
           () -> ((JWTUserGraphQLWebContext) env.getContext()).jwtUserStatus())
-        )
+        ))
 
         // mcuser history
-        .dataFetcher("mchistory", env -> processor.fetch(
+        .dataFetcher("mchistory", blocking(env -> processor.fetch(
           env,
           () -> uuidFromToken(env.getArgument("uid")),
           uid -> mcuserRepo.mcuserHistory(uid),
           b -> xfrmMcuserHistory.fromBackend(b))
-        )
+        ))
 
         // fetch mcuser
-        .dataFetcher("fetchMcuser", env -> processor.fetch(
+        .dataFetcher("fetchMcuser", blocking(env -> processor.fetch(
           env,
           () -> uuidFromToken(env.getArgument("uid")),
           uid -> mcuserRepo.fetchMcuser(uid),
           b -> xfrmMcuser.fromBackend(b))
-        )
+        ))
 
         // mcorpus
 
-        .dataFetcher("mrefByMid", env -> processor.fetch(
+        .dataFetcher("mrefByMid", env -> processor.load(
           env,
           () -> uuidFromToken(env.getArgument("mid")),
-          mid -> mcorpusRepo.fetchMRefByMid(mid),
-          b -> xfrmMref.fromBackend(b))
+          DL_MREF,
+          "No mref found with provided mid.",
+          (com.tll.mcorpus.db.udt.pojos.Mref b) -> xfrmMref.fromBackend(b))
         )
-        .dataFetcher("mrefByEmpIdAndLoc", env -> processor.fetch(
+        .dataFetcher("mrefByEmpIdAndLoc", blocking(env -> processor.fetch(
           env,
           () -> new EmpIdAndLocationKey(
             clean(env.getArgument("empId")),
@@ -220,41 +510,61 @@ public class MCorpusGraphQL {
           key2 -> xfrmEmpIdAndLocation.toBackend(key2),
           key3 -> mcorpusRepo.fetchMRefByEmpIdAndLoc(key3.empId(), key3.location()),
           b -> xfrmMref.fromBackend(b))
-        )
-        .dataFetcher("mrefsByEmpId", env -> processor.fetch(
+        ))
+        .dataFetcher("mrefsByEmpId", blocking(env -> processor.fetch(
           env,
           () -> clean(env.getArgument("empId")),
           empId -> mcorpusRepo.fetchMRefsByEmpId(empId),
           blist -> blist.stream()
                       .map(b -> xfrmMref.fromBackend(b))
                       .collect(Collectors.toList()))
-        )
-        .dataFetcher("memberByMid", env -> {
+        ))
+        .dataFetcher("memberByMid", blocking(env -> {
+          // select only the requested member columns
+          final MemberProjection projection = memberProjection(env.getSelectionSet(), "*", Collections.emptyList());
           // deal with N+1 problem by determining if we are fetching related addresses or not
           if(env.getSelectionSet().contains("addresses")) {
             // member and address fields case
             return processor.fetch(
               env,
               () -> uuidFromToken(env.getArgument("mid")),
-              mid -> mcorpusRepo.fetchMemberAndAddresses(mid),
+              mid -> mcorpusRepo.fetchMemberAndAddresses(mid, projection),
               b -> xfrmMemberAndAddress.fromBackend(b));
           } else {
             // member only fields case
             return processor.fetch(
               env,
               () -> uuidFromToken(env.getArgument("mid")),
-              mid -> mcorpusRepo.fetchMember(mid),
+              mid -> mcorpusRepo.fetchMember(mid, projection),
               b -> xfrmMember.fromBackend(b));
           }
-        })
-        .dataFetcher("members", env -> processor.fetch(
+        }))
+        .dataFetcher("members", blocking(env -> processor.fetch(
           env,
           () -> xfrmMemberFilter.fromGraphQLMap(env.getArgument("filter")),
           null,
           mfilter -> xfrmMemberFilter.toBackend(mfilter),
-          msearch -> mcorpusRepo.memberSearch(msearch),
+          msearch -> mcorpusRepo.memberSearch(msearch, memberProjection(env.getSelectionSet(), "*", Collections.emptyList())),
           blist -> blist.stream().map(b -> xfrmMember.fromBackend(b)).collect(Collectors.toList()))
-        )
+        ))
+        .dataFetcher("membersConnection", blocking(env -> processor.fetch(
+          env,
+          () -> xfrmMemberFilter.fromGraphQLArgs(env.getArgument("filter"), env.getArgument("first"), env.getArgument("after")),
+          mfilter -> fetchMembersConnection(mfilter,
+            memberProjection(env.getSelectionSet(), "edges/node/*", MemberFilterXfrm.orderByColumns(mfilter))),
+          conn -> conn)
+        ))
+        .dataFetcher("memberSuggest", blocking(env -> processor.fetch(
+          env,
+          () -> clean(env.getArgument("prefix")),
+          prefix -> mcorpusRepo.memberSuggest(
+            prefix,
+            MemberXfrm.locationFromString(clean(env.getArgument("location"))),
+            isNull(env.getArgument("limit")) ? 10 : env.<Integer>getArgument("limit").intValue()),
+          blist -> blist.stream()
+                      .map(b -> new MemberSuggestion(xfrmMref.fromBackend(b.mref), b.displayName))
+                      .collect(Collectors.toList()))
+        ))
       )
 
       // Mutation
@@ -263,7 +573,7 @@ public class MCorpusGraphQL {
         // mcuser
 
         // mcuser login
-        .dataFetcher("mclogin", env -> processor.mutate(
+        .dataFetcher("mclogin", blocking(env -> processor.mutate(
           env,
           () -> new McusernameAndPswdKey(
             clean(env.getArgument("username")),
@@ -271,44 +581,44 @@ public class MCorpusGraphQL {
           ),
           key -> fetchrslt(((JWTUserGraphQLWebContext) env.getContext()).jwtUserLogin(key.getUsername(), key.getPswd())),
           b -> b)
-        )
+        ))
 
         // mcuser logout
-        .dataFetcher("mclogout", env -> processor.process(
+        .dataFetcher("mclogout", blocking(env -> processor.process(
           env,
           () -> ((JWTUserGraphQLWebContext) env.getContext()).jwtUserLogout())
-        )
+        ))
 
         // add mcuser
-        .dataFetcher("addMcuser", env -> processor.mutate(
+        .dataFetcher("addMcuser", blocking(env -> processor.mutate(
           env,
           () -> xfrmMcuser.fromGraphQLMapForAdd(env.getArgument("mcuser")),
           g -> vldtnMcuser.validateForAdd(g),
           (Mcuser gvldtd) -> xfrmMcuser.toBackend(gvldtd),
           b -> mcuserRepo.addMcuser(b),
           bpost -> xfrmMcuser.fromBackend(bpost))
-        )
+        ))
 
         // update mcuser
-        .dataFetcher("updateMcuser", env -> processor.mutate(
+        .dataFetcher("updateMcuser", blocking(env -> processor.mutate(
           env,
           () -> xfrmMcuser.fromGraphQLMapForUpdate(env.getArgument("mcuser")),
           g -> vldtnMcuser.validateForUpdate(g),
           (Mcuser gvldtd) -> xfrmMcuser.toBackend(gvldtd),
           b -> mcuserRepo.updateMcuser(b),
           bpost -> xfrmMcuser.fromBackend(bpost))
-        )
+        ))
 
         // delete mcuser
-        .dataFetcher("deleteMcuser", env -> processor.delete(
+        .dataFetcher("deleteMcuser", blocking(env -> processor.delete(
           env,
           () -> uuidFromToken(env.getArgument("uid")),
           key -> key,
           b -> mcuserRepo.deleteMcuser(b))
-        )
+        ))
 
         // mcpswd
-        .dataFetcher("mcpswd", env -> processor.mutate(
+        .dataFetcher("mcpswd", blocking(env -> processor.mutate(
           env,
           () -> new McuserIdAndPswdKey(
             uuidFromToken(env.getArgument("uid")),
@@ -316,20 +626,20 @@ public class MCorpusGraphQL {
           ),
           key -> fetchrslt(mcuserRepo.setPswd(key.getUid(), key.getPswd())),
           fr -> fr.get())
-        )
+        ))
 
         // invalidateJwtsFor
-        .dataFetcher("invalidateJwtsFor", env -> processor.mutate(
+        .dataFetcher("invalidateJwtsFor", blocking(env -> processor.mutate(
           env,
           () -> uuidFromToken(env.getArgument("uid")),
           key -> fetchrslt(((JWTUserGraphQLWebContext) env.getContext()).jwtInvalidateAllForUser(key)),
           b -> b)
-        )
+        ))
 
         // mcorpus
 
         // member login
-        .dataFetcher("mlogin", env -> processor.mutate(
+        .dataFetcher("mlogin", blocking(env -> processor.mutate(
           env,
           () -> new Mlogin(
             clean(env.getArgument("username")),
@@ -344,10 +654,10 @@ public class MCorpusGraphQL {
             mclogin.getRequestOrigin()
           ),
           b -> xfrmMref.fromBackend(b))
-        )
+        ))
 
         // member logout
-        .dataFetcher("mlogout", env -> processor.mutate(
+        .dataFetcher("mlogout", blocking(env -> processor.mutate(
           env,
           () -> new Mlogout(
             uuidFromToken(env.getArgument("mid")),
@@ -360,38 +670,46 @@ public class MCorpusGraphQL {
             mclogout.getRequestOrigin()
           ),
           mid -> mid != null)
-        )
+        ))
 
         // add member
-        .dataFetcher("addMember", env -> processor.mutate(
+        .dataFetcher("addMember", blocking(env -> processor.mutate(
           env,
           () -> xfrmMember.fromGraphQLMapForAdd(env.getArgument("member")),
           (Member g) -> vldtnMember.validateForAdd(g),
           gvldtd -> xfrmMember.toBackend(gvldtd),
           (MemberAndMauth b) -> mcorpusRepo.addMember(b),
           bpost -> xfrmMember.fromBackend(bpost))
-        )
+        ))
+
+        // add members (bulk)
+        .dataFetcher("addMembers", blocking(env -> processor.mutate(
+          env,
+          () -> env.<List<Map<String, Object>>>getArgument("members"),
+          gqlMaps -> memberImporter.importMembers(gqlMaps),
+          result -> result)
+        ))
 
         // update member
-        .dataFetcher("updateMember", env -> processor.mutate(
+        .dataFetcher("updateMember", blocking(env -> processor.mutate(
           env,
           () -> xfrmMember.fromGraphQLMapForUpdate(env.getArgument("member")),
           (Member g) -> vldtnMember.validateForUpdate(g),
           gvldtd -> xfrmMember.toBackend(gvldtd),
           (MemberAndMauth b) -> mcorpusRepo.updateMember(b),
           bpost -> xfrmMember.fromBackend(bpost))
-        )
+        ))
 
         // delete member
-        .dataFetcher("deleteMember", env -> processor.delete(
+        .dataFetcher("deleteMember", blocking(env -> processor.delete(
           env,
           () -> uuidFromToken(env.getArgument("mid")),
           key -> key,
           b -> mcorpusRepo.deleteMember(b))
-        )
+        ))
 
         // member pswd
-        .dataFetcher("mpswd", env -> processor.mutate(
+        .dataFetcher("mpswd", blocking(env -> processor.mutate(
           env,
           () -> new MemberIdAndPswdKey(
             uuidFromToken(env.getArgument("mid")),
@@ -399,30 +717,30 @@ public class MCorpusGraphQL {
           ),
           key -> fetchrslt(mcorpusRepo.setMemberPswd(key.getMid(), key.getPswd())),
           fr -> fr.get())
-        )
+        ))
 
         // add member address
-        .dataFetcher("addMemberAddress", env -> processor.mutate(
+        .dataFetcher("addMemberAddress", blocking(env -> processor.mutate(
           env,
           () -> xfrmMemberAddress.fromGraphQLMapForAdd(env.getArgument("memberAddress")),
           (MemberAddress g) -> vldtnMemberAddress.validateForAdd(g),
           gvldtd -> xfrmMemberAddress.toBackend(gvldtd),
           (Maddress b) -> mcorpusRepo.addMemberAddress(b),
           bpost -> xfrmMemberAddress.fromBackend(bpost))
-        )
+        ))
 
         // update member address
-        .dataFetcher("updateMemberAddress", env -> processor.mutate(
+        .dataFetcher("updateMemberAddress", blocking(env -> processor.mutate(
           env,
           () -> xfrmMemberAddress.fromGraphQLMapForUpdate(env.getArgument("memberAddress")),
           (MemberAddress g) -> vldtnMemberAddress.validateForUpdate(g),
           gvldtd -> xfrmMemberAddress.toBackend(gvldtd),
           (Maddress b) -> mcorpusRepo.updateMemberAddress(b),
           bpost -> xfrmMemberAddress.fromBackend(bpost))
-        )
+        ))
 
         // delete member address
-        .dataFetcher("deleteMemberAddress", env -> processor.delete(
+        .dataFetcher("deleteMemberAddress", blocking(env -> processor.delete(
           env,
           () -> new MidAndAddressNameKey(
             uuidFromToken(env.getArgument("mid")),
@@ -430,7 +748,7 @@ public class MCorpusGraphQL {
           ),
           keyg -> xfrmMidAndAddressName.toBackend(keyg),
           key -> mcorpusRepo.deleteMemberAddress(key.getMid(), key.getAddressname())
-        ))
+        )))
       )
 
       // mcuser types
@@ -557,6 +875,18 @@ public class MCorpusGraphQL {
         })
       )
 
+      // MemberSuggestion
+      .type("MemberSuggestion", typeWiring -> typeWiring
+        .dataFetcher("mref", env -> {
+          final MemberSuggestion ms = env.getSource();
+          return ms.getMref();
+        })
+        .dataFetcher("displayName", env -> {
+          final MemberSuggestion ms = env.getSource();
+          return ms.getDisplayName();
+        })
+      )
+
       // Member
       .type("Member", typeWiring -> typeWiring
         .dataFetcher("mid", env -> {
@@ -637,11 +967,13 @@ public class MCorpusGraphQL {
             final MemberAndAddresses maa = (MemberAndAddresses) mo;
             return maa.getAddresses();
           } else {
-            return processor.fetch(
+            // batched - one backend round trip for all members in play
+            return processor.load(
               env,
               () -> ((Member) mo).getMid(),
-              mid -> mcorpusRepo.fetchMemberAddresses(mid),
-              blist -> blist.stream().map(b -> xfrmMemberAddress.fromBackend(b)).collect(Collectors.toList())
+              DL_MADDRESSES,
+              "No member addresses found.",
+              (List<Maddress> blist) -> blist.stream().map(b -> xfrmMemberAddress.fromBackend(b)).collect(Collectors.toList())
             );
           }
         })
@@ -691,6 +1023,86 @@ public class MCorpusGraphQL {
         })
       )
 
+      // MemberConnection
+      .type("MemberConnection", typeWiring -> typeWiring
+        .dataFetcher("edges", env -> {
+          final MemberConnection mc = env.getSource();
+          return mc.getEdges();
+        })
+        .dataFetcher("pageInfo", env -> {
+          final MemberConnection mc = env.getSource();
+          return mc.getPageInfo();
+        })
+      )
+
+      // MemberEdge
+      .type("MemberEdge", typeWiring -> typeWiring
+        .dataFetcher("cursor", env -> {
+          final MemberEdge me = env.getSource();
+          return me.getCursor();
+        })
+        .dataFetcher("node", env -> {
+          final MemberEdge me = env.getSource();
+          return me.getNode();
+        })
+      )
+
+      // PageInfo
+      .type("PageInfo", typeWiring -> typeWiring
+        .dataFetcher("startCursor", env -> {
+          final PageInfo pi = env.getSource();
+          return pi.getStartCursor();
+        })
+        .dataFetcher("endCursor", env -> {
+          final PageInfo pi = env.getSource();
+          return pi.getEndCursor();
+        })
+        .dataFetcher("hasPreviousPage", env -> {
+          final PageInfo pi = env.getSource();
+          return pi.isHasPreviousPage();
+        })
+        .dataFetcher("hasNextPage", env -> {
+          final PageInfo pi = env.getSource();
+          return pi.isHasNextPage();
+        })
+      )
+
+      // MemberImportResult
+      .type("MemberImportResult", typeWiring -> typeWiring
+        .dataFetcher("numAdded", env -> {
+          final MemberImportResult mir = env.getSource();
+          return mir.getNumAdded();
+        })
+        .dataFetcher("added", env -> {
+          final MemberImportResult mir = env.getSource();
+          return mir.getAdded();
+        })
+        .dataFetcher("errors", env -> {
+          final MemberImportResult mir = env.getSource();
+          return mir.getErrors();
+        })
+      )
+
+      // MemberImportError
+      .type("MemberImportError", typeWiring -> typeWiring
+        .dataFetcher("index", env -> {
+          final MemberImportError mie = env.getSource();
+          return mie.getIndex();
+        })
+        .dataFetcher("empId", env -> {
+          final MemberImportError mie = env.getSource();
+          return mie.getEmpId();
+        })
+        .dataFetcher("location", env -> {
+          final MemberImportError mie = env.getSource();
+          return mie.getLocation();
+        })
+        .dataFetcher("message", env -> {
+          final MemberImportError mie = env.getSource();
+          return mie.getMessage();
+        })
+      )
+
       .build();
   }
 
@@ -1,18 +1,32 @@
 package com.tll.mcorpus.web;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
+import com.tll.gql.CachingPreparsedDocumentProvider;
+import com.tll.gql.PersistedQueryCache;
 import com.tll.jwt.CachingJwtBackendHandler;
 import com.tll.jwt.IJwtBackendHandler;
 import com.tll.jwt.JWT;
 import com.tll.mcorpus.MCorpusServerConfig;
 import com.tll.mcorpus.repo.MCorpusRepo;
 import com.tll.mcorpus.repo.MCorpusUserRepo;
+import com.tll.mcorpus.repo.ReadRouter;
+import com.tll.web.GraphQLWebContext;
 
 import graphql.GraphQL;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
 import graphql.schema.GraphQLSchema;
 import ratpack.error.ClientErrorHandler;
 import ratpack.error.ServerErrorHandler;
@@ -43,30 +57,113 @@ public class MCorpusWebModule extends AbstractModule {
 
   @Provides
   @Singleton
-  GraphQLHandler gqlHandler(MCorpusUserRepo mcuserRepo, MCorpusRepo mcorpusRepo) {
-    final MCorpusGraphQL mcorpusGraphQL = new MCorpusGraphQL(mcuserRepo, mcorpusRepo);
+  RateLimitHandler rateLimitHandler(MCorpusServerConfig config) {
+    final Set<String> trustedProxies = config.rateLimitTrustedProxies == null ?
+      ImmutableSet.of() :
+      ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(config.rateLimitTrustedProxies));
+    return new RateLimitHandler(
+      config.rateLimitMcuserPerSecond,
+      config.rateLimitMcuserBurst,
+      config.rateLimitOriginPerSecond,
+      config.rateLimitOriginBurst,
+      config.rateLimitMaxKeys,
+      trustedProxies
+    );
+  }
+
+  @Provides
+  @Singleton
+  GraphQLMetrics graphQLMetrics() {
+    // the metric registry (when metrics are on) is bound upon server start
+    return new GraphQLMetrics(null);
+  }
+
+  @Provides
+  @Singleton
+  GraphQLHandler gqlHandler(MCorpusUserRepo mcuserRepo, MCorpusRepo mcorpusRepo, ReadRouter readRouter, GraphQLMetrics graphQLMetrics, MCorpusServerConfig config) {
+    // the mcorpus server config determines whether we run blocking data fetchers on a dedicated pool or not
+    final ExecutorService fetchExecutor = config.graphqlFetchPoolSize <= 0 ?
+      null :
+      Executors.newFixedThreadPool(
+        config.graphqlFetchPoolSize,
+        new ThreadFactoryBuilder().setNameFormat("gql-fetch-%d").setDaemon(true).build()
+      );
+    final MCorpusGraphQL mcorpusGraphQL = new MCorpusGraphQL(mcuserRepo, mcorpusRepo, fetchExecutor, readRouter);
     final GraphQLSchema schema = mcorpusGraphQL.getGraphQLSchema();
-    final GraphQL graphQL = GraphQL.newGraphQL(schema).build();
-    final GraphQLHandler gqlHandler = new GraphQLHandler(graphQL);
+    final GraphQL.Builder graphQLBuilder = GraphQL.newGraphQL(schema)
+      .instrumentation(new ChainedInstrumentation(Arrays.asList(
+        new DataLoaderDispatcherInstrumentation(),
+        // cost admission control ahead of metrics so rejected operations are not recorded as executed
+        new QueryCostInstrumentation(
+          config.graphqlMaxQueryDepth,
+          config.graphqlMaxQueryComplexity,
+          config.graphqlMcuserCostBudgetPerMinute
+        ),
+        graphQLMetrics
+      )));
+    GraphQLWebContext.setParsedQueryCacheMaxSize(config.graphqlDocumentCacheMaxSize);
+    if(config.graphqlDocumentCacheMaxSize > 0) {
+      graphQLBuilder.preparsedDocumentProvider(new CachingPreparsedDocumentProvider(config.graphqlDocumentCacheMaxSize));
+    }
+    final GraphQL graphQL = graphQLBuilder.build();
+    final PersistedQueryCache persistedQueryCache = config.graphqlPersistedQueryCacheMaxSize <= 0 ?
+      null : new PersistedQueryCache(config.graphqlPersistedQueryCacheMaxSize);
+    final GraphQLHandler gqlHandler = new GraphQLHandler(graphQL, mcorpusGraphQL::newDataLoaderRegistry, persistedQueryCache);
     return gqlHandler;
   }
 
   @Provides
   @Singleton
-  JWT jwt(MCorpusUserRepo mcuserRepo, ServerConfig serverConfig, MCorpusServerConfig config) {
+  MemberExportHandler memberExportHandler(MCorpusRepo mcorpusRepo, MCorpusServerConfig config) {
+    return new MemberExportHandler(mcorpusRepo, config.memberExportFetchSize);
+  }
+
+  @Provides
+  @Singleton
+  MemberImportHandler memberImportHandler(MCorpusRepo mcorpusRepo, ReadRouter readRouter, MCorpusServerConfig config) {
+    return new MemberImportHandler(new MemberImporter(mcorpusRepo), readRouter, config.memberImportMaxContentLength);
+  }
+
+  @Provides
+  @Singleton
+  IJwtBackendHandler jwtBackendHandler(MCorpusUserRepo mcuserRepo, MCorpusServerConfig config) {
     // the mcorpus server config determines whether we use a caching jwt handler or not
-    final IJwtBackendHandler backendHandler = config.jwtStatusCacheTimeoutInMinutes <= 0 ?
+    return config.jwtStatusCacheTimeoutInMinutes <= 0 ?
       new MCorpusJwtBackendHandler(mcuserRepo) :
       new CachingJwtBackendHandler(
         new MCorpusJwtBackendHandler(mcuserRepo),
         config.jwtStatusCacheTimeoutInMinutes,
         config.jwtStatusCacheMaxSize
       );
+  }
+
+  @Provides
+  @Singleton
+  JwtStatusCacheMetrics jwtStatusCacheMetrics(IJwtBackendHandler backendHandler) {
+    return new JwtStatusCacheMetrics(backendHandler);
+  }
+
+  @Provides
+  @Singleton
+  MemberCacheMetrics memberCacheMetrics(MCorpusRepo mcorpusRepo) {
+    return new MemberCacheMetrics(mcorpusRepo);
+  }
+
+  @Provides
+  @Singleton
+  JwtRevocationListener jwtRevocationListener(IJwtBackendHandler backendHandler, MCorpusServerConfig config) {
+    return new JwtRevocationListener(backendHandler, config.dbUrl);
+  }
+
+  @Provides
+  @Singleton
+  JWT jwt(IJwtBackendHandler backendHandler, ServerConfig serverConfig, MCorpusServerConfig config) {
     return new JWT(
       backendHandler,
       Duration.ofSeconds(config.jwtTtlInSeconds),
       JWT.deserialize(config.jwtSalt),
-      serverConfig.getPublicAddress().toString()
+      serverConfig.getPublicAddress().toString(),
+      config.jwtVerifiedCacheMaxSize
     );
   }
 }
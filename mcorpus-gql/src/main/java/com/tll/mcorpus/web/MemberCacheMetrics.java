@@ -0,0 +1,64 @@
+package com.tll.mcorpus.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tll.mcorpus.repo.CachingMCorpusRepo;
+import com.tll.mcorpus.repo.MCorpusRepo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ratpack.service.Service;
+import ratpack.service.StartEvent;
+
+/**
+ * Exports the member cache statistics to the Dropwizard metrics registry
+ * upon server start when both metrics and member caching are on.
+ *
+ * @author jpk
+ */
+public class MemberCacheMetrics implements Service {
+
+  private static void register(final MetricRegistry metricRegistry, final String name, final Supplier<CacheStats> stats) {
+    metricRegistry.register(name + ".hits", (Gauge<Long>) () -> stats.get().hitCount());
+    metricRegistry.register(name + ".misses", (Gauge<Long>) () -> stats.get().missCount());
+    metricRegistry.register(name + ".hit-rate", (Gauge<Double>) () -> stats.get().hitRate());
+    metricRegistry.register(name + ".evictions", (Gauge<Long>) () -> stats.get().evictionCount());
+    metricRegistry.register(name + ".load-failures", (Gauge<Long>) () -> stats.get().loadFailureCount());
+    metricRegistry.register(name + ".avg-load-millis", (Gauge<Double>) () ->
+      stats.get().averageLoadPenalty() / TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  private final Logger log = LoggerFactory.getLogger(MemberCacheMetrics.class);
+
+  private final MCorpusRepo mcorpusRepo;
+
+  /**
+   * Constructor.
+   *
+   * @param mcorpusRepo the app scoped mcorpus repo
+   */
+  public MemberCacheMetrics(final MCorpusRepo mcorpusRepo) {
+    this.mcorpusRepo = mcorpusRepo;
+  }
+
+  @Override
+  public void onStart(StartEvent event) throws Exception {
+    if(!(mcorpusRepo instanceof CachingMCorpusRepo)) return;
+    final CachingMCorpusRepo cache = (CachingMCorpusRepo) mcorpusRepo;
+    event.getRegistry().maybeGet(MetricRegistry.class).ifPresent(metricRegistry -> {
+      metricRegistry.register("member-cache.size", (Gauge<Long>) cache::estimatedSize);
+      register(metricRegistry, "member-cache.member", cache::memberCacheStats);
+      register(metricRegistry, "member-cache.member-and-addresses", cache::memberAndAddressesCacheStats);
+      if(cache.isCachingSearches()) {
+        metricRegistry.register("member-cache.search.size", (Gauge<Long>) cache::searchCacheEstimatedSize);
+        register(metricRegistry, "member-cache.search", cache::searchCacheStats);
+      }
+      log.info("Member cache metrics registered.");
+    });
+  }
+}
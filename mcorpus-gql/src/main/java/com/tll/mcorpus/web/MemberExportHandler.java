@@ -0,0 +1,196 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.core.Util.isBlank;
+import static com.tll.core.Util.isNull;
+import static com.tll.core.Util.not;
+import static com.tll.transform.TransformUtil.uuidToToken;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.tll.gql.DateTimeHelper;
+import com.tll.gql.GraphQLDate;
+import com.tll.jwt.JWTHttpRequestStatus;
+import com.tll.jwt.JWTHttpRequestStatus.JWTStatus;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+import com.tll.mcorpus.dmodel.MemberSearch;
+import com.tll.mcorpus.gmodel.Member;
+import com.tll.mcorpus.repo.MCorpusRepo;
+import com.tll.mcorpus.repo.MemberCursor;
+import com.tll.mcorpus.repo.ReadRouter;
+import com.tll.mcorpus.transform.MemberFilterXfrm;
+import com.tll.mcorpus.transform.MemberXfrm;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ratpack.exec.Blocking;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.http.ResponseChunks;
+import ratpack.stream.Streams;
+
+/**
+ * Streams all members matching an optional member filter as newline delimited
+ * json (NDJSON) in a single http response.
+ * <p>
+ * The optional <code>filter</code> query parameter takes the same json shape
+ * as the GraphQL <code>MemberFilter</code> input type (paging is ignored).
+ * <p>
+ * Members are read from a single db server-side cursor one fetch size worth at
+ * a time and the next batch is only read once the client has consumed the
+ * prior one (backpressure) so memory use is constant regardless of corpus size.
+ * <p>
+ * Requires a valid JWT with MCORPUS role.  Member PII fields are only included
+ * for requests also having MPII role.
+ * <p>
+ * <b>IMPT: </b>
+ * A {@link JWTHttpRequestStatus} is expected to already be cached in the request.
+ *
+ * @author jpk
+ */
+public class MemberExportHandler implements Handler {
+
+  /**
+   * The NDJSON http response content type.
+   */
+  public static final String CONTENT_TYPE_NDJSON = "application/x-ndjson";
+
+  private static final TypeReference<Map<String, Object>> strObjMapTypeRef = new TypeReference<Map<String, Object>>() { };
+
+  private static final GraphQLDate gqlDate = new GraphQLDate();
+
+  /**
+   * Coerce any date predicate string args in the given json member filter map
+   * as the GraphQL Date scalar would.
+   */
+  @SuppressWarnings("unchecked")
+  static Map<String, Object> coerceDates(final Map<String, Object> filterMap) {
+    for(final String key : new String[] { "created", "modified", "dob" }) {
+      final Object dp = filterMap.get(key);
+      if(dp instanceof Map) {
+        final Map<String, Object> dpmap = (Map<String, Object>) dp;
+        for(final String arg : new String[] { "argA", "argB" }) {
+          final Object v = dpmap.get(arg);
+          if(v instanceof String) dpmap.put(arg, gqlDate.getCoercing().parseValue(v));
+        }
+      }
+    }
+    return filterMap;
+  }
+
+  static String isoDate(final Date d) {
+    return isNull(d) ? null : DateTimeHelper.toISOString(d);
+  }
+
+  /**
+   * @return the export (json) representation of the given member.
+   */
+  static Map<String, Object> toExportMap(final Member m, final boolean withPii) {
+    final Map<String, Object> map = new LinkedHashMap<>(withPii ? 18 : 10);
+    map.put("mid", uuidToToken(m.getMid()));
+    map.put("created", isoDate(m.getCreated()));
+    map.put("modified", isoDate(m.getModified()));
+    map.put("empId", m.getEmpId());
+    map.put("location", m.getLocation());
+    map.put("nameFirst", m.getNameFirst());
+    map.put("nameMiddle", m.getNameMiddle());
+    map.put("nameLast", m.getNameLast());
+    map.put("displayName", m.getDisplayName());
+    map.put("status", m.getStatus());
+    if(withPii) {
+      map.put("dob", isoDate(m.getDob()));
+      map.put("ssn", m.getSsn());
+      map.put("personalEmail", m.getPersonalEmail());
+      map.put("workEmail", m.getWorkEmail());
+      map.put("mobilePhone", m.getMobilePhone());
+      map.put("homePhone", m.getHomePhone());
+      map.put("workPhone", m.getWorkPhone());
+      map.put("username", m.getUsername());
+    }
+    return map;
+  }
+
+  private final Logger log = LoggerFactory.getLogger(MemberExportHandler.class);
+
+  private final MCorpusRepo mcorpusRepo;
+  private final int fetchSize;
+
+  private final MemberFilterXfrm xfrmMemberFilter;
+  private final MemberXfrm xfrmMember;
+
+  /**
+   * Constructor.
+   *
+   * @param mcorpusRepo the mcorpus repo
+   * @param fetchSize the number of members to read from the db per round trip
+   *                  and to write per http response chunk
+   */
+  public MemberExportHandler(final MCorpusRepo mcorpusRepo, final int fetchSize) {
+    this.mcorpusRepo = mcorpusRepo;
+    this.fetchSize = fetchSize;
+    this.xfrmMemberFilter = new MemberFilterXfrm();
+    this.xfrmMember = new MemberXfrm();
+  }
+
+  @Override
+  public void handle(Context ctx) throws Exception {
+    final JWTHttpRequestStatus jwtRequestStatus = ctx.getRequest().get(JWTHttpRequestStatus.class);
+    if(jwtRequestStatus.status() != JWTStatus.VALID) {
+      ctx.clientError(401); // unauthorized
+      return;
+    }
+    final List<GraphQLRole> roles = GraphQLRole.fromCommaDelimitedString(jwtRequestStatus.roles());
+    if(not(GraphQLRole.MCORPUS.isAuthorized(roles))) {
+      ctx.clientError(403); // forbidden
+      return;
+    }
+    final boolean withPii = GraphQLRole.MPII.isAuthorized(roles);
+
+    final ObjectMapper mapper = ctx.get(ObjectMapper.class);
+    final MemberSearch msearch;
+    try {
+      final String filterJson = ctx.getRequest().getQueryParams().get("filter");
+      msearch = xfrmMemberFilter.toBackend(xfrmMemberFilter.fromGraphQLArgs(
+        isBlank(filterJson) ? null : coerceDates(mapper.readValue(filterJson, strObjMapTypeRef)),
+        null,
+        null
+      ));
+    } catch(Exception e) {
+      log.error("Invalid member export filter: {}", e.getMessage());
+      ctx.clientError(400); // bad request
+      return;
+    }
+
+    Blocking.get(() -> ReadRouter.readAs(jwtRequestStatus.userId(), () -> mcorpusRepo.openMemberCursor(msearch, fetchSize))).then(fr -> {
+      if(not(fr.isSuccess())) {
+        log.error("Member export error: {}", fr.getErrorMsg());
+        ctx.clientError(500); // server error
+        return;
+      }
+      final MemberCursor cursor = fr.get();
+      // always release the db cursor and connection (complete, error or client disconnect)
+      ctx.onClose(outcome -> cursor.close());
+
+      final ObjectWriter writer = mapper.writer();
+      final Publisher<String> chunks = Streams.flatYield(yieldRequest -> Blocking.get(() -> {
+        final List<MemberAndMauth> batch = cursor.next(fetchSize);
+        if(batch.isEmpty()) return null; // end of stream
+        final StringBuilder sb = new StringBuilder(batch.size() * 256);
+        for(final MemberAndMauth b : batch) {
+          sb.append(writer.writeValueAsString(toExportMap(xfrmMember.fromBackend(b), withPii))).append('\n');
+        }
+        return sb.toString();
+      }));
+
+      log.info("Member export streaming (fetch size: {}, pii: {}).", fetchSize, withPii);
+      ctx.render(ResponseChunks.stringChunks(CONTENT_TYPE_NDJSON, chunks));
+    });
+  }
+}
@@ -0,0 +1,163 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.core.Util.isBlank;
+import static com.tll.core.Util.not;
+import static com.tll.transform.TransformUtil.uuidToToken;
+import static ratpack.jackson.Jackson.json;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tll.gql.GraphQLDate;
+import com.tll.jwt.JWTHttpRequestStatus;
+import com.tll.mcorpus.gmodel.MemberImportResult;
+import com.tll.mcorpus.gmodel.MemberImportResult.MemberImportError;
+import com.tll.mcorpus.gmodel.Mref;
+import com.tll.mcorpus.repo.ReadRouter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ratpack.exec.Blocking;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+
+/**
+ * Admin bulk member import (upload) handler.
+ * <p>
+ * Expects a newline delimited json (NDJSON) request body with one member to
+ * add per line each in the same json shape as the GraphQL
+ * <code>MemberToAdd</code> input type (<code>dob</code> as an ISO date string).
+ * <p>
+ * Responds with the json import result: the number of members added, the
+ * added member refs and one error per member not added where each error
+ * holds the zero-based line index of the offending member (blank lines
+ * excluded).
+ * <p>
+ * <b>IMPT: </b>
+ * Admin only access is expected to be enforced upstream and a
+ * {@link JWTHttpRequestStatus} is expected to already be cached in the request.
+ * <p>
+ * Reads of the importing mcuser are pinned to the primary db when members
+ * were added.
+ *
+ * @author jpk
+ */
+public class MemberImportHandler implements Handler {
+
+  private static final TypeReference<Map<String, Object>> strObjMapTypeRef = new TypeReference<Map<String, Object>>() { };
+
+  private static final GraphQLDate gqlDate = new GraphQLDate();
+
+  /**
+   * Parse the given NDJSON members to add coercing dob as the GraphQL Date
+   * scalar would.
+   *
+   * @param mapper the json object mapper
+   * @param ndjson the NDJSON text
+   * @return list of members to add as GraphQL input maps
+   * @throws IllegalArgumentException upon any unparseable line
+   */
+  static List<Map<String, Object>> parseMembers(final ObjectMapper mapper, final String ndjson) {
+    final List<Map<String, Object>> gqlMaps = new ArrayList<>();
+    try(final BufferedReader reader = new BufferedReader(new StringReader(ndjson))) {
+      String line;
+      int lineNum = 0;
+      while((line = reader.readLine()) != null) {
+        lineNum++;
+        if(isBlank(line)) continue;
+        try {
+          final Map<String, Object> gqlMap = mapper.readValue(line, strObjMapTypeRef);
+          final Object dob = gqlMap.get("dob");
+          if(dob instanceof String) gqlMap.put("dob", gqlDate.getCoercing().parseValue(dob));
+          gqlMaps.add(gqlMap);
+        } catch(Exception e) {
+          throw new IllegalArgumentException(String.format("Invalid member at line %d.", lineNum));
+        }
+      }
+    } catch(IllegalArgumentException e) {
+      throw e;
+    } catch(Exception e) {
+      throw new IllegalArgumentException("Unreadable member import.");
+    }
+    return gqlMaps;
+  }
+
+  /**
+   * @return the json (response) representation of the given import result.
+   */
+  static Map<String, Object> toResponseMap(final MemberImportResult result) {
+    final Map<String, Object> map = new LinkedHashMap<>(3);
+    map.put("numAdded", result.getNumAdded());
+    map.put("added", result.getAdded().stream().map((Mref mref) -> {
+      final Map<String, Object> mmap = new LinkedHashMap<>(3);
+      mmap.put("mid", uuidToToken(mref.getPk().getUUID()));
+      mmap.put("empId", mref.empId);
+      mmap.put("location", mref.location);
+      return mmap;
+    }).collect(Collectors.toList()));
+    map.put("errors", result.getErrors().stream().map((MemberImportError mie) -> {
+      final Map<String, Object> emap = new LinkedHashMap<>(4);
+      emap.put("index", mie.getIndex());
+      emap.put("empId", mie.getEmpId());
+      emap.put("location", mie.getLocation());
+      emap.put("message", mie.getMessage());
+      return emap;
+    }).collect(Collectors.toList()));
+    return map;
+  }
+
+  private final Logger log = LoggerFactory.getLogger(MemberImportHandler.class);
+
+  private final MemberImporter memberImporter;
+  private final ReadRouter readRouter;
+  private final long maxContentLength;
+
+  /**
+   * Constructor.
+   *
+   * @param memberImporter the member importer
+   * @param readRouter the read router to pin the importing mcuser's reads to the primary db
+   * @param maxContentLength the max allowed request body size in bytes
+   */
+  public MemberImportHandler(final MemberImporter memberImporter, final ReadRouter readRouter, final long maxContentLength) {
+    this.memberImporter = memberImporter;
+    this.readRouter = readRouter;
+    this.maxContentLength = maxContentLength;
+  }
+
+  @Override
+  public void handle(Context ctx) throws Exception {
+    final ObjectMapper mapper = ctx.get(ObjectMapper.class);
+    ctx.getRequest().getBody(maxContentLength, () -> ctx.clientError(413)).then(body -> {
+      final List<Map<String, Object>> gqlMaps;
+      try {
+        gqlMaps = parseMembers(mapper, body.getText());
+      } catch(IllegalArgumentException e) {
+        log.error("Member import parse error: {}", e.getMessage());
+        ctx.clientError(400); // bad request
+        return;
+      }
+      if(gqlMaps.isEmpty()) {
+        ctx.clientError(400); // bad request
+        return;
+      }
+      Blocking.get(() -> memberImporter.importMembers(gqlMaps)).then(fr -> {
+        if(not(fr.isSuccess())) {
+          log.error("Member import error: {}", fr.getErrorMsg());
+          ctx.clientError(500); // server error
+          return;
+        }
+        if(fr.get().getNumAdded() > 0) readRouter.pin(ctx.getRequest().get(JWTHttpRequestStatus.class).userId());
+        ctx.render(json(toResponseMap(fr.get())));
+      });
+    });
+  }
+}
@@ -0,0 +1,138 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.core.Util.isNullOrEmpty;
+import static com.tll.core.Util.not;
+import static com.tll.repo.FetchResult.fetchrslt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.tll.mcorpus.db.udt.pojos.Mref;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+import com.tll.mcorpus.dmodel.MembersAdded;
+import com.tll.mcorpus.gmodel.Member;
+import com.tll.mcorpus.gmodel.MemberImportResult;
+import com.tll.mcorpus.gmodel.MemberImportResult.MemberImportError;
+import com.tll.mcorpus.repo.MCorpusRepo;
+import com.tll.mcorpus.transform.MemberXfrm;
+import com.tll.mcorpus.transform.MrefXfrm;
+import com.tll.mcorpus.validate.MemberValidator;
+import com.tll.repo.FetchResult;
+import com.tll.validate.VldtnResult;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adds (imports) many members at once.
+ * <p>
+ * Each member to add is transformed and validated independently (in parallel)
+ * and only the valid ones are handed off to the backend to be added in a
+ * single transaction.  Members that are not added are reported back one error
+ * per member along with their index in the originating list.
+ * <p>
+ * Shared by the <code>addMembers</code> GraphQL mutation and the admin member
+ * import (upload) endpoint.
+ * <p>
+ * <em>Blocking</em>.
+ *
+ * @author jpk
+ */
+public class MemberImporter {
+
+  static String toErrorMsg(final VldtnResult vresult) {
+    return vresult.getErrors().stream()
+      .map(ve -> isNullOrEmpty(ve.getFieldPath()) ? ve.getVldtnErrMsg() : ve.getFieldPath() + ": " + ve.getVldtnErrMsg())
+      .sorted()
+      .collect(Collectors.joining("; "));
+  }
+
+  private static String strval(final Map<String, Object> gqlMap, final String key) {
+    return gqlMap == null ? null : Objects.toString(gqlMap.get(key), null);
+  }
+
+  private final Logger log = LoggerFactory.getLogger(MemberImporter.class);
+
+  private final MCorpusRepo mcorpusRepo;
+
+  private final MemberXfrm xfrmMember;
+  private final MrefXfrm xfrmMref;
+  private final MemberValidator vldtnMember;
+
+  /**
+   * Constructor.
+   *
+   * @param mcorpusRepo the mcorpus repo
+   */
+  public MemberImporter(final MCorpusRepo mcorpusRepo) {
+    this.mcorpusRepo = mcorpusRepo;
+    this.xfrmMember = new MemberXfrm();
+    this.xfrmMref = new MrefXfrm();
+    this.vldtnMember = new MemberValidator();
+  }
+
+  /**
+   * Add the given members.
+   *
+   * @param gqlMaps the members to add each in the shape of the GraphQL
+   *                <code>MemberToAdd</code> input type
+   * @return newly created fetch result holding the import result
+   *         -OR- an error message when no members were given or the backend
+   *         failed in which case no members were added.
+   */
+  public FetchResult<MemberImportResult> importMembers(final List<Map<String, Object>> gqlMaps) {
+    if(isNullOrEmpty(gqlMaps)) return fetchrslt(null, "No members provided.");
+    final int n = gqlMaps.size();
+
+    // transform and validate
+    final MemberAndMauth[] toAdd = new MemberAndMauth[n];
+    final String[] errors = new String[n];
+    IntStream.range(0, n).parallel().forEach(i -> {
+      try {
+        final Member m = xfrmMember.fromGraphQLMapForAdd(gqlMaps.get(i));
+        final VldtnResult vresult = vldtnMember.validateForAdd(m);
+        if(vresult.isValid())
+          toAdd[i] = xfrmMember.toBackend(m);
+        else
+          errors[i] = toErrorMsg(vresult);
+      } catch(Exception e) {
+        errors[i] = "Invalid member.";
+      }
+    });
+
+    // add the valid ones
+    final List<Integer> indexes = new ArrayList<>(n);
+    final List<MemberAndMauth> blist = new ArrayList<>(n);
+    for(int i = 0; i < n; i++) {
+      if(toAdd[i] != null) {
+        indexes.add(i);
+        blist.add(toAdd[i]);
+      }
+    }
+    final List<com.tll.mcorpus.gmodel.Mref> added = new ArrayList<>(blist.size());
+    if(not(blist.isEmpty())) {
+      final FetchResult<MembersAdded> fr = mcorpusRepo.addMembers(blist);
+      if(not(fr.isSuccess())) return fetchrslt(null, fr.getErrorMsg());
+      for(final Map.Entry<Integer, Mref> e : fr.get().added.entrySet()) {
+        added.add(xfrmMref.fromBackend(e.getValue()));
+      }
+      for(final Map.Entry<Integer, String> e : fr.get().rejected.entrySet()) {
+        errors[indexes.get(e.getKey())] = e.getValue();
+      }
+    }
+
+    final List<MemberImportError> ierrors = new ArrayList<>();
+    for(int i = 0; i < n; i++) {
+      if(errors[i] != null) {
+        ierrors.add(new MemberImportError(i, strval(gqlMaps.get(i), "empId"), strval(gqlMaps.get(i), "location"), errors[i]));
+      }
+    }
+    final MemberImportResult result = new MemberImportResult(added, ierrors);
+    log.info("Member import: {}", result);
+    return fetchrslt(result, null);
+  }
+}
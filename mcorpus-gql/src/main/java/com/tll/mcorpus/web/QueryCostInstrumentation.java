@@ -0,0 +1,312 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.core.Util.isNotNull;
+import static com.tll.core.Util.isNull;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tll.web.JWTUserGraphQLWebContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.OperationDefinition;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLDirective;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+
+/**
+ * Computes the cost of each incoming graphql operation before it is executed
+ * and rejects those that are too deep, too complex or that exceed the
+ * requesting mcuser's cost budget.
+ * <p>
+ * The cost model is declared in the mcorpus graphql schema by way of the
+ * <code>@cost</code> field directive:
+ * <ul>
+ * <li>a field costs its declared <code>value</code> which defaults to 1 for
+ *     object typed fields (a backend fetch) and 0 for scalar and enum fields
+ * <li>the field cost plus that of its selections is multiplied by the first
+ *     present <code>multipliers</code> argument (a dot-delimited argument path
+ *     to an int or a list) falling back to the <code>defaultMultiplier</code>
+ * </ul>
+ * The computed depth and complexity (and remaining mcuser budget) are reported
+ * under the <code>cost</code> key of the response extensions.
+ *
+ * @author jpk
+ */
+class QueryCostInstrumentation extends SimpleInstrumentation {
+
+  /**
+   * The cost directive name.
+   */
+  static final String COST_DIRECTIVE = "cost";
+
+  /**
+   * The response extensions key under which the query cost is reported.
+   */
+  static final String COST_EXTENSION = "cost";
+
+  /**
+   * The per-operation computed cost.
+   */
+  static class QueryCost implements InstrumentationState {
+    int depth;
+    long complexity;
+    Long budgetRemaining;
+
+    Map<String, Object> toExtension() {
+      final Map<String, Object> ext = new LinkedHashMap<>(3);
+      ext.put("depth", depth);
+      ext.put("complexity", complexity);
+      if(isNotNull(budgetRemaining)) ext.put("budgetRemaining", budgetRemaining);
+      return ext;
+    }
+  }
+
+  /**
+   * Per-mcuser cost budget replenished continuously at the configured rate per
+   * minute.
+   */
+  static class CostBudget {
+    private final long capacity;
+    private double available;
+    private long lastRefill;
+
+    CostBudget(long capacity, long now) {
+      this.capacity = capacity;
+      this.available = capacity;
+      this.lastRefill = now;
+    }
+
+    /**
+     * @param cost the cost to charge
+     * @param now the current time in millis
+     * @return the remaining budget or -1 when the cost exceeds the available
+     *         budget (in which case nothing is charged)
+     */
+    synchronized long charge(long cost, long now) {
+      available = Math.min(capacity, available + (now - lastRefill) * capacity / 60000d);
+      lastRefill = now;
+      if(cost > available) return -1L;
+      available -= cost;
+      return (long) available;
+    }
+  }
+
+  private final Logger log = LoggerFactory.getLogger(QueryCostInstrumentation.class);
+
+  private final int maxDepth;
+  private final long maxComplexity;
+  private final long budgetPerMinute;
+
+  private final Cache<UUID, CostBudget> budgets;
+
+  /**
+   * Constructor.
+   *
+   * @param maxDepth the max allowed operation depth (zero or less means no
+   *                 limit)
+   * @param maxComplexity the max allowed operation complexity (zero or less
+   *                      means no limit)
+   * @param budgetPerMinute the max total complexity an mcuser may spend per
+   *                        minute (zero or less means no budget)
+   */
+  QueryCostInstrumentation(int maxDepth, long maxComplexity, long budgetPerMinute) {
+    this.maxDepth = maxDepth;
+    this.maxComplexity = maxComplexity;
+    this.budgetPerMinute = budgetPerMinute;
+    // idle budgets are full again after a minute so we may as well drop them
+    this.budgets = budgetPerMinute <= 0 ? null :
+      Caffeine.newBuilder().expireAfterAccess(1, TimeUnit.MINUTES).build();
+    log.info("Query cost instrumentation created with Max-Depth: {}, Max-Complexity: {}, Mcuser-Budget-Per-Minute: {}.",
+      maxDepth, maxComplexity, budgetPerMinute);
+  }
+
+  @Override
+  public InstrumentationState createState() {
+    return new QueryCost();
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters) {
+    final ExecutionContext ectx = parameters.getExecutionContext();
+    final QueryCost cost = parameters.getInstrumentationState();
+    compute(ectx, cost);
+
+    if(maxDepth > 0 && cost.depth > maxDepth) {
+      log.info("graphql operation {} rejected: depth {} exceeds {}.", ectx.getExecutionId(), cost.depth, maxDepth);
+      throw new AbortExecutionException(String.format("Query depth %d exceeds the max of %d.", cost.depth, maxDepth));
+    }
+    if(maxComplexity > 0 && cost.complexity > maxComplexity) {
+      log.info("graphql operation {} rejected: complexity {} exceeds {}.", ectx.getExecutionId(), cost.complexity, maxComplexity);
+      throw new AbortExecutionException(String.format("Query complexity %d exceeds the max of %d.", cost.complexity, maxComplexity));
+    }
+    final UUID mcuserId = requestorId(ectx);
+    if(isNotNull(budgets) && isNotNull(mcuserId)) {
+      final long now = System.currentTimeMillis();
+      final long remaining = budgets.get(mcuserId, uid -> new CostBudget(budgetPerMinute, now)).charge(cost.complexity, now);
+      if(remaining < 0) {
+        log.info("graphql operation {} rejected: complexity {} exceeds the budget of mcuser {}.", ectx.getExecutionId(), cost.complexity, mcuserId);
+        throw new AbortExecutionException(String.format("Query complexity %d exceeds the remaining query budget.  Try again later.", cost.complexity));
+      }
+      cost.budgetRemaining = remaining;
+    }
+    log.debug("graphql operation {} cost: depth {}, complexity {}.", ectx.getExecutionId(), cost.depth, cost.complexity);
+    return super.beginExecuteOperation(parameters);
+  }
+
+  @Override
+  public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult, InstrumentationExecutionParameters parameters) {
+    final QueryCost cost = parameters.getInstrumentationState();
+    final Map<Object, Object> extensions = new LinkedHashMap<>();
+    if(isNotNull(executionResult.getExtensions())) extensions.putAll(executionResult.getExtensions());
+    extensions.put(COST_EXTENSION, cost.toExtension());
+    return CompletableFuture.completedFuture(
+      new ExecutionResultImpl(executionResult.getData(), executionResult.getErrors(), extensions));
+  }
+
+  /**
+   * Compute the depth and complexity of the operation to be executed.
+   *
+   * @param ectx the execution context
+   * @param cost the cost to populate
+   */
+  static void compute(final ExecutionContext ectx, final QueryCost cost) {
+    final GraphQLSchema schema = ectx.getGraphQLSchema();
+    final OperationDefinition opdef = ectx.getOperationDefinition();
+    final GraphQLObjectType rootType;
+    switch(opdef.getOperation()) {
+      case MUTATION:
+        rootType = schema.getMutationType();
+        break;
+      case SUBSCRIPTION:
+        rootType = schema.getSubscriptionType();
+        break;
+      default:
+        rootType = schema.getQueryType();
+    }
+    final QueryTraverser traverser = QueryTraverser.newQueryTraverser()
+      .schema(schema)
+      .root(opdef)
+      .rootParentType(rootType)
+      .fragmentsByName(ectx.getFragmentsByName())
+      .variables(ectx.getVariables())
+      .build();
+
+    // the summed cost of the selections keyed by parent field (null for the root)
+    final Map<QueryVisitorFieldEnvironment, Long> selectionCosts = new HashMap<>();
+    traverser.visitPostOrder(new QueryVisitorStub() {
+      @Override
+      public void visitField(QueryVisitorFieldEnvironment env) {
+        if(env.isTypeNameIntrospectionField()) return;
+        int depth = 1;
+        for(QueryVisitorFieldEnvironment p = env.getParentEnvironment(); isNotNull(p); p = p.getParentEnvironment()) depth++;
+        if(depth > cost.depth) cost.depth = depth;
+
+        final long fieldCost = saturatedMultiply(
+          fieldValue(env.getFieldDefinition()) + selectionCosts.getOrDefault(env, 0L),
+          multiplier(env.getFieldDefinition(), env.getArguments()));
+        selectionCosts.merge(env.getParentEnvironment(), fieldCost, QueryCostInstrumentation::saturatedAdd);
+      }
+    });
+    cost.complexity = selectionCosts.getOrDefault(null, 0L);
+  }
+
+  /**
+   * Verify the cost directive multiplier paths of the given schema name
+   * arguments of the fields they are declared on.
+   *
+   * @param schema the graphql schema to check
+   * @throws IllegalStateException upon the first dangling multiplier path
+   */
+  static void verifyCostDirectives(final GraphQLSchema schema) throws IllegalStateException {
+    schema.getAllTypesAsList().stream()
+      .filter(t -> t instanceof GraphQLObjectType)
+      .flatMap(t -> ((GraphQLObjectType) t).getFieldDefinitions().stream())
+      .forEach(fdef -> {
+        final GraphQLDirective dir = fdef.getDirective(COST_DIRECTIVE);
+        final Object paths = isNull(dir) ? null : argValue(dir, "multipliers");
+        if(paths instanceof Collection) {
+          for(final Object path : (Collection<?>) paths) {
+            if(isNull(fdef.getArgument(String.valueOf(path).split("\\.")[0])))
+              throw new IllegalStateException(String.format("Field '%s' cost multiplier '%s' is not an argument.", fdef.getName(), path));
+          }
+        }
+      });
+  }
+
+  private static long fieldValue(final GraphQLFieldDefinition fdef) {
+    final GraphQLDirective dir = fdef.getDirective(COST_DIRECTIVE);
+    final Object value = isNull(dir) ? null : argValue(dir, "value");
+    if(value instanceof Number) return ((Number) value).longValue();
+    return GraphQLTypeUtil.isLeaf(GraphQLTypeUtil.unwrapAll(fdef.getType())) ? 0L : 1L;
+  }
+
+  private static long multiplier(final GraphQLFieldDefinition fdef, final Map<String, Object> args) {
+    final GraphQLDirective dir = fdef.getDirective(COST_DIRECTIVE);
+    if(isNull(dir)) return 1L;
+    final Object paths = argValue(dir, "multipliers");
+    if(paths instanceof Collection) {
+      for(final Object path : (Collection<?>) paths) {
+        final Object v = argAt(args, String.valueOf(path));
+        if(v instanceof Number && ((Number) v).longValue() > 0) return ((Number) v).longValue();
+        if(v instanceof List) return ((List<?>) v).size();
+      }
+    }
+    final Object dflt = argValue(dir, "defaultMultiplier");
+    return dflt instanceof Number ? Math.max(((Number) dflt).longValue(), 0L) : 1L;
+  }
+
+  private static Object argValue(final GraphQLDirective dir, final String name) {
+    final GraphQLArgument arg = dir.getArgument(name);
+    return isNull(arg) ? null : isNull(arg.getValue()) ? arg.getDefaultValue() : arg.getValue();
+  }
+
+  private static Object argAt(final Map<String, Object> args, final String path) {
+    Object v = args;
+    for(final String name : path.split("\\.")) {
+      if(!(v instanceof Map)) return null;
+      v = ((Map<?, ?>) v).get(name);
+    }
+    return v;
+  }
+
+  private static UUID requestorId(final ExecutionContext ectx) {
+    final Object ctx = ectx.getContext();
+    return ctx instanceof JWTUserGraphQLWebContext && isNotNull(((JWTUserGraphQLWebContext) ctx).getJwtStatus()) ?
+      ((JWTUserGraphQLWebContext) ctx).getJwtStatus().userId() : null;
+  }
+
+  private static long saturatedAdd(long a, long b) {
+    final long r = a + b;
+    return r < 0 ? Long.MAX_VALUE : r;
+  }
+
+  private static long saturatedMultiply(long a, long b) {
+    return a != 0 && b > Long.MAX_VALUE / a ? Long.MAX_VALUE : a * b;
+  }
+}
@@ -0,0 +1,245 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.core.Util.isBlank;
+import static com.tll.core.Util.isNotNull;
+import static com.tll.core.Util.isNull;
+import static com.tll.mcorpus.web.RequestUtil.getOrCreateRequestSnapshot;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tll.jwt.JWTHttpRequestStatus;
+import com.tll.web.RequestSnapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.service.Service;
+import ratpack.service.StartEvent;
+
+/**
+ * Rate limits the mcorpus graphql api requests by way of a token bucket per
+ * requester responding with a <code>429 Too Many Requests</code> and a
+ * <code>Retry-After</code> header when the bucket is empty.
+ * <p>
+ * Requests bearing a valid jwt are keyed by the jwt mcuser id and all others
+ * (e.g. mcuser login) by the client address hence this handler is expected to
+ * come after the {@link JWTStatusHandler}.
+ * <p>
+ * The client address is the remote address unless the remote address is a
+ * trusted proxy in which case it is the right-most X-Forwarded-For address
+ * that is not a trusted proxy.  The client supplied X-Forwarded-For header is
+ * otherwise ignored so it can't be used to get a fresh bucket per request.
+ * <p>
+ * The buckets are lock-free (a single CAS'd timestamp each) and held in a
+ * size bounded cache where idle buckets, being full anyway, are dropped.
+ * <p>
+ * Recorded metrics (once the metric registry is bound upon server start):
+ * <ul>
+ * <li><code>ratelimit.throttled.mcuser</code> and
+ *     <code>ratelimit.throttled.origin</code> throttled request counters
+ * <li><code>ratelimit.keys</code> gauge of the number of tracked buckets
+ * </ul>
+ *
+ * @author jpk
+ */
+public class RateLimitHandler implements Handler, Service {
+
+  /**
+   * A request rate limit.
+   */
+  static final class Limit {
+    /**
+     * The nanos between sustained rate requests.
+     */
+    final long interval;
+    /**
+     * The nanos the requests may run ahead of the sustained rate.
+     */
+    final long tolerance;
+
+    /**
+     * Constructor.
+     *
+     * @param perSecond the sustained number of requests per second (must be positive)
+     * @param burst the number of requests allowed at once (at least 1)
+     */
+    Limit(final int perSecond, final int burst) {
+      this.interval = TimeUnit.SECONDS.toNanos(1) / perSecond;
+      this.tolerance = interval * Math.max(burst, 1);
+    }
+  }
+
+  /**
+   * Lock-free token bucket tracking the theoretical arrival time of the next
+   * request (i.e. the generic cell rate algorithm) which is equivalent to a
+   * token bucket refilled continuously.
+   */
+  static final class TokenBucket {
+    private final AtomicLong tat;
+
+    TokenBucket(final long now) {
+      this.tat = new AtomicLong(now);
+    }
+
+    /**
+     * Take a token.
+     *
+     * @param limit the applicable limit
+     * @param now the current nano time
+     * @return zero when a token was taken, otherwise the nanos to wait
+     *         before a token is available
+     */
+    long tryAcquire(final Limit limit, final long now) {
+      for(;;) {
+        final long t = tat.get();
+        final long next = Math.max(t, now) + limit.interval;
+        final long wait = next - now - limit.tolerance;
+        if(wait > 0) return wait;
+        if(tat.compareAndSet(t, next)) return 0L;
+      }
+    }
+  }
+
+  private final Logger log = LoggerFactory.getLogger(RateLimitHandler.class);
+
+  private final Limit mcuserLimit;
+  private final Limit originLimit;
+
+  private final Set<String> trustedProxies;
+
+  private final Cache<Object, TokenBucket> buckets;
+
+  private volatile MetricRegistry metricRegistry;
+
+  /**
+   * Constructor.
+   *
+   * @param mcuserPerSecond the sustained requests per second per mcuser (zero or less for no limit)
+   * @param mcuserBurst the requests per mcuser allowed at once
+   * @param originPerSecond the sustained requests per second per unauthenticated client origin (zero or less for no limit)
+   * @param originBurst the requests per unauthenticated client origin allowed at once
+   * @param maxKeys the max number of buckets to hold
+   */
+  public RateLimitHandler(int mcuserPerSecond, int mcuserBurst, int originPerSecond, int originBurst, int maxKeys) {
+    this(mcuserPerSecond, mcuserBurst, originPerSecond, originBurst, maxKeys, Collections.emptySet());
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param mcuserPerSecond the sustained requests per second per mcuser (zero or less for no limit)
+   * @param mcuserBurst the requests per mcuser allowed at once
+   * @param originPerSecond the sustained requests per second per unauthenticated client address (zero or less for no limit)
+   * @param originBurst the requests per unauthenticated client address allowed at once
+   * @param maxKeys the max number of buckets to hold
+   * @param trustedProxies the addresses of the proxies whose X-Forwarded-For header is trusted
+   */
+  public RateLimitHandler(int mcuserPerSecond, int mcuserBurst, int originPerSecond, int originBurst, int maxKeys, Set<String> trustedProxies) {
+    this.trustedProxies = trustedProxies;
+    this.mcuserLimit = mcuserPerSecond > 0 ? new Limit(mcuserPerSecond, mcuserBurst) : null;
+    this.originLimit = originPerSecond > 0 ? new Limit(originPerSecond, originBurst) : null;
+    // a bucket idle for its full tolerance is full and so no different from a new one
+    final long idleNanos = Math.max(
+      Math.max(isNull(mcuserLimit) ? 0L : mcuserLimit.tolerance, isNull(originLimit) ? 0L : originLimit.tolerance),
+      TimeUnit.SECONDS.toNanos(1));
+    this.buckets = Caffeine.newBuilder()
+      .maximumSize(Math.max(maxKeys, 1))
+      .expireAfterAccess(idleNanos, TimeUnit.NANOSECONDS)
+      .build();
+    log.info("Rate limiter created with mcuser: {}/s (burst {}), origin: {}/s (burst {}), Max-Keys: {}, Trusted-Proxies: {}.",
+      mcuserPerSecond, mcuserBurst, originPerSecond, originBurst, maxKeys, trustedProxies);
+  }
+
+  /**
+   * @param metricRegistry the metric registry to record to
+   */
+  void bind(final MetricRegistry metricRegistry) {
+    this.metricRegistry = metricRegistry;
+    metricRegistry.register("ratelimit.keys", (Gauge<Long>) buckets::estimatedSize);
+  }
+
+  @Override
+  public void onStart(StartEvent event) throws Exception {
+    event.getRegistry().maybeGet(MetricRegistry.class).ifPresent(metricRegistry -> {
+      bind(metricRegistry);
+      log.info("Rate limit metrics registered.");
+    });
+  }
+
+  @Override
+  public void handle(Context ctx) throws Exception {
+    final JWTHttpRequestStatus jwtStatus = ctx.getRequest().maybeGet(JWTHttpRequestStatus.class).orElse(null);
+    final boolean mcuser = isNotNull(jwtStatus) && jwtStatus.status().isValid() && isNotNull(jwtStatus.userId());
+    final Limit limit = mcuser ? mcuserLimit : originLimit;
+    if(isNull(limit)) {
+      ctx.next();
+      return;
+    }
+    final Object key;
+    if(mcuser) {
+      key = jwtStatus.userId();
+    } else {
+      final RequestSnapshot rs = getOrCreateRequestSnapshot(ctx);
+      key = clientAddress(rs.getRemoteAddressHost(), rs.getXForwardedFor(), trustedProxies);
+    }
+    final long wait = acquire(key, limit, System.nanoTime());
+    if(wait == 0L) {
+      ctx.next();
+      return;
+    }
+    final MetricRegistry mr = metricRegistry;
+    if(isNotNull(mr)) mr.counter(mcuser ? "ratelimit.throttled.mcuser" : "ratelimit.throttled.origin").inc();
+    log.debug("Rate limit hit for {}.", key);
+    ctx.getResponse().getHeaders().set("Retry-After", Long.toString(retryAfterSeconds(wait)));
+    ctx.clientError(429);
+  }
+
+  /**
+   * Resolve the client address of a request.
+   *
+   * @param remoteAddress the request remote address
+   * @param xForwardedFor the X-Forwarded-For header value (may be null)
+   * @param trustedProxies the trusted proxy addresses
+   * @return the remote address when not a trusted proxy, otherwise the
+   *         right-most X-Forwarded-For address that is not a trusted proxy
+   *         (or the left-most when all are)
+   */
+  static String clientAddress(final String remoteAddress, final String xForwardedFor, final Set<String> trustedProxies) {
+    if(isBlank(xForwardedFor) || !trustedProxies.contains(remoteAddress)) return remoteAddress;
+    final String[] hops = xForwardedFor.split(",");
+    for(int i = hops.length - 1; i >= 0; i--) {
+      final String hop = hops[i].trim();
+      if(!hop.isEmpty() && (i == 0 || !trustedProxies.contains(hop))) return hop;
+    }
+    return remoteAddress;
+  }
+
+  /**
+   * Take a token from the bucket of the given key.
+   *
+   * @param key the requester key
+   * @param limit the applicable limit
+   * @param now the current nano time
+   * @return zero when admitted, otherwise the nanos to wait
+   */
+  long acquire(final Object key, final Limit limit, final long now) {
+    return buckets.get(key, k -> new TokenBucket(now)).tryAcquire(limit, now);
+  }
+
+  /**
+   * @param waitNanos the nanos to wait
+   * @return the whole number of seconds (at least 1) to wait
+   */
+  static long retryAfterSeconds(final long waitNanos) {
+    return Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+  }
+}
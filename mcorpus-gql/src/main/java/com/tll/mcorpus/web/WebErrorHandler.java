@@ -41,6 +41,9 @@ public class WebErrorHandler implements ServerErrorHandler, ClientErrorHandler {
     case 404: // not found
       ctx.getResponse().send("Not Found (404)");
       break;
+    case 429: // too many requests
+      ctx.getResponse().send("Too Many Requests (429)");
+      break;
     default: // default client error response
       ctx.getResponse().send("Bad Client");
       break;
@@ -12,6 +12,9 @@ import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,24 +69,45 @@ public class GraphQLWebContext {
    */
   private static final Pattern regxNA = Pattern.compile("[^\\x00-\\x7F]");  
   
-  protected final Logger log = LoggerFactory.getLogger(getClass());
+  /**
+   * The default max number of distinct parsed queries to hold in memory.
+   */
+  public static final int DEFAULT_PARSED_QUERY_CACHE_MAX_SIZE = 500;
 
-  protected final String query;
-  protected final Map<String, Object> vmap;
-  protected final String qtype;
-  protected final String opName;
-  protected final String firstMethodName;
-  protected final String executionId;
+  /**
+   * The cleansed query along with its parsed type, operation name and first
+   * method name keyed by the raw query string.
+   * <p>
+   * Clients send the same queries over and over so we only run the above regexes
+   * once per distinct query.
+   * <p>
+   * Null when parsed query caching is disabled.
+   */
+  private static volatile Cache<String, String[]> parsedQueries =
+    newParsedQueryCache(DEFAULT_PARSED_QUERY_CACHE_MAX_SIZE);
+
+  private static Cache<String, String[]> newParsedQueryCache(final int maxSize) {
+    return maxSize > 0 ? Caffeine.newBuilder().maximumSize(maxSize).build() : null;
+  }
 
   /**
-   * Constructor.
+   * Set the max number of distinct parsed queries to hold in memory
+   * replacing any currently cached.
    *
-   * @param query           the GraphQL query string
-   * @param vmap            optional query variables expressed as a name/value map
+   * @param maxSize the max cache size where zero or less disables caching
+   *                and queries are always parsed
    */
-  public GraphQLWebContext(String query, Map<String, Object> vmap) {
-    super();
-    
+  public static void setParsedQueryCacheMaxSize(final int maxSize) {
+    parsedQueries = newParsedQueryCache(maxSize);
+  }
+
+  /**
+   * Cleanse and parse the given query string.
+   *
+   * @param query the raw query string
+   * @return array of: cleansed query, query type, operation name, first method name
+   */
+  private static String[] parse(final String query) {
     // clean query: 
     //   null -> ""
     //   trim
@@ -94,15 +118,42 @@ public class GraphQLWebContext {
     Matcher matcher;
     
     matcher = gqlType.matcher(queryCleanedOneline);
-    this.qtype = matcher.matches() ? matcher.group(1) : "";
+    final String qtype = matcher.matches() ? matcher.group(1) : "";
     
     matcher = gqlOperationName.matcher(queryCleanedOneline);
-    this.opName = matcher.matches() ? matcher.group(2) : "";
+    final String opName = matcher.matches() ? matcher.group(2) : "";
     
     matcher = gqlFirstMethodName.matcher(queryCleanedOneline);
-    this.firstMethodName = matcher.matches() ? matcher.group(2) : "";
+    final String firstMethodName = matcher.matches() ? matcher.group(2) : "";
+
+    return new String[] { queryCleaned, qtype, opName, firstMethodName };
+  }
+
+  protected final Logger log = LoggerFactory.getLogger(getClass());
 
-    this.query = queryCleaned;
+  protected final String query;
+  protected final Map<String, Object> vmap;
+  protected final String qtype;
+  protected final String opName;
+  protected final String firstMethodName;
+  protected final String executionId;
+
+  /**
+   * Constructor.
+   *
+   * @param query           the GraphQL query string
+   * @param vmap            optional query variables expressed as a name/value map
+   */
+  public GraphQLWebContext(String query, Map<String, Object> vmap) {
+    super();
+    
+    final Cache<String, String[]> cache = parsedQueries;
+    final String[] parsed = isNull(cache) ? 
+      parse(query) : cache.get(clean(query), GraphQLWebContext::parse);
+    this.query = parsed[0];
+    this.qtype = parsed[1];
+    this.opName = parsed[2];
+    this.firstMethodName = parsed[3];
     this.vmap = vmap;
     this.executionId = uuidToToken(UUID.randomUUID());
   }
@@ -1,11 +1,27 @@
 var timerChartsDataArray = [[],[],[]];
 
+function isGraphQLMetric(name) {
+    return name.indexOf('graphql.') == 0;
+}
+
+function isSqlMetric(name) {
+    return name.indexOf('sql.') == 0;
+}
+
+function timerChartsContainer(name) {
+    if (isGraphQLMetric(name)) return '#gqlTimerCharts';
+    if (isSqlMetric(name)) return '#sqlTimerCharts';
+    return '#timerCharts';
+}
+
 function updateRequestCountChart(data) {
     var requestCount = [];
     requestCount.push(['Url', 'Request Count']);
 
     $.each(data.timers, function (index, value) {
-        requestCount.push([value.name, value.count])
+        if (!isGraphQLMetric(index) && !isSqlMetric(index)) {
+            requestCount.push([value.name, value.count])
+        }
     });
 
     var chartData = google.visualization.arrayToDataTable(requestCount);
@@ -23,7 +39,7 @@ function getTimerDiv(timerName) {
 
     if ($("#" + timerId).length == 0) {
         var newRow = '<h3>' + timerName + '</h3><div class="row" id="' + timerId + '"><div class="col-md-6" style="height: 300px;"></div><div class="col-md-6" style="height: 300px;"></div></div>';
-        $('#timerCharts').prepend(newRow);
+        $(timerChartsContainer(timerName)).prepend(newRow);
     }
 
     return $("#" + timerId);
@@ -103,6 +119,41 @@ function updateTimerCharts(data) {
     });
 }
 
+function updateGraphQLCharts(data) {
+    var errorCount = [];
+    errorCount.push(['Error Type', 'Count']);
+
+    $.each(data.counters, function (name, value) {
+        if (name.indexOf('graphql.errors.') == 0) {
+            errorCount.push([name.substring('graphql.errors.'.length), value.count])
+        } else if (name.indexOf('ratelimit.throttled.') == 0) {
+            errorCount.push(['Throttled (' + name.substring('ratelimit.throttled.'.length) + ')', value.count])
+        }
+    });
+
+    if (errorCount.length > 1) {
+        var chartData = google.visualization.arrayToDataTable(errorCount);
+        var options = {
+            pieHole: 0.4,
+            chartArea: {left:0, width:"100%", height: 250}
+        };
+        var chart = new google.visualization.PieChart(document.getElementById('gqlErrorsChart'));
+        chart.draw(chartData, options);
+    }
+
+    var rows = '';
+    $.each(data.histograms, function (name, value) {
+        if (name.indexOf('graphql.operation.') == 0) {
+            rows += '<tr><td>' + $('<span>').text(name.substring('graphql.operation.'.length, name.length - '.fetches'.length)).html() + '</td>'
+                + '<td>' + value.count + '</td>'
+                + '<td>' + Math.round(value.mean * 10) / 10 + '</td>'
+                + '<td>' + value.p95 + '</td>'
+                + '<td>' + value.max + '</td></tr>';
+        }
+    });
+    $('#gqlFetchesTable tbody').html(rows);
+}
+
 function findElement(arr, propName, propValue) {
     for (var i=0; i < arr.length; i++) {
         if (arr[i][propName] == propValue) {
@@ -155,6 +206,7 @@ function updateCharts(data) {
     var obj = jQuery.parseJSON(data);
     updateRequestCountChart(obj);
     updateTimerCharts(obj);
+    updateGraphQLCharts(obj);
     updateJvmCharts(obj);
 }
 
@@ -0,0 +1,10 @@
+package com.tll;
+
+/**
+ * JUnit marker interface indicating a load test.
+ * <p>
+ * Load tests are NOT run by default.  Activate the <code>loadtest</code>
+ * maven profile to run them.
+ */
+public interface LoadTest {
+}
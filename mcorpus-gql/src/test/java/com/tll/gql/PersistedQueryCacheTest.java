@@ -0,0 +1,85 @@
+package com.tll.gql;
+
+import static com.tll.gql.PersistedQueryCache.PERSISTED_QUERY_NOT_FOUND;
+import static com.tll.gql.PersistedQueryCache.sha256Hex;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.tll.UnitTest;
+import com.tll.repo.FetchResult;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit test methods for verifying the public methods in {@link PersistedQueryCache}.
+ */
+@Category(UnitTest.class)
+public class PersistedQueryCacheTest {
+
+  static final String query = "query { mrefByMid(mid: \"abc\") { mid } }";
+
+  static Map<String, Object> extensions(Object version, String sha256Hash) {
+    final Map<String, Object> pq = new HashMap<>();
+    pq.put("version", version);
+    pq.put("sha256Hash", sha256Hash);
+    final Map<String, Object> extensions = new HashMap<>();
+    extensions.put("persistedQuery", pq);
+    return extensions;
+  }
+
+  @Test
+  public void testNoPersistedQuery() throws Exception {
+    final PersistedQueryCache cache = new PersistedQueryCache(10);
+    FetchResult<String> fr;
+
+    fr = cache.resolve(query, null);
+    assertFalse(fr.hasErrorMsg());
+    assertEquals(query, fr.get());
+
+    fr = cache.resolve(null, new HashMap<>());
+    assertFalse(fr.hasErrorMsg());
+    assertNull(fr.get());
+  }
+
+  @Test
+  public void testRegisterThenResolveByHash() throws Exception {
+    final PersistedQueryCache cache = new PersistedQueryCache(10);
+    final String hash = sha256Hex(query);
+    FetchResult<String> fr;
+
+    // unknown hash
+    fr = cache.resolve(null, extensions(1, hash));
+    assertEquals(PERSISTED_QUERY_NOT_FOUND, fr.getErrorMsg());
+
+    // register
+    fr = cache.resolve(query, extensions(1, hash));
+    assertTrue(fr.isSuccess());
+    assertEquals(query, fr.get());
+
+    // hash only
+    fr = cache.resolve("", extensions(1, hash.toUpperCase()));
+    assertTrue(fr.isSuccess());
+    assertEquals(query, fr.get());
+  }
+
+  @Test
+  public void testInvalidPersistedQuery() throws Exception {
+    final PersistedQueryCache cache = new PersistedQueryCache(10);
+
+    // hash mismatch
+    assertTrue(cache.resolve(query, extensions(1, sha256Hex("query { other }"))).hasErrorMsg());
+    assertEquals(PERSISTED_QUERY_NOT_FOUND, cache.resolve(null, extensions(1, sha256Hex("query { other }"))).getErrorMsg());
+
+    // bad version
+    assertTrue(cache.resolve(query, extensions(2, sha256Hex(query))).hasErrorMsg());
+
+    // missing hash
+    assertTrue(cache.resolve(query, extensions(1, null)).hasErrorMsg());
+  }
+}
@@ -0,0 +1,188 @@
+package com.tll.jwt;
+
+import static com.tll.repo.FetchResult.fetchrslt;
+import static org.junit.Assert.assertEquals;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.tll.UnitTest;
+import com.tll.jwt.IJwtBackendHandler.JwtBackendStatus;
+import com.tll.repo.FetchResult;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit test methods for verifying the caching behavior of {@link CachingJwtBackendHandler}.
+ */
+@Category(UnitTest.class)
+public class CachingJwtBackendHandlerTest {
+
+  /**
+   * Backend stub counting status fetches and reporting a configurable status.
+   */
+  static class StubJwtBackendHandler implements IJwtBackendHandler {
+
+    final AtomicInteger numStatusFetches = new AtomicInteger();
+    volatile JwtBackendStatus status = JwtBackendStatus.VALID;
+    volatile Runnable duringStatusFetch;
+
+    @Override
+    public FetchResult<JwtBackendStatus> getBackendJwtStatus(UUID jwtId, UUID jwtUserId) {
+      numStatusFetches.incrementAndGet();
+      final JwtBackendStatus fetched = status;
+      if(duringStatusFetch != null) duringStatusFetch.run();
+      return fetchrslt(fetched);
+    }
+
+    @Override
+    public FetchResult<Integer> getNumActiveJwtLogins(UUID jwtUserId) {
+      return fetchrslt(1);
+    }
+
+    @Override
+    public FetchResult<IJwtUser> jwtBackendLogin(String username, String pswd, UUID pendingJwtId,
+        String clientOriginToken, Instant requestInstant, Instant jwtExpiration) {
+      return fetchrslt(null, "not supported");
+    }
+
+    @Override
+    public FetchResult<Boolean> jwtBackendLogout(UUID jwtUserId, UUID jwtId, String clientOriginToken,
+        Instant requestInstant) {
+      return fetchrslt(Boolean.TRUE);
+    }
+
+    @Override
+    public FetchResult<Boolean> jwtInvalidateAllForUser(UUID jwtUserId, String clientOriginToken,
+        Instant requestInstant) {
+      return fetchrslt(Boolean.TRUE);
+    }
+  }
+
+  @Test
+  public void testCacheHit() throws Exception {
+    final StubJwtBackendHandler target = new StubJwtBackendHandler();
+    final CachingJwtBackendHandler handler = new CachingJwtBackendHandler(target, 10, 100);
+    final UUID userId = UUID.randomUUID();
+    final UUID jwtId = UUID.randomUUID();
+
+    assertEquals(JwtBackendStatus.VALID, handler.getBackendJwtStatus(jwtId, userId).get());
+    assertEquals(JwtBackendStatus.VALID, handler.getBackendJwtStatus(jwtId, userId).get());
+    assertEquals(1, target.numStatusFetches.get());
+    assertEquals(1L, handler.stats().hitCount());
+    assertEquals(1L, handler.stats().missCount());
+  }
+
+  @Test
+  public void testErrorNotCached() throws Exception {
+    final StubJwtBackendHandler target = new StubJwtBackendHandler();
+    final CachingJwtBackendHandler handler = new CachingJwtBackendHandler(target, 10, 100);
+    final UUID userId = UUID.randomUUID();
+    final UUID jwtId = UUID.randomUUID();
+
+    target.status = JwtBackendStatus.ERROR;
+    handler.getBackendJwtStatus(jwtId, userId);
+    target.status = JwtBackendStatus.VALID;
+    assertEquals(JwtBackendStatus.VALID, handler.getBackendJwtStatus(jwtId, userId).get());
+    assertEquals(2, target.numStatusFetches.get());
+  }
+
+  @Test
+  public void testInvalidateAllForUser() throws Exception {
+    final StubJwtBackendHandler target = new StubJwtBackendHandler();
+    final CachingJwtBackendHandler handler = new CachingJwtBackendHandler(target, 10, 100);
+    final UUID userId = UUID.randomUUID();
+    final UUID otherUserId = UUID.randomUUID();
+    final UUID jwtId1 = UUID.randomUUID();
+    final UUID jwtId2 = UUID.randomUUID();
+    final UUID otherJwtId = UUID.randomUUID();
+
+    handler.getBackendJwtStatus(jwtId1, userId);
+    handler.getBackendJwtStatus(jwtId2, userId);
+    handler.getBackendJwtStatus(otherJwtId, otherUserId);
+    assertEquals(3, target.numStatusFetches.get());
+    // index pruning doesn't count as cache hits
+    assertEquals(0L, handler.stats().hitCount());
+
+    handler.jwtInvalidateAllForUser(userId, "origin", Instant.now());
+    target.status = JwtBackendStatus.BLACKLISTED;
+
+    // the user's jwts are re-fetched
+    assertEquals(JwtBackendStatus.BLACKLISTED, handler.getBackendJwtStatus(jwtId1, userId).get());
+    assertEquals(JwtBackendStatus.BLACKLISTED, handler.getBackendJwtStatus(jwtId2, userId).get());
+    assertEquals(5, target.numStatusFetches.get());
+
+    // other users are unaffected
+    assertEquals(JwtBackendStatus.VALID, handler.getBackendJwtStatus(otherJwtId, otherUserId).get());
+    assertEquals(5, target.numStatusFetches.get());
+  }
+
+  @Test
+  public void testLogoutEvicts() throws Exception {
+    final StubJwtBackendHandler target = new StubJwtBackendHandler();
+    final CachingJwtBackendHandler handler = new CachingJwtBackendHandler(target, 10, 100);
+    final UUID userId = UUID.randomUUID();
+    final UUID jwtId = UUID.randomUUID();
+
+    handler.getBackendJwtStatus(jwtId, userId);
+    handler.jwtBackendLogout(userId, jwtId, "origin", Instant.now());
+    target.status = JwtBackendStatus.BLACKLISTED;
+    assertEquals(JwtBackendStatus.BLACKLISTED, handler.getBackendJwtStatus(jwtId, userId).get());
+  }
+
+  @Test
+  public void testInvalidateAllForUserDuringFetch() throws Exception {
+    final StubJwtBackendHandler target = new StubJwtBackendHandler();
+    final CachingJwtBackendHandler handler = new CachingJwtBackendHandler(target, 10, 100);
+    final UUID userId = UUID.randomUUID();
+    final UUID jwtId = UUID.randomUUID();
+
+    // the user's jwts are invalidated while the (now stale) VALID status is in flight
+    target.duringStatusFetch = () -> {
+      target.duringStatusFetch = null;
+      target.status = JwtBackendStatus.BLACKLISTED;
+      handler.jwtInvalidateAllForUser(userId, "origin", Instant.now());
+    };
+    assertEquals(JwtBackendStatus.VALID, handler.getBackendJwtStatus(jwtId, userId).get());
+
+    // the stale status was not cached
+    assertEquals(JwtBackendStatus.BLACKLISTED, handler.getBackendJwtStatus(jwtId, userId).get());
+    assertEquals(2, target.numStatusFetches.get());
+
+    // and subsequent fetches are cached again
+    assertEquals(JwtBackendStatus.BLACKLISTED, handler.getBackendJwtStatus(jwtId, userId).get());
+    assertEquals(2, target.numStatusFetches.get());
+  }
+
+  @Test
+  public void testEvictDuringFetch() throws Exception {
+    final StubJwtBackendHandler target = new StubJwtBackendHandler();
+    final CachingJwtBackendHandler handler = new CachingJwtBackendHandler(target, 10, 100);
+    final UUID userId = UUID.randomUUID();
+    final UUID jwtId = UUID.randomUUID();
+
+    // revoked elsewhere (notified) while the stale VALID status is in flight
+    target.duringStatusFetch = () -> {
+      target.duringStatusFetch = null;
+      target.status = JwtBackendStatus.BLACKLISTED;
+      handler.evict(jwtId);
+    };
+    handler.getBackendJwtStatus(jwtId, userId);
+    assertEquals(JwtBackendStatus.BLACKLISTED, handler.getBackendJwtStatus(jwtId, userId).get());
+    assertEquals(2, target.numStatusFetches.get());
+
+    // and likewise upon evicting all
+    final UUID jwtId2 = UUID.randomUUID();
+    target.status = JwtBackendStatus.VALID;
+    target.duringStatusFetch = () -> {
+      target.duringStatusFetch = null;
+      target.status = JwtBackendStatus.BLACKLISTED;
+      handler.evictAll();
+    };
+    handler.getBackendJwtStatus(jwtId2, null);
+    assertEquals(JwtBackendStatus.BLACKLISTED, handler.getBackendJwtStatus(jwtId2, null).get());
+    assertEquals(4, target.numStatusFetches.get());
+  }
+}
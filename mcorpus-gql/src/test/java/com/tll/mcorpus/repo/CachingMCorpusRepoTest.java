@@ -0,0 +1,155 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.mcorpus.db.Tables.MAUTH;
+import static com.tll.mcorpus.db.Tables.MEMBER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import com.tll.UnitTest;
+import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.db.enums.MemberStatus;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+import com.tll.mcorpus.dmodel.MemberSearch;
+import com.tll.repo.FetchResult;
+
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.SortField;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for {@link CachingMCorpusRepo} against a mock db.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class CachingMCorpusRepoTest {
+
+  static final Field<?>[] memberFields = new Field<?>[] {
+    MEMBER.MID, MEMBER.CREATED, MEMBER.MODIFIED, MEMBER.EMP_ID, MEMBER.LOCATION, MEMBER.NAME_FIRST, MEMBER.NAME_MIDDLE, MEMBER.NAME_LAST, MEMBER.DISPLAY_NAME, MEMBER.STATUS,
+    MAUTH.DOB, MAUTH.SSN, MAUTH.EMAIL_PERSONAL, MAUTH.EMAIL_WORK, MAUTH.MOBILE_PHONE, MAUTH.HOME_PHONE, MAUTH.WORK_PHONE, MAUTH.FAX, MAUTH.USERNAME
+  };
+
+  /**
+   * @return a data source whose every query returns the given (one or no) member
+   *         (deletes the number of members) and counts the number of queries.
+   */
+  static DataSource mockDataSource(final UUID mid, final AtomicInteger numQueries) {
+    final DSLContext ctx = DSL.using(SQLDialect.POSTGRES);
+    final Result<Record> result = ctx.newResult(memberFields);
+    if(mid != null) {
+      final Record r = ctx.newRecord(memberFields);
+      r.set(MEMBER.MID, mid);
+      r.set(MEMBER.EMP_ID, "01-0000001");
+      r.set(MEMBER.LOCATION, Location._01);
+      r.set(MEMBER.STATUS, MemberStatus.ACTIVE);
+      r.set(MAUTH.SSN, "123456789");
+      result.add(r);
+    }
+    return (DataSource) Proxy.newProxyInstance(
+      CachingMCorpusRepoTest.class.getClassLoader(),
+      new Class<?>[] { DataSource.class },
+      (proxy, method, args) -> "getConnection".equals(method.getName()) ?
+        new MockConnection(mctx -> {
+          numQueries.incrementAndGet();
+          if(mctx.sql().toLowerCase().startsWith("delete")) return new MockResult[] { new MockResult(result.size()) };
+          return new MockResult[] { new MockResult(result.size(), result) };
+        }) : null
+    );
+  }
+
+  @Test
+  public void testReadThroughAndEvict() {
+    final UUID mid = UUID.randomUUID();
+    final AtomicInteger numQueries = new AtomicInteger();
+    final CachingMCorpusRepo repo = new CachingMCorpusRepo(mockDataSource(mid, numQueries), null, null, null, null, 5, 10);
+
+    FetchResult<MemberAndMauth> fr = repo.fetchMember(mid);
+    assertTrue(fr.isSuccess());
+    assertEquals("01-0000001", fr.get().dbMember.getEmpId());
+    assertEquals("123456789", fr.get().dbMauth.getSsn()); // pii is cached
+    assertEquals(1, numQueries.get());
+
+    fr = repo.fetchMember(mid);
+    assertTrue(fr.isSuccess());
+    assertEquals(1, numQueries.get()); // cache hit
+    assertEquals(1L, repo.memberCacheStats().hitCount());
+
+    repo.evict(mid);
+    assertTrue(repo.fetchMember(mid).isSuccess());
+    assertEquals(2, numQueries.get()); // reloaded
+  }
+
+  @Test
+  public void testNotFoundNotCached() {
+    final UUID mid = UUID.randomUUID();
+    final AtomicInteger numQueries = new AtomicInteger();
+    final CachingMCorpusRepo repo = new CachingMCorpusRepo(mockDataSource(null, numQueries), null, null, null, null, 5, 10);
+
+    FetchResult<MemberAndMauth> fr = repo.fetchMember(mid);
+    assertFalse(fr.isSuccess());
+    assertTrue(fr.getErrorMsg().startsWith("No member found"));
+
+    fr = repo.fetchMember(mid);
+    assertFalse(fr.isSuccess());
+    assertEquals(2, numQueries.get());
+  }
+
+  static MemberSearch search(final Object key) {
+    return new MemberSearch(new Condition[0], new SortField<?>[] { MEMBER.CREATED.desc() }, 0, 10, false, key);
+  }
+
+  @Test
+  public void testSearchCacheGeneration() {
+    final UUID mid = UUID.randomUUID();
+    final AtomicInteger numQueries = new AtomicInteger();
+    final CachingMCorpusRepo repo = new CachingMCorpusRepo(mockDataSource(mid, numQueries), null, null, null, null, 5, 10, 5, 100);
+    assertTrue(repo.isCachingSearches());
+
+    FetchResult<List<MemberAndMauth>> fr = repo.memberSearch(search("k"));
+    assertTrue(fr.isSuccess());
+    assertEquals(1, fr.get().size());
+    assertEquals(1, numQueries.get());
+
+    // cache hit (same key and projection)
+    fr = repo.memberSearch(search("k"));
+    assertEquals(mid, fr.get().get(0).dbMember.getMid());
+    assertEquals(1, numQueries.get());
+
+    // un-keyed searches, other keys and other projections are fetched
+    repo.memberSearch(search(null));
+    repo.memberSearch(search(null));
+    assertEquals(3, numQueries.get());
+    repo.memberSearch(search("k2"));
+    assertEquals(4, numQueries.get());
+    repo.memberSearch(search("k"), MemberProjection.of(Collections.singletonList(MEMBER.NAME_LAST)));
+    assertEquals(5, numQueries.get());
+
+    // a member mutation invalidates all cached searches
+    final long generation = repo.memberGeneration();
+    assertTrue(repo.deleteMember(mid).isSuccess());
+    assertEquals(6, numQueries.get());
+    assertEquals(generation + 1, repo.memberGeneration());
+    repo.memberSearch(search("k"));
+    assertEquals(7, numQueries.get());
+    repo.memberSearch(search("k"));
+    assertEquals(7, numQueries.get());
+  }
+}
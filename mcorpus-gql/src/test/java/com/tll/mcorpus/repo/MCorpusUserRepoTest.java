@@ -7,6 +7,7 @@ import static com.tll.mcorpus.MCorpusTestUtil.testDslMcwebTest;
 import static com.tll.mcorpus.MCorpusTestUtil.testRequestOrigin;
 import static com.tll.mcorpus.db.Tables.MCUSER;
 import static com.tll.mcorpus.db.Tables.MCUSER_AUDIT;
+import static com.tll.mcorpus.db.Tables.MCUSER_SESSION;
 import static junit.framework.TestCase.assertNull;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -139,7 +140,7 @@ public class MCorpusUserRepoTest {
   }
 
   /**
-   * Add a test mcuser_audit record.
+   * Add a test mcuser_audit LOGIN record and its mcuser_session record.
    *
    * @return Newly created McuserAudit pojo corresponding to the added
    *         MCUSER_AUDIT test record.
@@ -180,6 +181,21 @@ public class MCorpusUserRepoTest {
 
     if(numInserted != 1) throw new Exception("Num inserted MCUSER_AUDIT records: " + numInserted);
 
+    // the jwt id status is held in the mcuser_session table
+    final int numSessionsInserted = testDslMcweb().insertInto(MCUSER_SESSION,
+        MCUSER_SESSION.JWT_ID,
+        MCUSER_SESSION.UID,
+        MCUSER_SESSION.STATUS,
+        MCUSER_SESSION.EXPIRATION
+      ).values(
+          e.getJwtId(),
+          uid,
+          JwtIdStatus.OK,
+          e.getLoginExpiration()
+      ).execute();
+
+    if(numSessionsInserted != 1) throw new Exception("Num inserted mcuser_session records: " + numSessionsInserted);
+
     return e;
   }
 
@@ -0,0 +1,90 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.mcorpus.db.Tables.MAUTH;
+import static com.tll.mcorpus.db.Tables.MEMBER;
+import static com.tll.mcorpus.repo.MemberRecordMappers.MEMBER_AND_MAUTH_FIELDS;
+import static com.tll.mcorpus.repo.MemberRecordMappersTest.memberAndMauthValues;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import com.tll.UnitTest;
+import com.tll.mcorpus.db.enums.Addressname;
+import com.tll.mcorpus.dmodel.MemberAndMaddresses;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for {@link MemberProjection}.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class MemberProjectionTest {
+
+  @Test
+  public void testOf() {
+    assertSame(MemberProjection.ALL, MemberProjection.of(Arrays.asList(MEMBER_AND_MAUTH_FIELDS)));
+    assertTrue(MemberProjection.ALL.isAll());
+    assertTrue(MemberProjection.ALL.mauth);
+
+    // not a selectable column
+    assertSame(MemberProjection.ALL, MemberProjection.of(Arrays.asList(MEMBER.NAME_LAST, MAUTH.PSWD)));
+
+    // mid only
+    final MemberProjection mid = MemberProjection.of(Collections.emptyList());
+    assertArrayEquals(new Field<?>[] { MEMBER.MID }, mid.fields);
+    assertFalse(mid.mauth);
+
+    // member only columns (in select list order) and shared
+    final MemberProjection names = MemberProjection.of(Arrays.asList(MEMBER.NAME_LAST, MEMBER.NAME_FIRST));
+    assertArrayEquals(new Field<?>[] { MEMBER.MID, MEMBER.NAME_FIRST, MEMBER.NAME_LAST }, names.fields);
+    assertFalse(names.isAll());
+    assertFalse(names.mauth);
+    assertSame(names, MemberProjection.of(Arrays.asList(MEMBER.MID, MEMBER.NAME_FIRST, MEMBER.NAME_LAST)));
+
+    // mauth column
+    assertTrue(MemberProjection.of(Collections.singletonList(MAUTH.USERNAME)).mauth);
+  }
+
+  @Test
+  public void testMap() {
+    final UUID mid = UUID.randomUUID();
+    final OffsetDateTime created = OffsetDateTime.now();
+    final Object[] vals = memberAndMauthValues(mid, created);
+    final MemberProjection p = MemberProjection.of(Arrays.asList(MEMBER.NAME_LAST, MAUTH.USERNAME));
+
+    final Record r = MemberRecordMappersTest.dsl.newRecord(p.fields);
+    r.fromArray(mid, vals[7], vals[17]);
+    final MemberAndMauth manda = p.mapper.map(r);
+    assertEquals(mid, manda.dbMember.getMid());
+    assertEquals("Last", manda.dbMember.getNameLast());
+    assertNull(manda.dbMember.getNameFirst());
+    assertNull(manda.dbMember.getCreated());
+    assertEquals("username1", manda.dbMauth.getUsername());
+    assertNull(manda.dbMauth.getDob());
+
+    final Result<Record> rlist = MemberRecordMappersTest.dsl.newResult(p.fieldsWithAddresses);
+    final Record ra = MemberRecordMappersTest.dsl.newRecord(p.fieldsWithAddresses);
+    ra.fromArray(mid, vals[7], vals[17], Addressname.home, created, null, "1 Main St.", null, "Oakland", "CA", "94601", "USA");
+    rlist.add(ra);
+    final MemberAndMaddresses mandas = p.toOneMemberAndMaddresses(rlist);
+    assertEquals("Last", mandas.member.dbMember.getNameLast());
+    assertEquals(1, mandas.addresses.size());
+    assertEquals("1 Main St.", mandas.addresses.get(0).getStreet1());
+    assertEquals("USA", mandas.addresses.get(0).getCountry());
+  }
+}
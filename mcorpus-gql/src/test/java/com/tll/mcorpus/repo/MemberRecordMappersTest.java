@@ -0,0 +1,105 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.mcorpus.repo.MemberRecordMappers.MEMBER_AND_MAUTH;
+import static com.tll.mcorpus.repo.MemberRecordMappers.MEMBER_AND_MAUTH_AND_MADDRESS_FIELDS;
+import static com.tll.mcorpus.repo.MemberRecordMappers.MEMBER_AND_MAUTH_FIELDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import com.tll.UnitTest;
+import com.tll.mcorpus.db.enums.Addressname;
+import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.db.enums.MemberStatus;
+import com.tll.mcorpus.dmodel.MemberAndMaddresses;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for {@link MemberRecordMappers}.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class MemberRecordMappersTest {
+
+  static final DSLContext dsl = DSL.using(SQLDialect.POSTGRES);
+
+  static Object[] memberAndMauthValues(final UUID mid, final OffsetDateTime created) {
+    return new Object[] {
+      mid, created, created, "01-0000001", Location._01, "First", "Middle", "Last", "Display", MemberStatus.ACTIVE,
+      LocalDate.of(1970, 1, 1), "123-45-6789", "p@domain.com", "w@domain.com", "415-555-1212", "415-555-1213", "415-555-1214", "username1"
+    };
+  }
+
+  static Object[] concat(final Object[] a, final Object... b) {
+    final Object[] c = Arrays.copyOf(a, a.length + b.length);
+    System.arraycopy(b, 0, c, a.length, b.length);
+    return c;
+  }
+
+  @Test
+  public void testMemberAndMauth() {
+    final UUID mid = UUID.randomUUID();
+    final OffsetDateTime created = OffsetDateTime.now();
+    final Record r = dsl.newRecord(MEMBER_AND_MAUTH_FIELDS);
+    r.fromArray(memberAndMauthValues(mid, created));
+
+    final MemberAndMauth manda = MEMBER_AND_MAUTH.map(r);
+    assertEquals(mid, manda.dbMember.getMid());
+    assertEquals(created, manda.dbMember.getCreated());
+    assertEquals(Location._01, manda.dbMember.getLocation());
+    assertEquals("Last", manda.dbMember.getNameLast());
+    assertEquals(MemberStatus.ACTIVE, manda.dbMember.getStatus());
+    assertEquals(mid, manda.dbMauth.getMid());
+    assertEquals(LocalDate.of(1970, 1, 1), manda.dbMauth.getDob());
+    assertEquals("415-555-1214", manda.dbMauth.getWorkPhone());
+    assertEquals("username1", manda.dbMauth.getUsername());
+    assertNull(manda.dbMauth.getPswd());
+  }
+
+  @Test
+  public void testOneMemberAndMaddresses() {
+    final UUID mid = UUID.randomUUID();
+    final OffsetDateTime created = OffsetDateTime.now();
+    final OffsetDateTime addressModified = created.minusDays(1);
+
+    // member with no addresses (left join)
+    final Result<Record> noAddresses = dsl.newResult(MEMBER_AND_MAUTH_AND_MADDRESS_FIELDS);
+    Record r = dsl.newRecord(MEMBER_AND_MAUTH_AND_MADDRESS_FIELDS);
+    r.fromArray(concat(memberAndMauthValues(mid, created), null, null, null, null, null, null, null, null, null));
+    noAddresses.add(r);
+    MemberAndMaddresses mandas = MemberRecordMappers.toOneMemberAndMaddresses(noAddresses);
+    assertEquals(mid, mandas.member.dbMember.getMid());
+    assertTrue(mandas.addresses.isEmpty());
+
+    // member with two addresses
+    final Result<Record> twoAddresses = dsl.newResult(MEMBER_AND_MAUTH_AND_MADDRESS_FIELDS);
+    r = dsl.newRecord(MEMBER_AND_MAUTH_AND_MADDRESS_FIELDS);
+    r.fromArray(concat(memberAndMauthValues(mid, created), Addressname.home, addressModified, null, "1 Main St.", null, "Oakland", "CA", "94601", "USA"));
+    twoAddresses.add(r);
+    r = dsl.newRecord(MEMBER_AND_MAUTH_AND_MADDRESS_FIELDS);
+    r.fromArray(concat(memberAndMauthValues(mid, created), Addressname.work, addressModified, "attn", "2 Main St.", null, "Oakland", "CA", "94601", "USA"));
+    twoAddresses.add(r);
+    mandas = MemberRecordMappers.toOneMemberAndMaddresses(twoAddresses);
+    assertEquals(2, mandas.addresses.size());
+    assertEquals(mid, mandas.addresses.get(0).getMid());
+    assertEquals(Addressname.home, mandas.addresses.get(0).getAddressName());
+    assertEquals(addressModified, mandas.addresses.get(0).getModified());
+    assertEquals("1 Main St.", mandas.addresses.get(0).getStreet1());
+    assertEquals("attn", mandas.addresses.get(1).getAttn());
+    assertEquals("USA", mandas.addresses.get(1).getCountry());
+  }
+}
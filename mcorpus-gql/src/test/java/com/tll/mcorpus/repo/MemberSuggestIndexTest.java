@@ -0,0 +1,155 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.mcorpus.db.Tables.MEMBER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import com.tll.UnitTest;
+import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.dmodel.MemberSuggestion;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for {@link MemberSuggestIndex} loaded from a mock db.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class MemberSuggestIndexTest {
+
+  static final UUID mid1 = UUID.randomUUID();
+  static final UUID mid2 = UUID.randomUUID();
+  static final UUID mid3 = UUID.randomUUID();
+
+  static final Field<OffsetDateTime> lastChanged = PolledMemberIndex.lastChanged();
+
+  /**
+   * @return a data source whose member table holds three members.
+   */
+  static DataSource mockDataSource() {
+    final DSLContext ctx = DSL.using(SQLDialect.POSTGRES);
+    final Field<?>[] fields = new Field<?>[] {
+      MEMBER.MID, MEMBER.EMP_ID, MEMBER.LOCATION, MEMBER.NAME_FIRST, MEMBER.NAME_LAST, MEMBER.DISPLAY_NAME, lastChanged
+    };
+    final Result<Record> members = ctx.newResult(fields);
+    members.add(member(ctx, fields, mid1, "01-0000001", Location._01, "José", "Smith", null));
+    members.add(member(ctx, fields, mid2, "01-0000002", Location._02, "Jane", "Smythe", "JJ"));
+    members.add(member(ctx, fields, mid3, "01-0000003", Location._01, "Adam", "Jones", null));
+    final Result<Record> count = ctx.newResult(new Field<?>[] { DSL.count() });
+    count.add(ctx.newRecord(DSL.count()).value1(Integer.valueOf(members.size())));
+    return (DataSource) Proxy.newProxyInstance(
+      MemberSuggestIndexTest.class.getClassLoader(),
+      new Class<?>[] { DataSource.class },
+      (proxy, method, args) -> "getConnection".equals(method.getName()) ?
+        new MockConnection(mctx -> {
+          final Result<Record> r = mctx.sql().toLowerCase().contains("count(") ? count : members;
+          return new MockResult[] { new MockResult(r.size(), r) };
+        }) : null
+    );
+  }
+
+  static Record member(DSLContext ctx, Field<?>[] fields, UUID mid, String empId, Location loc, String first, String last, String display) {
+    final Record r = ctx.newRecord(fields);
+    r.set(MEMBER.MID, mid);
+    r.set(MEMBER.EMP_ID, empId);
+    r.set(MEMBER.LOCATION, loc);
+    r.set(MEMBER.NAME_FIRST, first);
+    r.set(MEMBER.NAME_LAST, last);
+    r.set(MEMBER.DISPLAY_NAME, display);
+    r.set(lastChanged, OffsetDateTime.now());
+    return r;
+  }
+
+  static List<UUID> mids(final List<MemberSuggestion> list) {
+    return list.stream().map(ms -> ms.mref.getMid()).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testNormalize() {
+    assertEquals("jose maria", MemberSuggestIndex.normalize("  José-María "));
+    assertEquals("o brien", MemberSuggestIndex.normalize("O'Brien"));
+    assertEquals("", MemberSuggestIndex.normalize(null));
+  }
+
+  @Test
+  public void testSuggest() {
+    final MemberSuggestIndex index = new MemberSuggestIndex(mockDataSource(), 5, 60);
+    assertNull(index.suggest("sm", null, 10)); // not loaded
+    index.load();
+    assertTrue(index.isLoaded());
+
+    List<MemberSuggestion> list = index.suggest("SM", null, 10);
+    assertEquals(2, list.size());
+    assertEquals(mid1, list.get(0).mref.getMid()); // smith < smythe
+    assertEquals("José Smith", list.get(0).displayName);
+    assertEquals("01-0000001", list.get(0).mref.getEmpId());
+    assertEquals("JJ", list.get(1).displayName);
+
+    assertEquals(1, index.suggest("sm", Location._02, 10).size());
+    assertEquals(1, index.suggest("sm", null, 1).size());
+    assertEquals(mids(index.suggest("jose sm", null, 10)), Arrays.asList(mid1));
+    // one suggestion per member though matching many names
+    assertEquals(mids(index.suggest("j", null, 10)), Arrays.asList(mid2, mid3, mid1)); // jane < jones < jose
+    assertTrue(index.suggest("x", null, 10).isEmpty());
+  }
+
+  @Test
+  public void testIncrementalChanges() {
+    final MemberSuggestIndex index = new MemberSuggestIndex(mockDataSource(), 5, 60);
+    index.load();
+
+    // rename: old names no longer match
+    index.put(mid1, "01-0000001", Location._01, "Joseph", "Zed", null);
+    assertEquals(mids(index.suggest("sm", null, 10)), Arrays.asList(mid2));
+    assertEquals(mids(index.suggest("z", null, 10)), Arrays.asList(mid1));
+
+    // added member merges in name order
+    final UUID mid4 = UUID.randomUUID();
+    index.put(mid4, "01-0000004", Location._01, "Sam", "Smart", null);
+    assertEquals(mids(index.suggest("sm", null, 10)), Arrays.asList(mid4, mid2));
+
+    index.remove(mid2);
+    index.remove(mid4);
+    assertTrue(index.suggest("sm", null, 10).isEmpty());
+  }
+
+  @Test
+  public void testOverlayReload() {
+    final MemberSuggestIndex index = new MemberSuggestIndex(mockDataSource(), 5, 60);
+    index.load();
+    assertFalse(index.isReloadRequested());
+
+    // each member adds a first, last and full name key to the overlay
+    for(int i = 0; !index.isReloadRequested(); i++) {
+      assertTrue(i <= MemberSuggestIndex.MAX_OVERLAY_KEYS);
+      index.put(UUID.randomUUID(), "01-" + i, Location._01, "First" + i, "Last" + i, null);
+    }
+
+    // the reload folds the overlay back into the snapshot
+    index.load();
+    assertFalse(index.isReloadRequested());
+    assertEquals(mids(index.suggest("sm", null, 10)), Arrays.asList(mid1, mid2));
+    assertTrue(index.suggest("first", null, 10).isEmpty());
+  }
+}
@@ -0,0 +1,95 @@
+package com.tll.mcorpus.repo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.tll.UnitTest;
+import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.db.udt.pojos.Mref;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.postgresql.ds.PGSimpleDataSource;
+
+/**
+ * Unit tests for {@link MrefIndex}.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class MrefIndexTest {
+
+  @Test
+  public void testPackEmpId() {
+    assertEquals(0, MrefIndex.packEmpId("00-0000000"));
+    assertEquals(999999999, MrefIndex.packEmpId("99-9999999"));
+    assertEquals("01-0012345", MrefIndex.unpackEmpId(MrefIndex.packEmpId("01-0012345")));
+    assertEquals(-1, MrefIndex.packEmpId("01-001234"));
+    assertEquals(-1, MrefIndex.packEmpId("01_0012345"));
+    assertEquals(-1, MrefIndex.packEmpId("0a-0012345"));
+    assertEquals(-1, MrefIndex.packEmpId(null));
+  }
+
+  @Test
+  public void testTableGrowAndLookup() {
+    final int n = 5000;
+    final UUID[] mids = new UUID[n];
+    MrefIndex.Table table = new MrefIndex.Table(0);
+    for(int i = 0; i < n; i++) {
+      mids[i] = UUID.randomUUID();
+      if(table.isFull()) table = table.resized(table.numLive * 2);
+      table.put(mids[i].getMostSignificantBits(), mids[i].getLeastSignificantBits(), i / 2, (byte) (i % 2));
+    }
+    assertEquals(n, table.numLive);
+    for(int i = 0; i < n; i++) {
+      final Mref mref = table.byMid(mids[i]);
+      assertEquals(mids[i], mref.getMid());
+      assertEquals(MrefIndex.unpackEmpId(i / 2), mref.getEmpId());
+      assertEquals(Location.values()[i % 2], mref.getLocation());
+    }
+    assertEquals(2, table.byEmpId(10, null).size());
+    assertEquals(mids[21], table.byEmpId(10, Location.values()[1]).get(0).getMid());
+    assertNull(table.byMid(UUID.randomUUID()));
+  }
+
+  @Test
+  public void testMutations() {
+    final MrefIndex index = new MrefIndex(new PGSimpleDataSource(), 0, 60);
+    final UUID mid = UUID.randomUUID();
+
+    // nothing answered before loaded
+    assertNull(index.byMid(mid));
+
+    final MrefIndex.Table t = new MrefIndex.Table(0);
+    t.put(mid.getMostSignificantBits(), mid.getLeastSignificantBits(), MrefIndex.packEmpId("01-0000001"), (byte) Location._01.ordinal());
+    assertEquals("01-0000001", t.byMid(mid).getEmpId());
+
+    // emp id change supersedes the row
+    t.put(mid.getMostSignificantBits(), mid.getLeastSignificantBits(), MrefIndex.packEmpId("02-0000002"), (byte) Location._02.ordinal());
+    assertEquals(1, t.numLive);
+    assertEquals("02-0000002", t.byMid(mid).getEmpId());
+    assertTrue(t.byEmpId(MrefIndex.packEmpId("01-0000001"), null).isEmpty());
+    assertEquals(Location._02, t.byEmpId(MrefIndex.packEmpId("02-0000002"), null).get(0).getLocation());
+
+    // location change updates in place
+    t.put(mid.getMostSignificantBits(), mid.getLeastSignificantBits(), MrefIndex.packEmpId("02-0000002"), (byte) Location._20.ordinal());
+    assertEquals(2, t.numRows);
+    assertEquals(Location._20, t.byMid(mid).getLocation());
+
+    t.remove(mid.getMostSignificantBits(), mid.getLeastSignificantBits());
+    assertEquals(0, t.numLive);
+    assertNull(t.byMid(mid));
+    assertEquals(0, t.resized(0).numRows);
+
+    // un-indexed mids are handed back
+    final Map<UUID, Mref> found = new HashMap<>();
+    assertEquals(1, index.byMids(Arrays.asList(mid), found).size());
+    assertTrue(found.isEmpty());
+  }
+}
@@ -0,0 +1,93 @@
+package com.tll.mcorpus.repo;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import com.tll.UnitTest;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.postgresql.ds.PGSimpleDataSource;
+
+/**
+ * Unit tests for {@link ReadRouter}.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class ReadRouterTest {
+
+  /**
+   * Read router whose replica lag check result is fixed.
+   */
+  static class TestReadRouter extends ReadRouter {
+
+    final boolean replicaCurrent;
+
+    TestReadRouter(boolean replicaCurrent) {
+      super(new PGSimpleDataSource(), new PGSimpleDataSource(), 5, 60);
+      this.replicaCurrent = replicaCurrent;
+      updateReplicaCurrent();
+    }
+
+    @Override
+    boolean checkReplicaCurrent() { return replicaCurrent; }
+  }
+
+  @Test
+  public void testNoReplica() throws Exception {
+    final ReadRouter router = new ReadRouter(new PGSimpleDataSource(), null, 5, 60);
+    assertFalse(router.hasReplica());
+    assertFalse(ReadRouter.readAs(UUID.randomUUID(), () -> router.readFromReplica()));
+  }
+
+  @Test
+  public void testReplicaLagging() throws Exception {
+    final ReadRouter router = new TestReadRouter(false);
+    assertTrue(router.hasReplica());
+    assertFalse(ReadRouter.readAs(UUID.randomUUID(), () -> router.readFromReplica()));
+  }
+
+  @Test
+  public void testPrimaryUntilLagChecked() throws Exception {
+    final ReadRouter router = new ReadRouter(new PGSimpleDataSource(), new PGSimpleDataSource(), 5, 60) {
+      @Override
+      boolean checkReplicaCurrent() { return true; }
+    };
+    assertFalse(ReadRouter.readAs(UUID.randomUUID(), () -> router.readFromReplica()));
+    router.updateReplicaCurrent();
+    assertTrue(ReadRouter.readAs(UUID.randomUUID(), () -> router.readFromReplica()));
+  }
+
+  @Test
+  public void testReadYourWrites() throws Exception {
+    final ReadRouter router = new TestReadRouter(true);
+    final UUID writer = UUID.randomUUID();
+    final UUID other = UUID.randomUUID();
+
+    assertTrue(ReadRouter.readAs(writer, () -> router.readFromReplica()));
+
+    // mutate as writer
+    ReadRouter.readAs(writer, () -> { router.pin(); return null; });
+
+    // writer reads from primary while pinned, others still read from replica
+    assertFalse(ReadRouter.readAs(writer, () -> router.readFromReplica()));
+    assertTrue(ReadRouter.readAs(other, () -> router.readFromReplica()));
+    assertTrue(ReadRouter.readAs(null, () -> router.readFromReplica()));
+  }
+
+  @Test
+  public void testPinByMcuserId() throws Exception {
+    final ReadRouter router = new TestReadRouter(true);
+    final UUID importer = UUID.randomUUID();
+
+    // e.g. a bulk import outside of any readAs scope
+    router.pin(importer);
+    router.pin(null);
+
+    assertFalse(ReadRouter.readAs(importer, () -> router.readFromReplica()));
+    assertTrue(ReadRouter.readAs(UUID.randomUUID(), () -> router.readFromReplica()));
+  }
+}
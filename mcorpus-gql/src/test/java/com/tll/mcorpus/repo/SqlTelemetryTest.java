@@ -0,0 +1,66 @@
+package com.tll.mcorpus.repo;
+
+import static com.tll.mcorpus.db.Tables.MEMBER;
+import static org.junit.Assert.assertEquals;
+
+import java.util.UUID;
+
+import com.codahale.metrics.MetricRegistry;
+import com.tll.UnitTest;
+
+import org.jooq.DSLContext;
+import org.jooq.Record1;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for {@link SqlTelemetry}.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class SqlTelemetryTest {
+
+  @Test
+  public void testShape() {
+    assertEquals("select_member", SqlTelemetry.shape("SELECT \"member\".\"mid\" FROM \"member\" WHERE \"member\".\"emp_id\" = ?"));
+    assertEquals("select_member", SqlTelemetry.shape("with m as (values (1))\nselect * from public.member, m"));
+    assertEquals("insert_maddress", SqlTelemetry.shape("INSERT INTO \"maddress\" (\"mid\") VALUES (?)"));
+    assertEquals("update_mauth", SqlTelemetry.shape("UPDATE \"public\".\"mauth\" SET \"ssn\" = ?"));
+    assertEquals("delete_member", SqlTelemetry.shape("DELETE FROM \"member\" WHERE \"mid\" = ?"));
+    assertEquals("begin", SqlTelemetry.shape("BEGIN"));
+  }
+
+  @Test
+  public void testRecordedMetrics() {
+    final DSLContext mctx = DSL.using(SQLDialect.POSTGRES);
+    final Result<Record1<UUID>> result = mctx.newResult(MEMBER.MID);
+    for(int i = 0; i < 3; i++) result.add(mctx.newRecord(MEMBER.MID).values(UUID.randomUUID()));
+
+    final SqlTelemetry sqlTelemetry = new SqlTelemetry(0);
+    final MetricRegistry metricRegistry = new MetricRegistry();
+    sqlTelemetry.bind(metricRegistry);
+
+    final DSLContext dsl = DSL.using(new DefaultConfiguration()
+      .set(SQLDialect.POSTGRES)
+      .set(new MockConnection(ctx -> ctx.sql().startsWith("select") ?
+        new MockResult[] { new MockResult(result.size(), result) } :
+        new MockResult[] { new MockResult(2, null) }))
+      .set(sqlTelemetry));
+
+    assertEquals(3, dsl.select(MEMBER.MID).from(MEMBER).fetch().size());
+    assertEquals(3, dsl.select(MEMBER.MID).from(MEMBER).where(MEMBER.EMP_ID.eq("01-0000001")).fetch().size());
+    assertEquals(2, dsl.deleteFrom(MEMBER).where(MEMBER.EMP_ID.eq("01-0000001")).execute());
+
+    assertEquals(2, metricRegistry.timer("sql.select_member").getCount());
+    assertEquals(3, metricRegistry.histogram("sql.select_member.rows").getSnapshot().getMax());
+    assertEquals(1, metricRegistry.timer("sql.delete_member").getCount());
+    assertEquals(2, metricRegistry.histogram("sql.delete_member.rows").getSnapshot().getMax());
+  }
+}
@@ -0,0 +1,176 @@
+package com.tll.mcorpus.transform;
+
+import static com.tll.mcorpus.db.Tables.MAUTH;
+import static com.tll.mcorpus.db.Tables.MEMBER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.tll.UnitTest;
+import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.db.enums.MemberStatus;
+import com.tll.mcorpus.db.tables.pojos.Mauth;
+import com.tll.mcorpus.db.tables.pojos.Member;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+import com.tll.mcorpus.dmodel.MemberSearch;
+import com.tll.mcorpus.gmodel.MemberFilter;
+
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for {@link MemberFilterXfrm} keyset pagination and fuzzy search.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class MemberFilterXfrmTest {
+
+  static MemberAndMauth testMember(final UUID mid, final String displayName) {
+    return new MemberAndMauth(
+      new Member(mid, OffsetDateTime.parse("2020-01-02T03:04:05.123456Z"), null, "01-0000001", Location._01, "First", "Middle", "Last", displayName, MemberStatus.ACTIVE),
+      new Mauth(mid, null, LocalDate.of(1970, 1, 1), "123456789", null, null, null, null, null, null, "username", null)
+    );
+  }
+
+  static MemberFilter filter(final String orderBy, final String after) {
+    final Map<String, Object> gqlMap = new HashMap<>();
+    if(orderBy != null) gqlMap.put("orderBy", orderBy);
+    return new MemberFilterXfrm().fromGraphQLArgs(gqlMap, Integer.valueOf(5), after);
+  }
+
+  static String sql(final MemberSearch msearch) {
+    return DSL.using(SQLDialect.POSTGRES).renderInlined(DSL.and(msearch.conditions));
+  }
+
+  @Test
+  public void testFirstPage() {
+    final MemberSearch msearch = new MemberFilterXfrm().toBackendForPage(filter(null, null));
+    assertEquals(0, msearch.offset);
+    assertEquals(6, msearch.limit); // one more than requested to detect a next page
+    assertEquals(0, msearch.conditions.length);
+    assertEquals(2, msearch.orderBys.length); // created desc, mid asc
+  }
+
+  @Test
+  public void testSeekAfterCursor() {
+    final MemberFilterXfrm xfrm = new MemberFilterXfrm();
+    final UUID mid = UUID.randomUUID();
+    final String cursor = xfrm.cursorFor(filter(null, null), testMember(mid, "Display"));
+    assertNotNull(cursor);
+
+    final MemberSearch msearch = xfrm.toBackendForPage(filter(null, cursor));
+    assertEquals(0, msearch.offset);
+    assertEquals(1, msearch.conditions.length);
+    final String sql = sql(msearch);
+    // index seekable leading bound
+    assertTrue(sql, sql.contains("\"member\".\"created\" <= timestamp with time zone '2020-01-02 03:04:05.123456+00:00'"));
+    assertTrue(sql, sql.contains("\"member\".\"mid\" > '" + mid + "'"));
+  }
+
+  @Test
+  public void testSeekAfterNullKeyValue() {
+    final MemberFilterXfrm xfrm = new MemberFilterXfrm();
+    final String cursor = xfrm.cursorFor(filter("displayName desc", null), testMember(UUID.randomUUID(), null));
+    final String sql = sql(xfrm.toBackendForPage(filter("displayName desc", cursor)));
+    // nulls sort first when descending so all non-null display names follow
+    assertTrue(sql, sql.contains("\"member\".\"display_name\" is not null"));
+  }
+
+  @Test
+  public void testCursorOrderingMismatch() {
+    final MemberFilterXfrm xfrm = new MemberFilterXfrm();
+    final String cursor = xfrm.cursorFor(filter("nameLast", null), testMember(UUID.randomUUID(), "Display"));
+    try {
+      xfrm.toBackendForPage(filter(null, cursor));
+      fail("Expected IllegalArgumentException");
+    } catch(IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testInvalidCursor() {
+    try {
+      new MemberFilterXfrm().toBackendForPage(filter(null, "not*a*cursor"));
+      fail("Expected IllegalArgumentException");
+    } catch(IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testFuzzyNameSearch() {
+    final Map<String, Object> nameLast = new HashMap<>();
+    nameLast.put("value", "Smyth*");
+    nameLast.put("fuzzy", Boolean.TRUE);
+    final Map<String, Object> gqlMap = new HashMap<>();
+    gqlMap.put("nameLast", nameLast);
+
+    final MemberFilterXfrm xfrm = new MemberFilterXfrm();
+    final MemberFilter mf = xfrm.fromGraphQLMap(gqlMap);
+    assertEquals(MemberFilter.StringPredicate.Operation.SIMILAR, mf.getNameLast().getOperation());
+
+    final MemberSearch msearch = xfrm.toBackend(mf);
+    final String sql = sql(msearch);
+    assertTrue(sql, sql.contains("\"member\".\"name_last\" % 'Smyth'"));
+
+    // ranked by similarity ahead of the default ordering
+    assertEquals(2, msearch.orderBys.length);
+    final String orderBy = DSL.using(SQLDialect.POSTGRES).renderInlined(msearch.orderBys[0]);
+    assertTrue(orderBy, orderBy.startsWith("similarity("));
+    assertTrue(orderBy, orderBy.endsWith("\"name_last\", 'Smyth') desc"));
+  }
+
+  @Test
+  public void testMauthReferences() {
+    final MemberFilterXfrm xfrm = new MemberFilterXfrm();
+    assertFalse(xfrm.toBackendForPage(filter(null, null)).mauth);
+    assertFalse(xfrm.toBackendForPage(filter("nameLast asc", null)).mauth);
+    assertTrue(xfrm.toBackendForPage(filter("nameLast asc, username", null)).mauth);
+
+    final Map<String, Object> gqlMap = new HashMap<>();
+    gqlMap.put("nameLast", Collections.singletonMap("value", "Smith"));
+    assertFalse(xfrm.toBackend(xfrm.fromGraphQLMap(gqlMap)).mauth);
+    gqlMap.put("username", Collections.singletonMap("value", "jsmith"));
+    assertTrue(xfrm.toBackend(xfrm.fromGraphQLMap(gqlMap)).mauth);
+  }
+
+  @Test
+  public void testOrderByColumns() {
+    assertEquals(Collections.singletonList(MEMBER.CREATED), MemberFilterXfrm.orderByColumns(filter(null, null)));
+    assertEquals(Arrays.asList(MEMBER.NAME_LAST, MAUTH.DOB), MemberFilterXfrm.orderByColumns(filter("nameLast, dob desc, bogus", null)));
+  }
+
+  @Test
+  public void testSearchKey() {
+    final MemberFilterXfrm xfrm = new MemberFilterXfrm();
+    final Map<String, Object> gqlMap = new HashMap<>();
+    gqlMap.put("empId", Collections.singletonMap("value", "01-*"));
+    gqlMap.put("orderBy", "nameLast");
+    gqlMap.put("limit", Integer.valueOf(20));
+    final Object key = xfrm.toBackend(xfrm.fromGraphQLMap(gqlMap)).key;
+    assertEquals(key, xfrm.toBackend(xfrm.fromGraphQLMap(new HashMap<>(gqlMap))).key);
+    assertEquals(key.hashCode(), xfrm.toBackend(xfrm.fromGraphQLMap(new HashMap<>(gqlMap))).key.hashCode());
+
+    // paging and the emp id are part of the key
+    final Map<String, Object> page2 = new HashMap<>(gqlMap);
+    page2.put("offset", Integer.valueOf(20));
+    assertFalse(key.equals(xfrm.toBackend(xfrm.fromGraphQLMap(page2)).key));
+    final Map<String, Object> otherEmpId = new HashMap<>(gqlMap);
+    otherEmpId.put("empId", Collections.singletonMap("value", "02-*"));
+    assertFalse(key.equals(xfrm.toBackend(xfrm.fromGraphQLMap(otherEmpId)).key));
+  }
+}
@@ -0,0 +1,222 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.mcorpus.MCorpusTestUtil.jwt;
+import static com.tll.mcorpus.MCorpusTestUtil.testJwtResponseProvider;
+import static com.tll.repo.FetchResult.fetchrslt;
+import static com.tll.transform.TransformUtil.uuidToToken;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.tll.LoadTest;
+import com.tll.jwt.JWTHttpRequestStatus;
+import com.tll.jwt.JWTHttpRequestStatus.JWTStatus;
+import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.db.udt.pojos.Mref;
+import com.tll.mcorpus.repo.MCorpusRepo;
+import com.tll.mcorpus.repo.MCorpusUserRepo;
+import com.tll.repo.FetchResult;
+import com.tll.web.JWTUserGraphQLWebContext;
+import com.tll.web.RequestSnapshot;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+
+/**
+ * Contrasts request latency of the in-line (synchronous) data fetch mode
+ * against the pooled (async) data fetch mode of {@link MCorpusGraphQL}.
+ * <p>
+ * A small fixed thread pool stands in for the Ratpack compute threads
+ * and the backend repo is stubbed with a fixed simulated db latency.
+ * <p>
+ * Run with: <code>mvn test -P loadtest</code>
+ *
+ * @author jpk
+ */
+@Category(LoadTest.class)
+public class GraphQLFetchModeLoadTest {
+  private static final Logger log = LoggerFactory.getLogger(GraphQLFetchModeLoadTest.class);
+
+  static final int NUM_COMPUTE_THREADS = 2;
+  static final int NUM_FETCH_THREADS = 10;
+  static final int NUM_CLIENTS = 16;
+  static final int NUM_REQUESTS_PER_CLIENT = 25;
+  static final long SIMULATED_DB_LATENCY_MILLIS = 10L;
+
+  static final String EMP_ID = "01-0000001";
+
+  /**
+   * Three independent root fields each incurring one (simulated) db round trip.
+   */
+  static final String query = String.format(
+    "query { mrefByMid(mid: \"%s\") { mid } mrefsByEmpId(empId: \"%s\") { mid } mrefByEmpIdAndLoc(empId: \"%s\", location: L01) { mid } }",
+    uuidToToken(UUID.randomUUID()), EMP_ID, EMP_ID
+  );
+
+  /**
+   * Backend stub simulating a blocking jdbc call.
+   */
+  static class StubMCorpusRepo extends MCorpusRepo {
+
+    public StubMCorpusRepo() {
+      super(new PGSimpleDataSource());
+    }
+
+    static void simulateDbLatency() {
+      try {
+        Thread.sleep(SIMULATED_DB_LATENCY_MILLIS);
+      } catch(InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public FetchResult<Map<UUID, Mref>> fetchMRefsByMids(Collection<UUID> mids) {
+      simulateDbLatency();
+      return fetchrslt(mids.stream().collect(Collectors.toMap(mid -> mid, mid -> new Mref(mid, EMP_ID, Location._01))));
+    }
+
+    @Override
+    public FetchResult<Mref> fetchMRefByEmpIdAndLoc(String empId, Location loc) {
+      simulateDbLatency();
+      return fetchrslt(new Mref(UUID.randomUUID(), empId, loc));
+    }
+
+    @Override
+    public FetchResult<List<Mref>> fetchMRefsByEmpId(String empId) {
+      simulateDbLatency();
+      return fetchrslt(Collections.singletonList(new Mref(UUID.randomUUID(), empId, Location._01)));
+    }
+  }
+
+  static JWTUserGraphQLWebContext gqlWebContext() {
+    final Instant lnow = Instant.now();
+    return new JWTUserGraphQLWebContext(
+      query,
+      null,
+      MCorpusJwtRequestProvider.fromRequestSnapshot(new RequestSnapshot(
+        lnow,
+        "127.0.0.1",
+        "path",
+        "POST",
+        "host",
+        "origin",
+        "https://mcorpus.d2d",
+        "forwarded",
+        "X-Forwarded-For",
+        "X-Forwarded-Host",
+        "X-Forwarded-Proto",
+        null,
+        null,
+        null,
+        UUID.randomUUID().toString()
+      )),
+      JWTHttpRequestStatus.create(JWTStatus.VALID, UUID.randomUUID(), UUID.randomUUID(), "MCORPUS", lnow, lnow),
+      jwt(),
+      testJwtResponseProvider(),
+      "mclogin"
+    );
+  }
+
+  /**
+   * Drive concurrent clients through the compute pool and gather the per-request latencies.
+   *
+   * @param mcgql the mcorpus graphql instance under test
+   * @param graphQL the graphql instance under test
+   * @return the sorted list of request latencies in millis
+   */
+  static List<Long> run(final MCorpusGraphQL mcgql, final GraphQL graphQL) throws Exception {
+    final ExecutorService computePool = Executors.newFixedThreadPool(NUM_COMPUTE_THREADS);
+    final ExecutorService clientPool = Executors.newFixedThreadPool(NUM_CLIENTS);
+    final List<Long> latencies = Collections.synchronizedList(new ArrayList<>(NUM_CLIENTS * NUM_REQUESTS_PER_CLIENT));
+    final CountDownLatch done = new CountDownLatch(NUM_CLIENTS);
+    try {
+      for(int c = 0; c < NUM_CLIENTS; c++) {
+        clientPool.execute(() -> {
+          try {
+            for(int r = 0; r < NUM_REQUESTS_PER_CLIENT; r++) {
+              final long start = System.nanoTime();
+              final CompletableFuture<ExecutionResult> fer = new CompletableFuture<>();
+              computePool.execute(() -> graphQL.executeAsync(
+                ExecutionInput.newExecutionInput()
+                  .query(query)
+                  .context(gqlWebContext())
+                  .dataLoaderRegistry(mcgql.newDataLoaderRegistry())
+                  .build()
+              ).whenComplete((er, ex) -> {
+                if(ex != null) fer.completeExceptionally(ex); else fer.complete(er);
+              }));
+              final ExecutionResult er = fer.get(30, TimeUnit.SECONDS);
+              latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+              assertTrue(er.getErrors().isEmpty());
+            }
+          } catch(Exception e) {
+            log.error("Load test client error: {}", e.getMessage());
+          } finally {
+            done.countDown();
+          }
+        });
+      }
+      done.await(5, TimeUnit.MINUTES);
+    } finally {
+      clientPool.shutdownNow();
+      computePool.shutdownNow();
+    }
+    Collections.sort(latencies);
+    return latencies;
+  }
+
+  static long percentile(final List<Long> sorted, double pct) {
+    return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(pct / 100d * sorted.size()) - 1));
+  }
+
+  @Test
+  public void testFetchModeLatency() throws Exception {
+    final MCorpusUserRepo mcuserRepo = new MCorpusUserRepo(new PGSimpleDataSource());
+    final MCorpusRepo mcorpusRepo = new StubMCorpusRepo();
+
+    // in-line
+    final MCorpusGraphQL mcgqlInline = new MCorpusGraphQL(mcuserRepo, mcorpusRepo);
+    final GraphQL gqlInline = GraphQL.newGraphQL(mcgqlInline.getGraphQLSchema()).build();
+    run(mcgqlInline, gqlInline); // warm up
+    final List<Long> inline = run(mcgqlInline, gqlInline);
+
+    // pooled
+    final ExecutorService fetchPool = Executors.newFixedThreadPool(NUM_FETCH_THREADS);
+    final List<Long> pooled;
+    try {
+      final MCorpusGraphQL mcgqlPooled = new MCorpusGraphQL(mcuserRepo, mcorpusRepo, fetchPool);
+      final GraphQL gqlPooled = GraphQL.newGraphQL(mcgqlPooled.getGraphQLSchema()).build();
+      run(mcgqlPooled, gqlPooled); // warm up
+      pooled = run(mcgqlPooled, gqlPooled);
+    } finally {
+      fetchPool.shutdownNow();
+    }
+
+    log.info("In-line fetch mode: {} requests, p50: {} ms, p99: {} ms.",
+      inline.size(), percentile(inline, 50), percentile(inline, 99));
+    log.info("Pooled fetch mode:  {} requests, p50: {} ms, p99: {} ms.",
+      pooled.size(), percentile(pooled, 50), percentile(pooled, 99));
+
+    assertTrue(percentile(pooled, 99) < percentile(inline, 99));
+  }
+}
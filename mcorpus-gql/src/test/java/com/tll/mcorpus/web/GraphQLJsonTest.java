@@ -0,0 +1,88 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.mcorpus.web.QueryCostInstrumentationTest.execute;
+import static com.tll.mcorpus.web.QueryCostInstrumentationTest.mcorpusGraphQL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tll.UnitTest;
+import com.tll.mcorpus.web.GraphQLJson.GraphQLRequest;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQL;
+import graphql.introspection.IntrospectionQuery;
+
+/**
+ * Unit tests for {@link GraphQLJson}.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class GraphQLJsonTest {
+
+  static final ObjectMapper mapper = new ObjectMapper();
+
+  static String write(final ExecutionResult er) throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    GraphQLJson.writeResult(mapper.getFactory(), er, out);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testReadRequest() throws Exception {
+    final String json = "{\"operationName\":null,\"query\":\"query($p: String!) { memberSuggest(prefix: $p) { displayName } }\","
+      + "\"variables\":{\"p\":\"jo\",\"nested\":{\"a\":[1,2]}},\"other\":[{\"x\":1}],"
+      + "\"extensions\":{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"abc\"}}}";
+    final GraphQLRequest gqlRequest = GraphQLJson.readRequest(mapper.getFactory(), new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    assertEquals("query($p: String!) { memberSuggest(prefix: $p) { displayName } }", gqlRequest.query);
+    assertEquals("jo", gqlRequest.variables.get("p"));
+    assertEquals(Collections.singletonMap("a", Arrays.asList(1, 2)), gqlRequest.variables.get("nested"));
+    assertTrue(gqlRequest.extensions.containsKey("persistedQuery"));
+
+    final GraphQLRequest noVars = GraphQLJson.readRequest(mapper.getFactory(),
+      new ByteArrayInputStream("{\"query\":\"{ a }\",\"variables\":null}".getBytes(StandardCharsets.UTF_8)));
+    assertEquals("{ a }", noVars.query);
+    assertNull(noVars.variables);
+    assertNull(noVars.extensions);
+  }
+
+  @Test
+  public void testWriteResultMatchesSpecification() throws Exception {
+    final GraphQL graphQL = GraphQL.newGraphQL(mcorpusGraphQL().getGraphQLSchema()).build();
+
+    // (large) introspection result
+    ExecutionResult er = execute(graphQL, IntrospectionQuery.INTROSPECTION_QUERY, null, UUID.randomUUID());
+    assertEquals(mapper.writeValueAsString(er.toSpecification()), write(er));
+
+    // errors
+    er = execute(graphQL, "query { nope }", null, UUID.randomUUID());
+    assertEquals(mapper.writeValueAsString(er.toSpecification()), write(er));
+
+    // data and extensions of assorted value types
+    final Map<String, Object> data = new LinkedHashMap<>();
+    data.put("s", "str\"ing");
+    data.put("i", 1);
+    data.put("l", Long.MAX_VALUE);
+    data.put("d", 1.5d);
+    data.put("b", Boolean.TRUE);
+    data.put("n", null);
+    data.put("list", Arrays.asList("a", null, 2));
+    er = new ExecutionResultImpl(data, null, Collections.singletonMap("cost", Collections.singletonMap("depth", 2)));
+    assertEquals(mapper.writeValueAsString(er.toSpecification()), write(er));
+  }
+}
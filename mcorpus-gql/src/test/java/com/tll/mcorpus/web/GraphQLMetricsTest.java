@@ -0,0 +1,47 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.mcorpus.web.QueryCostInstrumentationTest.execute;
+import static com.tll.mcorpus.web.QueryCostInstrumentationTest.mcorpusGraphQL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import com.codahale.metrics.MetricRegistry;
+import com.tll.UnitTest;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import graphql.GraphQL;
+
+/**
+ * Unit tests for {@link GraphQLMetrics}.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class GraphQLMetricsTest {
+
+  @Test
+  public void testRecordedMetrics() {
+    final MetricRegistry metricRegistry = new MetricRegistry();
+    final GraphQL graphQL = GraphQL.newGraphQL(mcorpusGraphQL().getGraphQLSchema())
+      .instrumentation(new GraphQLMetrics(metricRegistry)).build();
+
+    execute(graphQL, "query Suggest { memberSuggest(prefix: \"jo\") { displayName } }", null, UUID.randomUUID());
+    execute(graphQL, "query Suggest { memberSuggest(prefix: \"jo\") { displayName } }", null, UUID.randomUUID());
+    execute(graphQL, "query { nope }", null, UUID.randomUUID());
+
+    assertEquals(3, metricRegistry.timer("graphql.request").getCount());
+    assertEquals(3, metricRegistry.timer("graphql.parse").getCount());
+    assertEquals(3, metricRegistry.timer("graphql.validate").getCount());
+    assertEquals(2, metricRegistry.timer("graphql.execute").getCount());
+    assertEquals(2, metricRegistry.timer("graphql.operation.query.Suggest").getCount());
+    assertEquals(2, metricRegistry.timer("graphql.field.Query.memberSuggest").getCount());
+    assertEquals(2, metricRegistry.timer("graphql.fetch.Query.memberSuggest").getCount());
+    // the memberSuggest fetcher is the only non-trivial data fetcher
+    assertEquals(1, metricRegistry.histogram("graphql.operation.query.Suggest.fetches").getSnapshot().getMax());
+    assertTrue(metricRegistry.counter("graphql.errors.ValidationError").getCount() > 0);
+  }
+}
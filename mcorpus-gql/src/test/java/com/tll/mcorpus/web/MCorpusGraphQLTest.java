@@ -133,12 +133,14 @@ public class MCorpusGraphQLTest {
    * Issue a GraphQL query with with a context of the given jwt status and role.
    */
   static ExecutionResult query(final String query, JWTStatus jwtStatus, String roles) {
-    final GraphQLSchema schema = mcgql().getGraphQLSchema();
+    final MCorpusGraphQL mcgql = mcgql();
+    final GraphQLSchema schema = mcgql.getGraphQLSchema();
     final GraphQL graphQL = GraphQL.newGraphQL(schema).build();
     final ExecutionInput executionInput =
       ExecutionInput.newExecutionInput()
         .query(query)
         .context(gqlWebContext(query, testRequestSnapshot(), testJwtStatus(jwtStatus, roles)))
+        .dataLoaderRegistry(mcgql.newDataLoaderRegistry())
         .build();
     final ExecutionResult result = graphQL.execute(executionInput);
     return result;
@@ -148,11 +150,13 @@ public class MCorpusGraphQLTest {
    * Issue a GraphQL query with NO context object.
    */
   static ExecutionResult queryNoContext(final String query) {
-    final GraphQLSchema schema = mcgql().getGraphQLSchema();
+    final MCorpusGraphQL mcgql = mcgql();
+    final GraphQLSchema schema = mcgql.getGraphQLSchema();
     final GraphQL graphQL = GraphQL.newGraphQL(schema).build();
     final ExecutionInput executionInput =
       ExecutionInput.newExecutionInput()
         .query(query)
+        .dataLoaderRegistry(mcgql.newDataLoaderRegistry())
         .build();
     final ExecutionResult result = graphQL.execute(executionInput);
     return result;
@@ -0,0 +1,56 @@
+package com.tll.mcorpus.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.tll.UnitTest;
+import com.tll.mcorpus.gmodel.Member;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for {@link MemberExportHandler}.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class MemberExportHandlerTest {
+
+  static Member testMember() {
+    final Date now = new Date();
+    return new Member(UUID.randomUUID(), now, null, "01-0000001", "L01", "First", "Middle", "Last", null,
+      "ACTIVE", now, "123456789", "p@domain.com", null, null, null, null, "username1", null);
+  }
+
+  @Test
+  public void testCoerceDates() {
+    final Map<String, Object> created = new HashMap<>();
+    created.put("op", "GREATER_THAN");
+    created.put("argA", "2020-01-01");
+    final Map<String, Object> filterMap = new HashMap<>();
+    filterMap.put("created", created);
+    MemberExportHandler.coerceDates(filterMap);
+    assertTrue(created.get("argA") instanceof Date);
+  }
+
+  @Test
+  public void testToExportMapPii() {
+    final Member m = testMember();
+
+    final Map<String, Object> noPii = MemberExportHandler.toExportMap(m, false);
+    assertEquals("01-0000001", noPii.get("empId"));
+    assertFalse(noPii.containsKey("ssn"));
+    assertFalse(noPii.containsKey("dob"));
+
+    final Map<String, Object> withPii = MemberExportHandler.toExportMap(m, true);
+    assertEquals("123456789", withPii.get("ssn"));
+    assertTrue(withPii.containsKey("dob"));
+  }
+}
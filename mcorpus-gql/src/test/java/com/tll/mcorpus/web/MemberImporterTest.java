@@ -0,0 +1,131 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.repo.FetchResult.fetchrslt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tll.UnitTest;
+import com.tll.mcorpus.db.udt.pojos.Mref;
+import com.tll.mcorpus.dmodel.MemberAndMauth;
+import com.tll.mcorpus.dmodel.MembersAdded;
+import com.tll.mcorpus.gmodel.MemberImportResult;
+import com.tll.mcorpus.repo.MCorpusRepo;
+import com.tll.repo.FetchResult;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.postgresql.ds.PGSimpleDataSource;
+
+/**
+ * Unit tests for {@link MemberImporter} and {@link MemberImportHandler}.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class MemberImporterTest {
+
+  /**
+   * Adds all given members but the second one whose username is taken.
+   */
+  static class StubMCorpusRepo extends MCorpusRepo {
+
+    int numToAdd = 0;
+
+    StubMCorpusRepo() {
+      super(new PGSimpleDataSource());
+    }
+
+    @Override
+    public FetchResult<MembersAdded> addMembers(List<MemberAndMauth> membersToAdd) {
+      numToAdd = membersToAdd.size();
+      final Map<Integer, Mref> added = new TreeMap<>();
+      final Map<Integer, String> rejected = new TreeMap<>();
+      for(int i = 0; i < membersToAdd.size(); i++) {
+        final MemberAndMauth m = membersToAdd.get(i);
+        if(i == 1)
+          rejected.put(i, "Member username already exists.");
+        else
+          added.put(i, new Mref(UUID.randomUUID(), m.dbMember.getEmpId(), m.dbMember.getLocation()));
+      }
+      return fetchrslt(new MembersAdded(added, rejected), null);
+    }
+  }
+
+  static Map<String, Object> memberToAdd(final String empId, final String username) {
+    final Calendar dob = Calendar.getInstance();
+    dob.set(1970, 0, 1);
+    final Map<String, Object> gqlMap = new HashMap<>();
+    gqlMap.put("empId", empId);
+    gqlMap.put("location", "L01");
+    gqlMap.put("nameFirst", "First");
+    gqlMap.put("nameLast", "Last");
+    gqlMap.put("status", "ACTIVE");
+    gqlMap.put("dob", dob.getTime());
+    gqlMap.put("ssn", "123-45-6789");
+    gqlMap.put("username", username);
+    gqlMap.put("pswd", "pswd33*7yuI");
+    return gqlMap;
+  }
+
+  @Test
+  public void testImportMembers() {
+    final StubMCorpusRepo repo = new StubMCorpusRepo();
+    final FetchResult<MemberImportResult> fr = new MemberImporter(repo).importMembers(Arrays.asList(
+      memberToAdd("01-0000001", "username1"),
+      memberToAdd("bad", "username2"),
+      memberToAdd("01-0000003", "username3"),
+      memberToAdd("01-0000004", "username4")
+    ));
+    assertTrue(fr.isSuccess());
+    assertEquals(3, repo.numToAdd); // only the valid ones hit the backend
+
+    final MemberImportResult result = fr.get();
+    assertEquals(2, result.getNumAdded());
+    assertEquals("01-0000001", result.getAdded().get(0).empId);
+    assertEquals("01-0000004", result.getAdded().get(1).empId);
+
+    assertEquals(2, result.getErrors().size());
+    // validation error
+    assertEquals(1, result.getErrors().get(0).getIndex());
+    assertEquals("bad", result.getErrors().get(0).getEmpId());
+    assertTrue(result.getErrors().get(0).getMessage().startsWith("empId: "));
+    // backend rejection mapped back to the input index
+    assertEquals(2, result.getErrors().get(1).getIndex());
+    assertEquals("Member username already exists.", result.getErrors().get(1).getMessage());
+  }
+
+  @Test
+  public void testImportNoMembers() {
+    assertFalse(new MemberImporter(new StubMCorpusRepo()).importMembers(null).isSuccess());
+  }
+
+  @Test
+  public void testParseMembers() {
+    final String ndjson =
+      "{\"empId\":\"01-0000001\",\"location\":\"L01\",\"dob\":\"1970-01-01\"}\n" +
+      "\n" +
+      "{\"empId\":\"01-0000002\",\"location\":\"L01\"}\n";
+    final List<Map<String, Object>> gqlMaps = MemberImportHandler.parseMembers(new ObjectMapper(), ndjson);
+    assertEquals(2, gqlMaps.size());
+    assertTrue(gqlMaps.get(0).get("dob") instanceof Date);
+
+    try {
+      MemberImportHandler.parseMembers(new ObjectMapper(), "{\"empId\":\n");
+      fail("Expected IllegalArgumentException");
+    } catch(IllegalArgumentException e) {
+      assertEquals("Invalid member at line 1.", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.tll.mcorpus.web;
+
+import static com.tll.mcorpus.MCorpusTestUtil.jwt;
+import static com.tll.mcorpus.MCorpusTestUtil.testJwtResponseProvider;
+import static com.tll.repo.FetchResult.fetchrslt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.tll.UnitTest;
+import com.tll.jwt.JWTHttpRequestStatus;
+import com.tll.jwt.JWTHttpRequestStatus.JWTStatus;
+import com.tll.mcorpus.db.enums.Location;
+import com.tll.mcorpus.dmodel.MemberSuggestion;
+import com.tll.mcorpus.repo.MCorpusRepo;
+import com.tll.mcorpus.repo.MCorpusUserRepo;
+import com.tll.repo.FetchResult;
+import com.tll.web.JWTUserGraphQLWebContext;
+import com.tll.web.RequestSnapshot;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.introspection.IntrospectionQuery;
+
+/**
+ * Unit tests for {@link QueryCostInstrumentation}.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class QueryCostInstrumentationTest {
+
+  static final String membersQuery =
+    "query ($filter: MemberFilter!) { members(filter: $filter) { mid nameLast addresses { city } } }";
+
+  static final String suggestQuery =
+    "query { memberSuggest(prefix: \"jo\", limit: 20) { displayName mref { mid } } }";
+
+  static MCorpusGraphQL mcorpusGraphQL() {
+    return new MCorpusGraphQL(
+      new MCorpusUserRepo(new PGSimpleDataSource()),
+      new MCorpusRepo(new PGSimpleDataSource()) {
+        @Override
+        public FetchResult<List<MemberSuggestion>> memberSuggest(String prefix, Location location, int limit) {
+          return fetchrslt(Collections.emptyList(), null);
+        }
+      });
+  }
+
+  static ExecutionResult execute(final GraphQL graphQL, final String query, final Map<String, Object> vmap, final UUID mcuserId) {
+    final Instant lnow = Instant.now();
+    final JWTUserGraphQLWebContext ctx = new JWTUserGraphQLWebContext(
+      query,
+      vmap,
+      MCorpusJwtRequestProvider.fromRequestSnapshot(new RequestSnapshot(
+        lnow,
+        "127.0.0.1",
+        "path",
+        "POST",
+        "host",
+        "origin",
+        "https://mcorpus.d2d",
+        "forwarded",
+        "X-Forwarded-For",
+        "X-Forwarded-Host",
+        "X-Forwarded-Proto",
+        null,
+        null,
+        null,
+        UUID.randomUUID().toString()
+      )),
+      JWTHttpRequestStatus.create(JWTStatus.VALID, UUID.randomUUID(), mcuserId, "MCORPUS", lnow, lnow),
+      jwt(),
+      testJwtResponseProvider(),
+      "mclogin"
+    );
+    return graphQL.execute(ExecutionInput.newExecutionInput()
+      .query(query)
+      .variables(vmap == null ? Collections.emptyMap() : vmap)
+      .context(ctx)
+      .build());
+  }
+
+  @SuppressWarnings("unchecked")
+  static Map<String, Object> cost(final ExecutionResult er) {
+    return (Map<String, Object>) er.getExtensions().get(QueryCostInstrumentation.COST_EXTENSION);
+  }
+
+  @Test
+  public void testComplexityLimit() {
+    final GraphQL graphQL = GraphQL.newGraphQL(mcorpusGraphQL().getGraphQLSchema())
+      .instrumentation(new QueryCostInstrumentation(0, 100, 0)).build();
+
+    // 50 members each with (up to) 3 addresses: 50 * (1 + 3 * 1)
+    final ExecutionResult er = execute(graphQL, membersQuery,
+      Collections.singletonMap("filter", Collections.singletonMap("limit", 50)), UUID.randomUUID());
+    assertEquals(1, er.getErrors().size());
+    assertEquals("Query complexity 200 exceeds the max of 100.", er.getErrors().get(0).getMessage());
+  }
+
+  @Test
+  public void testDepthLimit() {
+    final MCorpusGraphQL mcgql = mcorpusGraphQL();
+
+    // the standard introspection query is admitted by default
+    GraphQL graphQL = GraphQL.newGraphQL(mcgql.getGraphQLSchema())
+      .instrumentation(new QueryCostInstrumentation(15, 1000, 0)).build();
+    ExecutionResult er = execute(graphQL, IntrospectionQuery.INTROSPECTION_QUERY, null, null);
+    assertTrue(er.getErrors().isEmpty());
+    assertNotNull(cost(er));
+    assertTrue((Integer) cost(er).get("depth") <= 15);
+
+    graphQL = GraphQL.newGraphQL(mcgql.getGraphQLSchema())
+      .instrumentation(new QueryCostInstrumentation(5, 0, 0)).build();
+    er = execute(graphQL, IntrospectionQuery.INTROSPECTION_QUERY, null, null);
+    assertEquals(1, er.getErrors().size());
+    assertTrue(er.getErrors().get(0).getMessage().startsWith("Query depth"));
+  }
+
+  @Test
+  public void testMcuserBudget() {
+    final GraphQL graphQL = GraphQL.newGraphQL(mcorpusGraphQL().getGraphQLSchema())
+      .instrumentation(new QueryCostInstrumentation(0, 0, 100)).build();
+    final UUID mcuserId = UUID.randomUUID();
+
+    // 20 suggestions each with an mref: 20 * (1 + 1)
+    ExecutionResult er = execute(graphQL, suggestQuery, null, mcuserId);
+    assertTrue(er.getErrors().isEmpty());
+    assertEquals(40L, cost(er).get("complexity"));
+    assertEquals(60L, cost(er).get("budgetRemaining"));
+
+    er = execute(graphQL, suggestQuery, null, mcuserId);
+    assertTrue(er.getErrors().isEmpty());
+
+    er = execute(graphQL, suggestQuery, null, mcuserId);
+    assertEquals(1, er.getErrors().size());
+    assertTrue(er.getErrors().get(0).getMessage().contains("remaining query budget"));
+
+    // other mcusers have their own budget
+    er = execute(graphQL, suggestQuery, null, UUID.randomUUID());
+    assertTrue(er.getErrors().isEmpty());
+  }
+}
@@ -0,0 +1,72 @@
+package com.tll.mcorpus.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+import com.tll.UnitTest;
+import com.tll.mcorpus.web.RateLimitHandler.Limit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for {@link RateLimitHandler}.
+ *
+ * @author jpk
+ */
+@Category(UnitTest.class)
+public class RateLimitHandlerTest {
+
+  @Test
+  public void testBurstThenSustainedRate() {
+    final RateLimitHandler handler = new RateLimitHandler(10, 5, 0, 0, 100);
+    final Limit limit = new Limit(10, 5);
+    final UUID mcuserId = UUID.randomUUID();
+    final long now = System.nanoTime();
+
+    // the full burst is admitted at once
+    for(int i = 0; i < 5; i++) assertEquals(0L, handler.acquire(mcuserId, limit, now));
+
+    // then one more per 100ms
+    final long wait = handler.acquire(mcuserId, limit, now);
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+    assertEquals(1L, RateLimitHandler.retryAfterSeconds(wait));
+    assertEquals(0L, handler.acquire(mcuserId, limit, now + wait));
+    assertTrue(handler.acquire(mcuserId, limit, now + wait) > 0L);
+
+    // other keys have their own bucket
+    assertEquals(0L, handler.acquire(UUID.randomUUID(), limit, now));
+    assertEquals(0L, handler.acquire("127.0.0.1|", limit, now));
+  }
+
+  @Test
+  public void testRetryAfterSeconds() {
+    assertEquals(1L, RateLimitHandler.retryAfterSeconds(1L));
+    assertEquals(1L, RateLimitHandler.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1)));
+    assertEquals(3L, RateLimitHandler.retryAfterSeconds(TimeUnit.MILLISECONDS.toNanos(2500)));
+  }
+
+  @Test
+  public void testClientAddress() {
+    final Set<String> none = Collections.emptySet();
+    final Set<String> proxies = ImmutableSet.of("10.0.0.1", "10.0.0.2");
+
+    // X-Forwarded-For is ignored unless from a trusted proxy
+    assertEquals("1.2.3.4", RateLimitHandler.clientAddress("1.2.3.4", "5.6.7.8", none));
+    assertEquals("1.2.3.4", RateLimitHandler.clientAddress("1.2.3.4", "5.6.7.8", proxies));
+    assertEquals("10.0.0.1", RateLimitHandler.clientAddress("10.0.0.1", null, proxies));
+
+    // the right-most untrusted hop (client prepended hops are ignored)
+    assertEquals("5.6.7.8", RateLimitHandler.clientAddress("10.0.0.1", "5.6.7.8", proxies));
+    assertEquals("5.6.7.8", RateLimitHandler.clientAddress("10.0.0.1", "9.9.9.9, 5.6.7.8, 10.0.0.2", proxies));
+
+    // all hops trusted
+    assertEquals("10.0.0.2", RateLimitHandler.clientAddress("10.0.0.1", "10.0.0.2", proxies));
+  }
+}
@@ -163,4 +163,16 @@ public class GraphQLWebContextTest {
     ctx = create("query IntrospectionQuery {    __schema { ");
     assertTrue(ctx.isIntrospectionQuery());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testParsedQueryCacheDisabled() throws Exception {
+    GraphQLWebContext.setParsedQueryCacheMaxSize(0);
+    try {
+      final GraphQLWebContext ctx = create("query opName { methodName { field } }");
+      assertTrue(ctx.isValid());
+      assertEquals("opName", ctx.getOpName());
+    } finally {
+      GraphQLWebContext.setParsedQueryCacheMaxSize(GraphQLWebContext.DEFAULT_PARSED_QUERY_CACHE_MAX_SIZE);
+    }
+  }
+}
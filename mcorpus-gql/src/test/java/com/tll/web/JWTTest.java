@@ -111,4 +111,47 @@ public class JWTTest {
     assertNotNull(jwtStatus);
     assertEquals(JWTStatus.NOT_PRESENT_BACKEND, jwtStatus.status());
   }
+
+  @Test
+  public void testJwtVerifiedCache() throws Exception {
+    final JWT jwti = new JWT(mockJwtBackendHandler(), Duration.ofDays(2), JWT.generateJwtSharedSecret(), "testhost.com", 10);
+    final Instant now = Instant.now();
+
+    final String jwt = jwti.jwtGenerate(UUID.randomUUID(), UUID.randomUUID(), "AROLE", testRequestProvider(now, null));
+    assertNotNull(jwt);
+
+    // repeat requests bearing the same jwt resolve the same status
+    for(int i = 0; i < 3; i++) {
+      assertEquals(JWTStatus.NOT_PRESENT_BACKEND, jwti.jwtHttpRequestStatus(testRequestProvider(now, jwt)).status());
+    }
+
+    // a tampered jwt is never served from cache
+    final String tampered = jwt.substring(0, jwt.length() - 4) + "AAAA";
+    assertEquals(JWTStatus.BAD_TOKEN, jwti.jwtHttpRequestStatus(testRequestProvider(now, tampered)).status());
+  }
+
+  static IJwtHttpRequestProvider testRequestProvider(final Instant requestInstant, final String jwt) {
+    return new IJwtHttpRequestProvider() {
+
+      @Override
+      public boolean verifyClientOrigin(String clientOrigin) {
+        return true;
+      }
+
+      @Override
+      public Instant getRequestInstant() {
+        return requestInstant;
+      }
+
+      @Override
+      public String getJwt() {
+        return jwt;
+      }
+
+      @Override
+      public String getClientOrigin() {
+        return "localhost|localhost";
+      }
+    };
+  }
 }